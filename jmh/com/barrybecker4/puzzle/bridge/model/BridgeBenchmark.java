@@ -0,0 +1,54 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.bridge.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bridge operations done for every node the solvers search.
+ * Run with gradle jmh -PjmhInclude=BridgeBenchmark
+ *
+ * @author Barry Becker
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BridgeBenchmark {
+
+    @Param({"STANDARD_PROBLEM", "SUPER_HARD"})
+    InitialConfiguration config;
+
+    private Bridge bridge;
+    private BridgeMove move;
+
+    @Setup
+    public void setUp() {
+        bridge = new Bridge(config.getPeopleSpeeds());
+        move = new MoveGenerator(bridge).generateMoves().get(0);
+    }
+
+    @Benchmark
+    public Bridge applyMove() {
+        return bridge.applyMove(move, false);
+    }
+
+    @Benchmark
+    public List<BridgeMove> generateMoves() {
+        return new MoveGenerator(bridge).generateMoves();
+    }
+}
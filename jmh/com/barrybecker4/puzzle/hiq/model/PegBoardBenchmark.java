@@ -0,0 +1,77 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.hiq.model;
+
+import com.barrybecker4.puzzle.common.solver.seen.HashVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.VisitedSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hi-q operations done for every node the solvers search.
+ * The canonical board is looked up in a realistically full set, with a board that is not in the set.
+ * Run with gradle jmh -PjmhInclude=PegBoardBenchmark
+ *
+ * @author Barry Becker
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PegBoardBenchmark {
+
+    private static final int NUM_SEEN = 100000;
+    private static final int NUM_MOVES = 8;
+
+    private PegBoard board;
+    private VisitedSet<PegBoard> seen;
+
+    /** Fills the seen set with boards from random games, and picks a board part way through a game. */
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        seen = new HashVisitedSet<>();
+        while (seen.size() < NUM_SEEN) {
+            PegBoard pos = PegBoard.INITIAL_BOARD_POSITION;
+            List<PegMove> moves = new MoveGenerator(pos).generateMoves();
+            while (!moves.isEmpty()) {
+                pos = pos.doMove(moves.get(random.nextInt(moves.size())), false);
+                seen.addIfAbsent(pos.canonical());
+                moves = new MoveGenerator(pos).generateMoves();
+            }
+        }
+        board = PegBoard.INITIAL_BOARD_POSITION;
+        for (int i = 0; i < NUM_MOVES; i++) {
+            List<PegMove> moves = new MoveGenerator(board).generateMoves();
+            board = board.doMove(moves.get(random.nextInt(moves.size())), false);
+        }
+    }
+
+    @Benchmark
+    public PegBoard canonical() {
+        return board.canonical();
+    }
+
+    @Benchmark
+    public boolean canonicalContainedIn() {
+        return seen.contains(board.canonical());
+    }
+
+    @Benchmark
+    public List<PegMove> generateMoves() {
+        return new MoveGenerator(board).generateMoves();
+    }
+}
@@ -0,0 +1,51 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.redpuzzle.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking whether a piece fits is the innermost operation of the red puzzle solvers.
+ * The partial solution has 4 pieces, so the next piece has to match on both its left and top sides.
+ * Run with gradle jmh -PjmhInclude=PieceListBenchmark
+ *
+ * @author Barry Becker
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceListBenchmark {
+
+    private static final int NUM_PLACED = 4;
+
+    private PieceList partialSolution;
+    private Piece nextPiece;
+
+    @Setup
+    public void setUp() {
+        PieceList pieces = PieceList.getInitialPuzzlePieces();
+        partialSolution = new PieceList();
+        for (int i = 0; i < NUM_PLACED; i++) {
+            partialSolution = partialSolution.add(pieces.get(i));
+        }
+        nextPiece = pieces.get(NUM_PLACED);
+    }
+
+    @Benchmark
+    public boolean fits() {
+        return partialSolution.fits(nextPiece);
+    }
+}
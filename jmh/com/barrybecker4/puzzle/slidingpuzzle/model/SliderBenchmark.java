@@ -0,0 +1,66 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.slidingpuzzle.model;
+
+import com.barrybecker4.common.math.MathUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The slider operations done for every node the solvers search.
+ * Run with gradle jmh -PjmhInclude=SliderBenchmark
+ *
+ * @author Barry Becker
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SliderBenchmark {
+
+    @Param({"3", "4", "5"})
+    int size;
+
+    private Slider board;
+    private SlideMove move;
+
+    @Setup
+    public void setUp() {
+        MathUtil.RANDOM.setSeed(1);
+        board = new Slider(size);
+        move = new MoveGenerator(board).generateMoves().get(0);
+    }
+
+    @Benchmark
+    public Slider doMove() {
+        return board.doMove(move);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public int distanceToGoal() {
+        return board.distanceToGoal();
+    }
+
+    @Benchmark
+    public List<SlideMove> generateMoves() {
+        return new MoveGenerator(board).generateMoves();
+    }
+}
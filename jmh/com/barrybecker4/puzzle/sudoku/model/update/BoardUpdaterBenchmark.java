@@ -0,0 +1,49 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.sudoku.model.update;
+
+import com.barrybecker4.puzzle.sudoku.Data;
+import com.barrybecker4.puzzle.sudoku.model.board.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One iteration of the sudoku solver, applying all the standard updaters to a freshly loaded board.
+ * updateAndSet changes the board, so a new one is made before each call. That is only reasonable
+ * because an update takes far longer than the per invocation setup overhead.
+ * Run with gradle jmh -PjmhInclude=BoardUpdaterBenchmark
+ *
+ * @author Barry Becker
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardUpdaterBenchmark {
+
+    private final IBoardUpdater updater = new NonReflectiveBoardUpdater();
+    private Board board;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        board = new Board(Data.HARDEST_9);
+    }
+
+    @Benchmark
+    public Board updateAndSet() {
+        updater.updateAndSet(board);
+        return board;
+    }
+}
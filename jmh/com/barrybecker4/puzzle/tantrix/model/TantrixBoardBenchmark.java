@@ -0,0 +1,70 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.tantrix.model;
+
+import com.barrybecker4.common.geometry.ByteLocation;
+import com.barrybecker4.common.geometry.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.barrybecker4.puzzle.tantrix.model.TantrixBoard.INITIAL_LOCATION;
+
+/**
+ * The tantrix operations done for every candidate the solvers try.
+ * Uses the same three tile solution as the unit tests.
+ * Run with gradle jmh -PjmhInclude=TantrixBoardBenchmark
+ *
+ * @author Barry Becker
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TantrixBoardBenchmark {
+
+    private static final HexTiles TILES = new HexTiles();
+
+    /** two tiles placed, with the third still to place. */
+    private TantrixBoard partialBoard;
+    private TilePlacement lastPlacement;
+    private TantrixBoard solvedBoard;
+
+    @Setup
+    public void setUp() {
+        TantrixBoard board = new TantrixBoard(TILES.createOrderedList(3));
+        partialBoard = board.placeTile(new TilePlacement(TILES.getTile(2), loc(2, 1), Rotation.ANGLE_60));
+        lastPlacement = new TilePlacement(TILES.getTile(3), loc(2, 0), Rotation.ANGLE_120);
+        solvedBoard = partialBoard.placeTile(lastPlacement);
+    }
+
+    @Benchmark
+    public TantrixBoard placeTile() {
+        return partialBoard.placeTile(lastPlacement);
+    }
+
+    @Benchmark
+    public boolean fits() {
+        return partialBoard.fits(lastPlacement);
+    }
+
+    @Benchmark
+    public boolean isSolved() {
+        return solvedBoard.isSolved();
+    }
+
+    /** location relative to the first tile placed. */
+    private static Location loc(int row, int col) {
+        return new ByteLocation(row, col).incrementOnCopy(INITIAL_LOCATION).incrementOnCopy(-1, -1);
+    }
+}
@@ -7,9 +7,16 @@ import com.barrybecker4.puzzle.bridge.model.BridgeMove;
 import com.barrybecker4.puzzle.common.AlgorithmEnum;
 import com.barrybecker4.puzzle.common.PuzzleController;
 import com.barrybecker4.puzzle.common.solver.AStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.BeamPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.BidirectionalPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.CompactAStarPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.ConcurrentPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.ForkJoinPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.HashDistributedAStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.IDAStarPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.SequentialPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.VirtualThreadPuzzleSolver;
 
 /**
  * Type of solver to use.
@@ -19,10 +26,17 @@ import com.barrybecker4.puzzle.common.solver.SequentialPuzzleSolver;
 public enum Algorithm implements AlgorithmEnum<Bridge, BridgeMove> {
 
     A_STAR_SEQUENTIAL,
+    A_STAR_COMPACT,
+    A_STAR_CONCURRENT,
+    IDA_STAR_SEQUENTIAL,
+    BEAM_SEARCH,
+    BIDIRECTIONAL_SEQUENTIAL,
     SIMPLE_SEQUENTIAL,
     CONCURRENT_BREADTH,
     CONCURRENT_DEPTH,
-    CONCURRENT_OPTIMUM;
+    CONCURRENT_OPTIMUM,
+    CONCURRENT_WORK_STEALING,
+    CONCURRENT_VIRTUAL_THREADS;
 
     private String label;
 
@@ -49,6 +63,21 @@ public enum Algorithm implements AlgorithmEnum<Bridge, BridgeMove> {
         switch (this) {
             case A_STAR_SEQUENTIAL :
                 return new AStarPuzzleSolver<>(controller);
+            case A_STAR_COMPACT :
+                // A* that stores its nodes in primitive arrays, so it can search further in the same memory
+                return new CompactAStarPuzzleSolver<>(controller);
+            case A_STAR_CONCURRENT :
+                // optimal like A*, but the positions are split among threads by hash code
+                return new HashDistributedAStarPuzzleSolver<>(controller);
+            case IDA_STAR_SEQUENTIAL :
+                // optimal like A*, but uses memory proportional to the solution depth
+                return new IDAStarPuzzleSolver<>(controller);
+            case BEAM_SEARCH :
+                // keeps only the positions closest to the goal at each depth. Fast, but not always the shortest path
+                return new BeamPuzzleSolver<>(controller);
+            case BIDIRECTIONAL_SEQUENTIAL :
+                // shortest path, searching from both ends until they meet in the middle
+                return new BidirectionalPuzzleSolver<>(controller);
             case SIMPLE_SEQUENTIAL :
                 // this will find a solution, but not necessary the shortest path
                 return new SequentialPuzzleSolver<>(controller);
@@ -59,6 +88,12 @@ public enum Algorithm implements AlgorithmEnum<Bridge, BridgeMove> {
                 return new ConcurrentPuzzleSolver<>(controller, 0.12f);
             case CONCURRENT_OPTIMUM :
                 return new ConcurrentPuzzleSolver<>(controller, 0.3f);
+            case CONCURRENT_WORK_STEALING :
+                // one thread per core. Depth first on each thread, with idle threads stealing shallow work
+                return new ForkJoinPuzzleSolver<>(controller);
+            case CONCURRENT_VIRTUAL_THREADS :
+                // like CONCURRENT_OPTIMUM, with a virtual thread per task and only one task running per core
+                return new VirtualThreadPuzzleSolver<>(controller, 0.3f);
         }
         return null;
     }
@@ -2,11 +2,13 @@
 package com.barrybecker4.puzzle.bridge;
 
 import com.barrybecker4.puzzle.bridge.model.Bridge;
+import com.barrybecker4.puzzle.bridge.model.BridgeEncoder;
 import com.barrybecker4.puzzle.bridge.model.BridgeMove;
 import com.barrybecker4.puzzle.common.Refreshable;
 import com.barrybecker4.puzzle.common.ui.AbstractPuzzleController;
 import com.barrybecker4.puzzle.bridge.model.MoveGenerator;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -24,6 +26,7 @@ public class BridgePuzzleController extends AbstractPuzzleController<Bridge, Bri
     private static final Integer[] DEFAULT_PEOPLE = new Integer[] {1, 2, 5, 8};
 
     private Bridge initialPosition;
+    private BridgeEncoder encoder;
 
     /**
      * @param ui shows the current state on the screen.
@@ -31,12 +34,14 @@ public class BridgePuzzleController extends AbstractPuzzleController<Bridge, Bri
     public BridgePuzzleController(Refreshable<Bridge, BridgeMove> ui) {
         super(ui);
         initialPosition = new Bridge(DEFAULT_PEOPLE);
+        encoder = new BridgeEncoder(DEFAULT_PEOPLE);
         algorithm_ = Algorithm.A_STAR_SEQUENTIAL;
         if (ui_ != null) ui_.refresh(initialPosition, 0);
     }
 
     public void setConfiguration(Integer[] config) {
         initialPosition = new Bridge(config);
+        encoder = new BridgeEncoder(config);
         if (ui_ != null) ui_.refresh(initialPosition, 0);
     }
 
@@ -67,7 +72,58 @@ public class BridgePuzzleController extends AbstractPuzzleController<Bridge, Bri
         return position.distanceFromGoal();
     }
 
+    /**
+     * The estimate is the sum of the speeds of those not yet across,
+     * so it changes by the speeds of those who crossed.
+     * @return the estimate for the child, from that of its parent.
+     */
+    @Override
+    public int distanceFromGoal(Bridge parent, BridgeMove move, int parentDistance, Bridge child) {
+        int speeds = 0;
+        for (int person : move.getPeople()) {
+            speeds += person;
+        }
+        return move.getDirection() ? parentDistance - speeds : parentDistance + speeds;
+    }
+
     public int getCost(BridgeMove move) {
         return move.getCost();
     }
+
+    @Override
+    public boolean isReversible() {
+        return true;
+    }
+
+    /** Everyone has crossed, and the light is with them. */
+    @Override
+    public List<Bridge> goalPositions() {
+        Bridge goal = new Bridge(Collections.<Integer>emptyList(), initialPosition.getUncrossedPeople(), true);
+        return Collections.singletonList(goal);
+    }
+
+    @Override
+    public List<BridgeMove> predecessorMoves(Bridge position) {
+        return new MoveGenerator(position).generatePredecessorMoves();
+    }
+
+    @Override
+    public Bridge unmove(Bridge position, BridgeMove move) {
+        return position.applyMove(move, true);
+    }
+
+    @Override
+    public boolean canEncode() {
+        return true;
+    }
+
+    @Override
+    public long encode(Bridge position) {
+        return encoder.encode(position);
+    }
+
+    @Override
+    public Bridge decode(long code) {
+        return encoder.decode(code);
+    }
 }
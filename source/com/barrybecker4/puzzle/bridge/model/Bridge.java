@@ -30,13 +30,21 @@ public class Bridge {
 
     /**
      * Constructor with everything specified
+     * People are only known by their speeds, so they are kept sorted by speed on each side.
+     * That way the same people on the same sides always give equal states, whatever order they crossed in.
      */
     public Bridge(List<Integer> uncrossed, List<Integer> crossed, boolean lightCrossed) {
-        peopleUncrossed = Collections.unmodifiableList(uncrossed);
-        peopleCrossed = Collections.unmodifiableList(crossed);
+        peopleUncrossed = Collections.unmodifiableList(sortedCopy(uncrossed));
+        peopleCrossed = Collections.unmodifiableList(sortedCopy(crossed));
         this.lightCrossed = lightCrossed;
     }
 
+    private static List<Integer> sortedCopy(List<Integer> people) {
+        List<Integer> sorted = new ArrayList<>(people);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
     /**
      * Constructor
      * create a new bridge state by applying th specified move
@@ -52,15 +60,22 @@ public class Bridge {
         boolean direction = reverse ? !move.getDirection() : move.getDirection();
         if (direction) {
             crossed.addAll(move.getPeople());
-            uncrossed.removeAll(move.getPeople());
+            removeEach(uncrossed, move.getPeople());
         }
         else {
-            crossed.removeAll(move.getPeople());
+            removeEach(crossed, move.getPeople());
             uncrossed.addAll(move.getPeople());
         }
         return new Bridge(uncrossed, crossed, direction);
     }
 
+    /** Removes only one occurrence of each person, since several people may have the same speed. */
+    private static void removeEach(List<Integer> people, List<Integer> toRemove) {
+        for (Integer person : toRemove) {
+            people.remove(person);
+        }
+    }
+
     public List<Integer> getUncrossedPeople() {
         return peopleUncrossed;
     }
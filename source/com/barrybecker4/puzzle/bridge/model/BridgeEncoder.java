@@ -0,0 +1,73 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.bridge.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs the state of a bridge crossing into a long.
+ * Bit 0 is set if the light has crossed, and bit i + 1 is set if the ith person has crossed.
+ * People are only known by their speeds, so if several have the same speed it does not matter which crossed.
+ * Decoding lists the people in their original order, so the order in which they crossed is not kept.
+ *
+ * @author Barry Becker
+ */
+public class BridgeEncoder {
+
+    /** one bit is needed for the light. */
+    public static final int MAX_PEOPLE = Long.SIZE - 1;
+
+    private final Integer[] people;
+
+    /**
+     * @param people speeds of everyone that needs to cross the bridge.
+     */
+    public BridgeEncoder(Integer[] people) {
+        if (people.length > MAX_PEOPLE) {
+            throw new IllegalArgumentException("Cannot encode more than " + MAX_PEOPLE + " people");
+        }
+        this.people = Arrays.copyOf(people, people.length);
+    }
+
+    /**
+     * @param bridge a crossing state for the people this encoder was created for.
+     * @return the state packed into a long.
+     */
+    public long encode(Bridge bridge) {
+        Map<Integer, Integer> numCrossed = new HashMap<>();
+        for (Integer person : bridge.getCrossedPeople()) {
+            Integer num = numCrossed.get(person);
+            numCrossed.put(person, num == null ? 1 : num + 1);
+        }
+
+        long code = bridge.isLightCrossed() ? 1 : 0;
+        for (int i = 0; i < people.length; i++) {
+            Integer num = numCrossed.get(people[i]);
+            if (num != null && num > 0) {
+                code |= 1L << (i + 1);
+                numCrossed.put(people[i], num - 1);
+            }
+        }
+        return code;
+    }
+
+    /**
+     * @param code value returned by encode
+     * @return the bridge state that was encoded.
+     */
+    public Bridge decode(long code) {
+        List<Integer> uncrossed = new ArrayList<>();
+        List<Integer> crossed = new ArrayList<>();
+        for (int i = 0; i < people.length; i++) {
+            if ((code & (1L << (i + 1))) != 0) {
+                crossed.add(people[i]);
+            } else {
+                uncrossed.add(people[i]);
+            }
+        }
+        return new Bridge(uncrossed, crossed, (code & 1) != 0);
+    }
+}
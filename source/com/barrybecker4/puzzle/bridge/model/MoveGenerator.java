@@ -32,6 +32,17 @@ public class MoveGenerator  {
                 createMoves(board.getUncrossedPeople(), true);
     }
 
+    /**
+     * The last move must have taken the light to where it is now, along with one or two of the people there.
+     * @return List of all crossings that could have led to the current state
+     */
+    public List<BridgeMove> generatePredecessorMoves() {
+
+        return board.isLightCrossed()?
+                createMoves(board.getCrossedPeople(), true) :
+                createMoves(board.getUncrossedPeople(), false);
+    }
+
     private List<BridgeMove> createMoves(List<Integer> people, boolean crossing) {
         List<BridgeMove> moves = new LinkedList<>();
 
@@ -0,0 +1,17 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common;
+
+/**
+ * Receives the legal moves of a position one at a time, so they do not have to be collected into a new list.
+ * See PuzzleController.forEachMove.
+ *
+ * @author Barry Becker
+ */
+public interface MoveSink<M> {
+
+    /**
+     * Called once for each legal move, in the same order that legalMoves would list them.
+     * @param move the next legal move.
+     */
+    void accept(M move);
+}
@@ -0,0 +1,87 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common;
+
+import java.util.Random;
+
+/**
+ * A Random that may be shared by threads without them contending for it.
+ * Each thread that uses it gets its own SplitRandom, split from one created with the seed,
+ * in the order that the threads first ask for a number.
+ * So when used from a single thread it always gives the same numbers for the same seed.
+ * With several threads, each thread's numbers are only the same if the threads start in the same order.
+ *
+ * @author Barry Becker
+ */
+public class PerThreadRandom extends Random {
+
+    private final SplitRandom root;
+
+    private final ThreadLocal<SplitRandom> threadRandom = new ThreadLocal<SplitRandom>() {
+        @Override
+        protected SplitRandom initialValue() {
+            synchronized (root) {
+                return root.split();
+            }
+        }
+    };
+
+    /**
+     * @param seed the random sources of the threads all follow from this.
+     */
+    public PerThreadRandom(long seed) {
+        root = new SplitRandom(seed);
+    }
+
+    /** @return the source of random numbers for the calling thread. */
+    public SplitRandom current() {
+        return threadRandom.get();
+    }
+
+    /** The seed of each thread is fixed when the thread first uses it, so reseeding is not supported. */
+    @Override
+    public void setSeed(long seed) {
+        if (root != null) {
+            throw new UnsupportedOperationException("Cannot reseed a PerThreadRandom");
+        }
+    }
+
+    @Override
+    protected int next(int bits) {
+        return current().next(bits);
+    }
+
+    @Override
+    public int nextInt() {
+        return current().nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return current().nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return current().nextLong();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return current().nextBoolean();
+    }
+
+    @Override
+    public float nextFloat() {
+        return current().nextFloat();
+    }
+
+    @Override
+    public double nextDouble() {
+        return current().nextDouble();
+    }
+
+    @Override
+    public double nextGaussian() {
+        return current().nextGaussian();
+    }
+}
@@ -1,8 +1,9 @@
 /** Copyright by Barry G. Becker, 2000-2011. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
 package com.barrybecker4.puzzle.common;
 
+import com.barrybecker4.puzzle.common.solver.seen.VisitedSet;
+
 import java.util.List;
-import java.util.Set;
 
 /**
  * PuzzleController constructor.
@@ -26,6 +27,16 @@ public interface PuzzleController<P, M> extends Refreshable<P, M> {
      */
     List<M> legalMoves(P position);
 
+    /**
+     * Pass each legal move to the sink, in the same order that legalMoves returns them,
+     * without building a list. Solvers use this in their inner loops, with a MoveBuffer they reuse.
+     * Puzzles with a small, fixed set of moves can hand out the same move objects every time,
+     * so that generating moves allocates nothing.
+     * @param position the position to find the moves for.
+     * @param sink receives each legal next move.
+     */
+    void forEachMove(P position, MoveSink<M> sink);
+
     /**
      * @return the position (immutable) that you get after applying the specified move.
      */
@@ -33,23 +44,90 @@ public interface PuzzleController<P, M> extends Refreshable<P, M> {
 
     /**
      * Add the position to the seen set of position if not already seen.
+     * Concurrent solvers call this from many threads at once with a shared set.
      *
      * @param position to check
-     * @param seen Map of seen positions.
+     * @param seen set of seen positions.
      * @return true if the specified position was already seen (possibly taking into account symmetries).
      */
-    boolean alreadySeen(P position, Set<P> seen);
+    boolean alreadySeen(P position, VisitedSet<P> seen);
+
+    /**
+     * Positions that are the same up to a symmetry of the puzzle, like the mirror image of a board,
+     * can be searched as one. Solvers that keep a set of visited positions (through alreadySeen, or on disk)
+     * store only the canonical form, so there is one lookup per position, and the sets are smaller by up
+     * to the number of symmetries. The A* style solvers keep exact positions in their path cost tables,
+     * since few symmetric positions turn up in a search guided toward the goal.
+     * A symmetry must map goals to goals, and leave distanceFromGoal and the cost of moves unchanged.
+     * @return the same position for every position in a symmetry class.
+     */
+    P canonicalize(P position);
 
     /**
      * @return estimate of the cost to reach the goal from the specified position.
      */
     int distanceFromGoal(P position);
 
+    /**
+     * The estimate for a position reached by one move, found from the estimate for the position the
+     * move was made from. The informed solvers call this for every child they generate, and only use
+     * the other form for the initial position. Puzzles whose estimate changes in a simple way with each
+     * move can find the difference instead of looking at the whole position again.
+     * @param parent the position that the move was made from.
+     * @param move the move that was made.
+     * @param parentDistance what distanceFromGoal returns for the parent.
+     * @param child the position after the move.
+     * @return exactly what distanceFromGoal would return for the child.
+     */
+    int distanceFromGoal(P parent, M move, int parentDistance, P child);
+
     /**
      * @return the cost of making a single move. Usually a constant like 1, but for some puzzles it matters.
      */
     int getCost(M move);
 
+    /**
+     * @return true if every position of this puzzle can be packed into a single long using encode.
+     *   Solvers use that to store positions compactly when it is possible.
+     */
+    boolean canEncode();
+
+    /**
+     * Only call if canEncode returns true.
+     * @return a long that uniquely identifies the position. Equal positions must have equal codes.
+     */
+    long encode(P position);
+
+    /**
+     * Only call if canEncode returns true.
+     * @return the position that was encoded to the specified code.
+     */
+    P decode(long code);
+
+    /**
+     * @return true if the search can also be run backwards from the goal,
+     *   using goalPositions, predecessorMoves and unmove.
+     */
+    boolean isReversible();
+
+    /**
+     * Only call if isReversible returns true.
+     * @return every position for which isGoal is true.
+     */
+    List<P> goalPositions();
+
+    /**
+     * Only call if isReversible returns true.
+     * @return all the moves that lead to the specified position from some other position.
+     */
+    List<M> predecessorMoves(P position);
+
+    /**
+     * Only call if isReversible returns true.
+     * @return the position that the move was made from in order to arrive at the specified position.
+     */
+    P unmove(P position, M move);
+
     /**
      *specify the algorithm to use.
      */
@@ -65,4 +143,9 @@ public interface PuzzleController<P, M> extends Refreshable<P, M> {
      * Begin the search to find a solution to the puzzle.
      */
     void startSolving();
+
+    /**
+     * Ask the search in progress to stop. It will return the best solution found so far, if any.
+     */
+    void stopSolving();
 }
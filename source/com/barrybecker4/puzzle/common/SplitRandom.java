@@ -0,0 +1,86 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common;
+
+import java.util.Random;
+
+/**
+ * A seedable source of random numbers that can be split into independent sources,
+ * so that each thread of a search can have its own, and all of them follow from one seed.
+ * Uses the SplitMix64 generator (the same one as java.util.SplittableRandom, which needs java 8).
+ * It extends Random so it can be passed anywhere a Random is expected, such as Collections.shuffle.
+ *
+ * Unlike Random, it is not thread safe, and does not pay for being.
+ * Give each thread its own by calling split, or use PerThreadRandom.
+ *
+ * @author Barry Becker
+ */
+public class SplitRandom extends Random {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** set by setSeed, which the Random constructor calls, so these must not have initializers. */
+    private long state;
+    private long gamma;
+
+    /**
+     * @param seed the same seed always gives the same sequence of numbers.
+     */
+    public SplitRandom(long seed) {
+        super(seed);
+    }
+
+    private SplitRandom(long seed, long gamma) {
+        super(seed);
+        this.gamma = gamma;
+    }
+
+    /**
+     * Advances this source, so the numbers it gives afterward are also different from those of the new one.
+     * @return a new source whose numbers are independent of the ones from this source.
+     */
+    public SplitRandom split() {
+        return new SplitRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        state = seed;
+        gamma = GOLDEN_GAMMA;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) nextLong();
+    }
+
+    private long nextSeed() {
+        state += gamma;
+        return state;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** The gamma must be odd, and have enough bits changing between neighbors to mix well. */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int numTransitions = Long.bitCount(z ^ (z >>> 1));
+        return (numTransitions < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
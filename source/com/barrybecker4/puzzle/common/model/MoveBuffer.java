@@ -0,0 +1,53 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.model;
+
+import com.barrybecker4.puzzle.common.MoveSink;
+
+import java.util.Arrays;
+
+/**
+ * A list of moves that can be filled over and over without allocating.
+ * Solvers keep one for each position they are expanding at the same time (one per depth for the
+ * recursive searches) and pass it to PuzzleController.forEachMove after calling clear.
+ * Not thread safe.
+ *
+ * @author Barry Becker
+ */
+public class MoveBuffer<M> implements MoveSink<M> {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private Object[] moves = new Object[DEFAULT_CAPACITY];
+    private int size;
+
+    @Override
+    public void accept(M move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size << 1);
+        }
+        moves[size++] = move;
+    }
+
+    /** @return the move at the specified index. The first one added is at 0. */
+    @SuppressWarnings("unchecked")
+    public M get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " but there are only " + size + " moves");
+        }
+        return (M) moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Remove all the moves, so the buffer can be filled again. */
+    public void clear() {
+        Arrays.fill(moves, 0, size, null);
+        size = 0;
+    }
+}
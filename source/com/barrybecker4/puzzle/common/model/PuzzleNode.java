@@ -1,7 +1,8 @@
 /** Copyright by Barry G. Becker, 2000-2011. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
 package com.barrybecker4.puzzle.common.model;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -21,6 +22,7 @@ public class PuzzleNode<P, M> implements Comparable<PuzzleNode<P, M>> {
     private final P position;
     private final M move;
     private final int estimatedFutureCost;
+    private final int depth;
     private PuzzleNode<P, M> previous;
 
     public PuzzleNode(P pos, M move, PuzzleNode<P, M> prev) {
@@ -32,21 +34,37 @@ public class PuzzleNode<P, M> implements Comparable<PuzzleNode<P, M>> {
         this.move = move;
         this.previous = prev;
         this.estimatedFutureCost = estimatedFutureCost;
+        this.depth = (prev == null) ? 0 : prev.depth + 1;
     }
 
     public P getPosition() {
         return position;
     }
 
+    /** @return the move that led to this position. Null for the initial position. */
+    public M getMove() {
+        return move;
+    }
+
+    public PuzzleNode<P, M> getPrevious() {
+        return previous;
+    }
+
+    /** @return number of moves from the start of the search to this position. */
+    public int getDepth() {
+        return depth;
+    }
+
     public int getEstimatedFutureCost() {
         return estimatedFutureCost;
     }
 
     public List<M> asMoveList() {
-        List<M> solution = new LinkedList<>();
+        List<M> solution = new ArrayList<>(depth);
         for (PuzzleNode<P, M> n = this; n.move != null; n = n.previous) {
-            solution.add(0, n.move);
+            solution.add(n.move);
         }
+        Collections.reverse(solution);
         return solution;
     }
 
@@ -2,48 +2,75 @@
 package com.barrybecker4.puzzle.common.solver;
 
 import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.MoveBuffer;
 import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+import com.barrybecker4.puzzle.common.solver.queue.BucketOpenList;
+import com.barrybecker4.puzzle.common.solver.queue.OpenList;
+import com.barrybecker4.puzzle.common.solver.seen.PathCosts;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
-import java.util.Set;
 
 /**
  * Sequential puzzle solver that uses the A* search algorithm.
  * See http://en.wikipedia.org/wiki/A*_search_algorithm
- * A concurrent version of this algorithm could perhaps be made using PriorityBlockingQueue
+ * See HashDistributedAStarPuzzleSolver for a concurrent version of this algorithm.
  * @author Barry Becker
  */
 public class AStarPuzzleSolver<P, M> implements PuzzleSolver<M> {
 
     private final PuzzleController<P, M> puzzle;
 
-    /** nodes that have been visited, but they may be replaced if we can reach them by a better path */
-    private final Set<P> visited = new HashSet<>();
+    /**
+     * candidate nodes to search on the frontier.
+     * Keyed by position so that finding a better path to a queued position does not require a scan.
+     */
+    private final OpenList<P, M> open;
 
-    /** candidate nodes to search on the frontier. */
-    private final Queue<PuzzleNode<P, M>> open = new PriorityQueue<>(10);
+    /**
+     * provides the value for the lowest cost path from the start node to the specified node (g score).
+     * Positions that have been expanded stay in here, so they are only reopened if reached by a better path.
+     * Kept in a primitive table if the puzzle can encode its positions.
+     */
+    private final PathCosts<P> pathCost;
 
-    /** provides the value for the lowest cost path from the start node to the specified node (g score) */
-    private final Map<P, Integer> pathCost = new HashMap<>();
+    /** refilled with the legal moves of each position expanded. */
+    private final MoveBuffer<M> moves = new MoveBuffer<>();
 
     private long numTries = 0;
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
 
     /**
+     * Uses a bucket queue for the open list since the estimated costs are small integers.
      * @param puzzle the puzzle to solve
      */
     public AStarPuzzleSolver(PuzzleController<P, M> puzzle) {
-        this.puzzle = puzzle;
+        this(puzzle, new BucketOpenList<P, M>());
+    }
+
+    /**
+     * @param puzzle the puzzle to solve
+     * @param open the open list implementation to use for the frontier.
+     */
+    public AStarPuzzleSolver(PuzzleController<P, M> puzzle, OpenList<P, M> open) {
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+        this.open = open;
+        this.pathCost = new PathCosts<>(puzzle);
     }
 
     @Override
     public List<M> solve() {
+        return solve(new SolveLimits());
+    }
+
+    @Override
+    public List<M> solve(SolveLimits limits) {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
         open.clear();
-        visited.clear();
         pathCost.clear();
 
         P startingPos = puzzle.initialPosition();
@@ -62,41 +89,56 @@ public class AStarPuzzleSolver<P, M> implements PuzzleSolver<M> {
             solution = solutionState.getPosition();
         }
         long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
         puzzle.finalRefresh(pathToSolution, solution, numTries, elapsedTime);
         return pathToSolution;
     }
 
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
-     * Depth first search for a solution to the puzzle.
-     * @return the solution state node if found which has the path leading to a solution. Null if no solution.
+     * Best first search for a solution to the puzzle.
+     * @return the solution state node if found which has the path leading to a solution.
+     *   Null if no solution, or a limit was reached first.
      */
     private PuzzleNode<P, M> search() {
 
-        while (!open.isEmpty())  {
-            PuzzleNode<P, M> currentNode = open.peek();
+        PuzzleNode<P, M> currentNode;
+        while ((currentNode = open.removeBest()) != null)  {
+            if (limits.isReached(numTries)) {
+                return null;
+            }
             P currentPosition = currentNode.getPosition();
             puzzle.refresh(currentPosition, numTries);
 
             if (puzzle.isGoal(currentPosition)) {
                 return currentNode;  // success
             }
-            visited.add(open.remove().getPosition());
-            List<M> moves = puzzle.legalMoves(currentPosition);
-            for (M move : moves) {
+            metrics.depth(currentNode.getDepth());
+            int currentCost = pathCost.get(currentPosition);
+            // the open list only keeps the cheapest node for a position, so its cost is the current one
+            int currentDistance = currentNode.getEstimatedFutureCost() - currentCost;
+            moves.clear();
+            puzzle.forEachMove(currentPosition, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                M move = moves.get(i);
                 P nbr = puzzle.move(currentPosition, move);
-                // for now, assume the distance to all nbrs from the current position is 1
-                int estPathCost = pathCost.get(currentPosition) + puzzle.getCost(move);
-                if (!visited.contains(nbr) || estPathCost < pathCost.get(nbr)) {
-                    int estFutureCost = estPathCost + puzzle.distanceFromGoal(nbr);
-                    PuzzleNode<P, M> child =
-                            new PuzzleNode<>(nbr, move, currentNode, estFutureCost);
+                int estPathCost = currentCost + puzzle.getCost(move);
+                if (estPathCost < pathCost.get(nbr)) {
+                    int estFutureCost =
+                            estPathCost + puzzle.distanceFromGoal(currentPosition, move, currentDistance, nbr);
                     pathCost.put(nbr, estPathCost);
-                    if (!open.contains(child)) {
-                        open.add(child);
-                        numTries++;
-                    }
+                    open.add(new PuzzleNode<>(nbr, move, currentNode, estFutureCost));
+                    numTries++;
+                }
+                else {
+                    metrics.duplicateRejected();
                 }
             }
+            metrics.frontierSize(open.size());
         }
         return null;  // failure
     }
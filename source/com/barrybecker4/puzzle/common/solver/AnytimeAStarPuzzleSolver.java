@@ -0,0 +1,263 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.MoveBuffer;
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+import com.barrybecker4.puzzle.common.solver.queue.IndexedHeapOpenList;
+import com.barrybecker4.puzzle.common.solver.queue.OpenList;
+import com.barrybecker4.puzzle.common.solver.seen.EncodedVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.HashVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.PathCosts;
+import com.barrybecker4.puzzle.common.solver.seen.VisitedSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Anytime Repairing A* (ARA*). Finds a solution quickly, then keeps improving it until it is optimal.
+ * See Likhachev, Gordon and Thrun, "ARA*: Anytime A* with Provable Bounds on Sub-Optimality" (2003).
+ *
+ * Positions are ordered by g + w * h, where g is the cost so far and h is distanceFromGoal.
+ * A large weight w makes the search greedy, so the first solution is found fast,
+ * and it costs at most w times the optimum. Then w is lowered step by step until it reaches 1.
+ * Each time, the search picks up where it left off: the open list is reordered for the new weight,
+ * and the positions whose cost improved after they were expanded are added back to it.
+ * Nothing is searched again unless a cheaper path to it was found, so the total work is
+ * not much more than a single A* search at the lowest weight.
+ * In the last round, with a weight of 1, improved positions are reopened right away like in A*,
+ * so the final solution is optimal as long as distanceFromGoal never overestimates, even if it is not consistent.
+ *
+ * After each round, the best solution so far and its bound are passed to the SolutionListener, if there is one.
+ * If a limit stops the search, the best solution found so far is returned.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class AnytimeAStarPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    public static final double DEFAULT_INITIAL_WEIGHT = 3.0;
+    public static final double DEFAULT_WEIGHT_STEP = 0.5;
+
+    /** weights are kept in tenths so that the priorities can stay integers. */
+    private static final int WEIGHT_SCALE = 10;
+
+    private final PuzzleController<P, M> puzzle;
+    private final int initialWeight;
+    private final int weightStep;
+    private SolutionListener<M> listener;
+
+    /** positions waiting to be expanded at the current weight. */
+    private final OpenList<P, M> open = new IndexedHeapOpenList<>();
+
+    /** positions expanded at the current weight. */
+    private final VisitedSet<P> closed;
+
+    /** positions whose cost improved after they were expanded at the current weight. */
+    private final List<SearchNode> inconsistent = new ArrayList<>();
+
+    /** lowest cost path found so far to each position (g score). */
+    private final PathCosts<P> pathCost;
+
+    /** refilled with the legal moves of each position expanded. */
+    private final MoveBuffer<M> moves = new MoveBuffer<>();
+
+    private int weight;
+    private SearchNode best;
+    private long startTime;
+    private long numTries = 0;
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
+
+    /**
+     * @param puzzle the puzzle to solve
+     */
+    public AnytimeAStarPuzzleSolver(PuzzleController<P, M> puzzle) {
+        this(puzzle, DEFAULT_INITIAL_WEIGHT, DEFAULT_WEIGHT_STEP);
+    }
+
+    /**
+     * @param puzzle the puzzle to solve
+     * @param initialWeight weight of the heuristic for the first search. At least 1.
+     * @param weightStep how much to lower the weight after each solution is found.
+     */
+    public AnytimeAStarPuzzleSolver(PuzzleController<P, M> puzzle, double initialWeight, double weightStep) {
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+        this.initialWeight = (int) Math.round(Math.max(1.0, initialWeight) * WEIGHT_SCALE);
+        this.weightStep = Math.max(1, (int) Math.round(weightStep * WEIGHT_SCALE));
+        this.closed = puzzle.canEncode() ? new EncodedVisitedSet<>(puzzle) : new HashVisitedSet<P>();
+        this.pathCost = new PathCosts<>(puzzle);
+    }
+
+    /**
+     * @param listener told about each improved solution as it is found.
+     */
+    public void setSolutionListener(SolutionListener<M> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public List<M> solve() {
+        return solve(new SolveLimits());
+    }
+
+    @Override
+    public List<M> solve(SolveLimits limits) {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
+        open.clear();
+        closed.clear();
+        inconsistent.clear();
+        pathCost.clear();
+        best = null;
+
+        weight = initialWeight;
+        P startingPos = puzzle.initialPosition();
+        startTime = System.currentTimeMillis();
+        SearchNode startNode = new SearchNode(startingPos, null, null, 0, puzzle.distanceFromGoal(startingPos));
+        pathCost.put(startingPos, 0);
+        if (puzzle.isGoal(startingPos)) {
+            best = startNode;
+        }
+        else {
+            open.add(startNode);
+        }
+
+        boolean finished = improvePath();
+        while (finished && weight > WEIGHT_SCALE && best != null) {
+            weight = Math.max(WEIGHT_SCALE, weight - weightStep);
+            reorderOpenList();
+            finished = improvePath();
+        }
+
+        List<M> pathToSolution = null;
+        P solution = null;
+        if (best != null) {
+            pathToSolution = best.asMoveList();
+            solution = best.getPosition();
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
+        puzzle.finalRefresh(pathToSolution, solution, numTries, elapsedTime);
+        return pathToSolution;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Expand positions in priority order until none could lead to a solution better than the best,
+     * to within the current weight.
+     * @return false if stopped by a limit.
+     */
+    private boolean improvePath() {
+        SearchNode node;
+        while ((node = (SearchNode) open.removeBest()) != null) {
+            if (best != null && node.getEstimatedFutureCost() >= (long) WEIGHT_SCALE * best.pathCost) {
+                open.add(node);
+                break;
+            }
+            if (limits.isReached(numTries)) {
+                open.add(node);
+                return false;
+            }
+            expand(node);
+            metrics.frontierSize(open.size());
+        }
+        if (best != null) {
+            notifyListener();
+        }
+        return true;
+    }
+
+    private void expand(SearchNode node) {
+        P position = node.getPosition();
+        puzzle.refresh(position, numTries);
+        metrics.depth(node.getDepth());
+        closed.addIfAbsent(position);
+
+        moves.clear();
+        puzzle.forEachMove(position, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            M move = moves.get(i);
+            P nbr = puzzle.move(position, move);
+            int estPathCost = node.pathCost + puzzle.getCost(move);
+            if (estPathCost >= pathCost.get(nbr)) {
+                metrics.duplicateRejected();
+                continue;
+            }
+            pathCost.put(nbr, estPathCost);
+            numTries++;
+            SearchNode child = new SearchNode(nbr, move, node, estPathCost,
+                    puzzle.distanceFromGoal(position, move, node.distanceFromGoal, nbr));
+            if (puzzle.isGoal(nbr)) {
+                // a path through a goal can not be cheaper than stopping there
+                if (best == null || estPathCost < best.pathCost) {
+                    best = child;
+                }
+            }
+            else if (weight > WEIGHT_SCALE && closed.contains(nbr)) {
+                inconsistent.add(child);
+            }
+            else {
+                open.add(child);
+            }
+        }
+    }
+
+    /**
+     * Lower the weight on the open positions, bring back the ones that improved after being expanded,
+     * and start a new round of expansions.
+     */
+    private void reorderOpenList() {
+        List<SearchNode> nodes = new ArrayList<>(open.size() + inconsistent.size());
+        SearchNode node;
+        while ((node = (SearchNode) open.removeBest()) != null) {
+            nodes.add(node);
+        }
+        nodes.addAll(inconsistent);
+        inconsistent.clear();
+        closed.clear();
+
+        for (SearchNode oldNode : nodes) {
+            // a cheaper path may have been found since this node was queued
+            if (oldNode.pathCost == pathCost.get(oldNode.getPosition())) {
+                open.add(oldNode.reweigh());
+            }
+        }
+    }
+
+    private void notifyListener() {
+        if (listener != null) {
+            double bound = (double) weight / WEIGHT_SCALE;
+            listener.solutionImproved(best.asMoveList(), best.pathCost, bound,
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * A node along with the cost of the path that reached it and its distance from the goal.
+     * Its priority is g + w * h, for the weight at the time it was created.
+     */
+    private class SearchNode extends PuzzleNode<P, M> {
+        final int pathCost;
+        final int distanceFromGoal;
+
+        SearchNode(P pos, M move, PuzzleNode<P, M> prev, int pathCost, int distanceFromGoal) {
+            super(pos, move, prev, WEIGHT_SCALE * pathCost + weight * distanceFromGoal);
+            this.pathCost = pathCost;
+            this.distanceFromGoal = distanceFromGoal;
+        }
+
+        /** @return a copy with the priority for the current weight. */
+        SearchNode reweigh() {
+            return new SearchNode(getPosition(), getMove(), getPrevious(), pathCost, distanceFromGoal);
+        }
+    }
+}
@@ -1,14 +1,17 @@
 /** Copyright by Barry G. Becker, 2000-2011. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
 package com.barrybecker4.puzzle.common.solver;
 
-import com.barrybecker4.common.math.MathUtil;
 import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.SplitRandom;
 import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+import com.barrybecker4.puzzle.common.solver.seen.ConcurrentEncodedVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.ConcurrentVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.VisitedSet;
 
 import java.security.AccessControlException;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -28,9 +31,11 @@ public class BaseConcurrentPuzzleSolver<P, M>  implements PuzzleSolver<M> {
     private final PuzzleController<P, M> puzzle;
     private final ExecutorService exec;
 
-    private final Set<P> seen;
+    private final VisitedSet<P> seen;
     protected final ValueLatch<PuzzleNode<P, M>> solution = new ValueLatch<>();
     private volatile int numTries;
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
     /** default is a mixture between depth (0) (sequential) and breadth (1.0) (concurrent) first search. */
     private float depthBreadthFactor = 0.4f;
 
@@ -39,9 +44,18 @@ public class BaseConcurrentPuzzleSolver<P, M>  implements PuzzleSolver<M> {
      * @param puzzle the puzzle instance to solve.
      */
     public BaseConcurrentPuzzleSolver(PuzzleController<P, M> puzzle) {
-        this.puzzle = puzzle;
-        this.exec = initThreadPool();
-        this.seen = new HashSet<>();
+        this(puzzle, initThreadPool());
+    }
+
+    /**
+     * @param puzzle the puzzle instance to solve.
+     * @param exec runs the tasks. It is shut down when the solve is done, so it cannot be shared.
+     */
+    protected BaseConcurrentPuzzleSolver(PuzzleController<P, M> puzzle, ExecutorService exec) {
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+        this.exec = exec;
+        this.seen = puzzle.canEncode() ?
+                new ConcurrentEncodedVisitedSet<>(puzzle) : new ConcurrentVisitedSet<P>();
         numTries = 0;
         if (exec instanceof ThreadPoolExecutor) {
             ThreadPoolExecutor tpe = (ThreadPoolExecutor) exec;
@@ -61,17 +75,29 @@ public class BaseConcurrentPuzzleSolver<P, M>  implements PuzzleSolver<M> {
         depthBreadthFactor = factor;
     }
 
-    private ExecutorService initThreadPool() {
+    private static ExecutorService initThreadPool() {
         return Executors.newFixedThreadPool(THREAD_POOL_SIZE);
     }
 
     @Override
     public List<M> solve() throws InterruptedException {
+        return solve(new SolveLimits());
+    }
+
+    /**
+     * If a limit is reached, the first task to notice releases the latch.
+     * Queued tasks are then dropped and running ones interrupted by shutdownNow.
+     */
+    @Override
+    public List<M> solve(SolveLimits limits) throws InterruptedException {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
         try {
             return doSolve();
         } finally {
             try {
-                exec.shutdown();
+                exec.shutdownNow();
             } catch (AccessControlException e) {
                 System.out.println("AccessControlException shutting down exec thread. " +
                         "Probably because running in a secure sandbox.");
@@ -79,16 +105,30 @@ public class BaseConcurrentPuzzleSolver<P, M>  implements PuzzleSolver<M> {
         }
     }
 
+    /**
+     * Subclasses that give an executor of another kind should override this if it can tell.
+     * @return number of tasks waiting to run, or -1 if not known.
+     */
+    protected int frontierSize() {
+        return (exec instanceof ThreadPoolExecutor) ? ((ThreadPoolExecutor) exec).getQueue().size() : -1;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
     private List<M> doSolve() throws InterruptedException {
         P p = puzzle.initialPosition();
         long startTime = System.currentTimeMillis();
-        exec.execute(newTask(p, null, null));
+        exec.execute(newTask(p, null, null, new SplitRandom(limits.getSeed())));
 
         // block until solution found
         PuzzleNode<P, M> solutionPuzzleNode = solution.getValue();
 
         List<M> path = (solutionPuzzleNode == null) ? null : solutionPuzzleNode.asMoveList();
         long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
         P position = (solutionPuzzleNode == null) ? null : solutionPuzzleNode.getPosition();
         System.out.println("solution = " + position);
 
@@ -97,41 +137,63 @@ public class BaseConcurrentPuzzleSolver<P, M>  implements PuzzleSolver<M> {
         return path;
     }
 
-    protected SolverTask newTask(P p, M m, PuzzleNode<P, M> n) {
-        return new SolverTask(p, m, n);
+    /**
+     * @param random source of the random choices of the new task. Only used by one thread at a time.
+     */
+    protected SolverTask newTask(P p, M m, PuzzleNode<P, M> n, SplitRandom random) {
+        return new SolverTask(p, m, n, random);
     }
 
     /**
      * Runnable used to solve a puzzle.
+     * Each task takes its random choices from the source it was given.
+     * Tasks run on the same thread share one, and tasks handed to another thread get one split from it,
+     * so no two threads use the same source, and every choice follows from the seed of the solve.
      */
     protected class SolverTask extends PuzzleNode<P, M> implements Runnable {
-        SolverTask(P pos, M move, PuzzleNode<P, M> prev) {
+
+        /** Released when the task runs, so the nodes on the path do not keep it. */
+        private SplitRandom random;
+
+        SolverTask(P pos, M move, PuzzleNode<P, M> prev, SplitRandom random) {
             super(pos, move, prev);
+            this.random = random;
         }
 
         @Override
         public void run() {
+            SplitRandom rnd = random;
+            random = null;
 
             numTries++;
             if (solution.isSet() || puzzle.alreadySeen(getPosition(), seen)) {
                 return; // already solved or seen this position
             }
+            if (limits.isReached(numTries)) {
+                solution.setValue(null);
+                return;
+            }
             puzzle.refresh(getPosition(), numTries);
 
             if (puzzle.isGoal(getPosition())) {
                 solution.setValue(this);
             }
             else {
+                metrics.depth(getDepth());
+                int numWaiting = frontierSize();
+                if (numWaiting >= 0) {
+                    metrics.frontierSize(numWaiting);
+                }
                 for (M move : puzzle.legalMoves(getPosition())) {
-                    SolverTask task = newTask(puzzle.move(getPosition(), move), move, this);
+                    P child = puzzle.move(getPosition(), move);
 
                     // either process the children sequentially or concurrently based on depthBreadthFactor
-                    if (MathUtil.RANDOM.nextFloat() > depthBreadthFactor) {
+                    if (rnd.nextFloat() > depthBreadthFactor) {
                         // go deep
-                        task.run();
+                        newTask(child, move, this, rnd).run();
                     } else {
                         // go wide
-                        exec.execute(task);
+                        exec.execute(newTask(child, move, this, rnd.split()));
                     }
                 }
             }
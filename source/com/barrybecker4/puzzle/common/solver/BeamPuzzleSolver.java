@@ -0,0 +1,233 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.MoveBuffer;
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+import com.barrybecker4.puzzle.common.solver.seen.ConcurrentEncodedVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.ConcurrentVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.EncodedVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.HashVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.VisitedSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Breadth first search that only keeps the best few nodes at each depth.
+ * See http://en.wikipedia.org/wiki/Beam_search
+ * The children of the nodes in the beam are ranked by distanceFromGoal, and only the
+ * beamWidth closest become the next beam. The rest are dropped for good.
+ * This bounds both the memory used and the time taken for each depth, so the search finishes
+ * in predictable time, but it may return a longer path than needed, or miss a solution that exists.
+ * Use it for puzzles too big for an optimal search, where any reasonable solution will do.
+ * The children of a beam can optionally be generated in parallel, which helps when
+ * move generation or distanceFromGoal is expensive.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class BeamPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    public static final int DEFAULT_BEAM_WIDTH = 1000;
+
+    private final PuzzleController<P, M> puzzle;
+    private final int beamWidth;
+    private final int parallelism;
+
+    /** every position that has been generated. Positions are never returned to. */
+    private final VisitedSet<P> seen;
+
+    private final AtomicLong numTries = new AtomicLong();
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
+
+    /**
+     * Sequential search with the default beam width.
+     * @param puzzle the puzzle to solve
+     */
+    public BeamPuzzleSolver(PuzzleController<P, M> puzzle) {
+        this(puzzle, DEFAULT_BEAM_WIDTH, 1);
+    }
+
+    /**
+     * @param puzzle the puzzle to solve
+     * @param beamWidth number of nodes to keep at each depth.
+     * @param parallelism number of threads to generate children with. Use 1 to search sequentially.
+     */
+    public BeamPuzzleSolver(PuzzleController<P, M> puzzle, int beamWidth, int parallelism) {
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+        this.beamWidth = beamWidth;
+        this.parallelism = parallelism;
+        if (parallelism > 1) {
+            seen = puzzle.canEncode() ? new ConcurrentEncodedVisitedSet<>(puzzle) : new ConcurrentVisitedSet<P>();
+        } else {
+            seen = puzzle.canEncode() ? new EncodedVisitedSet<>(puzzle) : new HashVisitedSet<P>();
+        }
+    }
+
+    @Override
+    public List<M> solve() throws InterruptedException {
+        return solve(new SolveLimits());
+    }
+
+    @Override
+    public List<M> solve(SolveLimits limits) throws InterruptedException {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
+        seen.clear();
+        numTries.set(0);
+
+        P startingPos = puzzle.initialPosition();
+        long startTime = System.currentTimeMillis();
+        seen.addIfAbsent(startingPos);
+        PuzzleNode<P, M> startNode = new PuzzleNode<>(startingPos, null, null, puzzle.distanceFromGoal(startingPos));
+
+        ExecutorService exec = (parallelism > 1) ? Executors.newFixedThreadPool(parallelism) : null;
+        PuzzleNode<P, M> solutionState;
+        try {
+            solutionState = search(startNode, exec);
+        }
+        finally {
+            if (exec != null) {
+                exec.shutdownNow();
+            }
+        }
+
+        List<M> pathToSolution = null;
+        P solution = null;
+        if (solutionState != null) {
+            pathToSolution = solutionState.asMoveList();
+            solution = solutionState.getPosition();
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
+        puzzle.finalRefresh(pathToSolution, solution, numTries.get(), elapsedTime);
+        return pathToSolution;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Advance the beam one depth at a time until it contains a goal or runs out of nodes.
+     * @return the solution state node if found. Null if none, or a limit was reached first.
+     */
+    private PuzzleNode<P, M> search(PuzzleNode<P, M> startNode, ExecutorService exec) throws InterruptedException {
+        List<PuzzleNode<P, M>> beam = Collections.singletonList(startNode);
+        while (!beam.isEmpty()) {
+            for (PuzzleNode<P, M> node : beam) {
+                if (puzzle.isGoal(node.getPosition())) {
+                    return node;  // success
+                }
+            }
+            metrics.depth(beam.get(0).getDepth());
+            metrics.frontierSize(beam.size());
+            List<PuzzleNode<P, M>> children = (exec == null) ? expand(beam) : expandInParallel(beam, exec);
+            if (children == null) {
+                return null;  // stopped by a limit
+            }
+            beam = selectBest(children);
+        }
+        return null;  // failure
+    }
+
+    /**
+     * @return the children of the nodes in the beam that were not seen before, or null if a limit was reached.
+     */
+    private List<PuzzleNode<P, M>> expand(List<PuzzleNode<P, M>> beam) {
+        List<PuzzleNode<P, M>> children = new ArrayList<>();
+        MoveBuffer<M> moves = new MoveBuffer<>();  // one for each thread expanding a part of the beam
+        for (PuzzleNode<P, M> node : beam) {
+            if (limits.isReached(numTries.get())) {
+                return null;
+            }
+            P position = node.getPosition();
+            puzzle.refresh(position, numTries.get());
+            moves.clear();
+            puzzle.forEachMove(position, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                M move = moves.get(i);
+                P child = puzzle.move(position, move);
+                if (!puzzle.alreadySeen(child, seen)) {
+                    int distance = puzzle.distanceFromGoal(position, move, node.getEstimatedFutureCost(), child);
+                    children.add(new PuzzleNode<>(child, move, node, distance));
+                    numTries.incrementAndGet();
+                }
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Split the beam into one part for each thread and expand the parts at the same time.
+     * @return the children of the nodes in the beam that were not seen before, or null if a limit was reached.
+     */
+    private List<PuzzleNode<P, M>> expandInParallel(List<PuzzleNode<P, M>> beam, ExecutorService exec)
+            throws InterruptedException {
+        List<Callable<List<PuzzleNode<P, M>>>> tasks = new ArrayList<>(parallelism);
+        int partSize = (beam.size() + parallelism - 1) / parallelism;
+        for (int start = 0; start < beam.size(); start += partSize) {
+            final List<PuzzleNode<P, M>> part = beam.subList(start, Math.min(start + partSize, beam.size()));
+            tasks.add(new Callable<List<PuzzleNode<P, M>>>() {
+                @Override
+                public List<PuzzleNode<P, M>> call() {
+                    return expand(part);
+                }
+            });
+        }
+
+        List<PuzzleNode<P, M>> children = new ArrayList<>();
+        for (Future<List<PuzzleNode<P, M>>> future : exec.invokeAll(tasks)) {
+            List<PuzzleNode<P, M>> partChildren;
+            try {
+                partChildren = future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            if (partChildren == null) {
+                return null;
+            }
+            children.addAll(partChildren);
+        }
+        return children;
+    }
+
+    /**
+     * @return the beamWidth children closest to the goal, closest first.
+     */
+    private List<PuzzleNode<P, M>> selectBest(List<PuzzleNode<P, M>> children) {
+        if (children.size() <= beamWidth) {
+            Collections.sort(children);
+            return children;
+        }
+        // keep the best seen so far, with the worst of them at the head so it can be replaced
+        PriorityQueue<PuzzleNode<P, M>> best = new PriorityQueue<>(beamWidth, Collections.reverseOrder());
+        for (PuzzleNode<P, M> child : children) {
+            if (best.size() < beamWidth) {
+                best.add(child);
+            }
+            else if (child.compareTo(best.peek()) < 0) {
+                best.poll();
+                best.add(child);
+            }
+        }
+        List<PuzzleNode<P, M>> beam = new ArrayList<>(best);
+        Collections.sort(beam);
+        return beam;
+    }
+}
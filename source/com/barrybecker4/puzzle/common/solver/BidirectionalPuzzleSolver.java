@@ -0,0 +1,193 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+import com.barrybecker4.puzzle.common.solver.queue.BucketOpenList;
+import com.barrybecker4.puzzle.common.solver.queue.OpenList;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sequential puzzle solver that searches forward from the initial position and backward from
+ * the goal positions at the same time, until the two searches meet in the middle.
+ * See http://en.wikipedia.org/wiki/Bidirectional_search
+ * If a search to depth d expands b^d nodes, then each half only needs to go to depth d/2,
+ * so together they expand about 2 b^(d/2) nodes.
+ * Each direction is a uniform cost (Dijkstra) search, so the shortest path is found even when
+ * moves have different costs. Only works for puzzles whose controller isReversible.
+ * Positions are not canonicalized, since the two searches have to meet at the very same position
+ * for their paths to join.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class BidirectionalPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    private final PuzzleController<P, M> puzzle;
+
+    private Frontier forward;
+    private Frontier backward;
+
+    /** the cheapest complete path found so far, as the nodes where the two searches met. */
+    private int bestCost;
+    private SearchNode bestForwardNode;
+    private SearchNode bestBackwardNode;
+
+    private long numTries = 0;
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
+
+    /**
+     * @param puzzle the puzzle to solve. It must be reversible.
+     */
+    public BidirectionalPuzzleSolver(PuzzleController<P, M> puzzle) {
+        if (!puzzle.isReversible()) {
+            throw new IllegalArgumentException("Bidirectional search needs a reversible puzzle");
+        }
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+    }
+
+    @Override
+    public List<M> solve() {
+        return solve(new SolveLimits());
+    }
+
+    @Override
+    public List<M> solve(SolveLimits limits) {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
+        forward = new Frontier(true);
+        backward = new Frontier(false);
+        bestCost = Integer.MAX_VALUE;
+        bestForwardNode = null;
+        bestBackwardNode = null;
+
+        P startingPos = puzzle.initialPosition();
+        long startTime = System.currentTimeMillis();
+        for (P goal : puzzle.goalPositions()) {
+            backward.reach(new SearchNode(goal, null, null, 0));
+        }
+        forward.reach(new SearchNode(startingPos, null, null, 0));
+
+        search();
+
+        List<M> pathToSolution = null;
+        P solution = null;
+        if (bestForwardNode != null) {
+            pathToSolution = bestForwardNode.asMoveList();
+            SearchNode node = bestBackwardNode;
+            while (node.getMove() != null) {
+                pathToSolution.add(node.getMove());
+                node = (SearchNode) node.getPrevious();
+            }
+            solution = node.getPosition();
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
+        puzzle.finalRefresh(pathToSolution, solution, numTries, elapsedTime);
+        return pathToSolution;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Expand the direction with the smaller frontier until neither direction could find
+     * a path cheaper than the best one already found.
+     * If a limit is reached first, the best path found so far (if any) is kept, though it may not be the shortest.
+     */
+    private void search() {
+        while (!forward.open.isEmpty() && !backward.open.isEmpty()) {
+            if (limits.isReached(numTries)) {
+                return;
+            }
+            Frontier frontier = (backward.open.size() < forward.open.size()) ? backward : forward;
+            @SuppressWarnings("unchecked")
+            SearchNode node = (SearchNode) frontier.open.removeBest();
+            frontier.lastCost = node.pathCost;
+            if (forward.lastCost + backward.lastCost >= bestCost) {
+                return;
+            }
+            metrics.depth(node.getDepth());
+            frontier.expand(node);
+            metrics.frontierSize(forward.open.size() + backward.open.size());
+        }
+    }
+
+    /**
+     * A node along with the cost of the path that reached it.
+     * For the backward search the move is the forward move from this position to the previous one.
+     */
+    private class SearchNode extends PuzzleNode<P, M> {
+        final int pathCost;
+
+        SearchNode(P pos, M move, PuzzleNode<P, M> prev, int pathCost) {
+            super(pos, move, prev, pathCost);
+            this.pathCost = pathCost;
+        }
+    }
+
+    /**
+     * The state of the search in one direction.
+     */
+    private class Frontier {
+
+        private final boolean isForward;
+        private final OpenList<P, M> open = new BucketOpenList<>();
+
+        /** the cheapest node found so far for each position reached in this direction. */
+        private final Map<P, SearchNode> reached = new HashMap<>();
+
+        /** costs are removed from the open list in increasing order, so this never decreases. */
+        private int lastCost = 0;
+
+        Frontier(boolean isForward) {
+            this.isForward = isForward;
+        }
+
+        private Frontier other() {
+            return isForward ? backward : forward;
+        }
+
+        private void expand(SearchNode node) {
+            P position = node.getPosition();
+            puzzle.refresh(position, numTries);
+
+            List<M> moves = isForward ? puzzle.legalMoves(position) : puzzle.predecessorMoves(position);
+            for (M move : moves) {
+                P nbr = isForward ? puzzle.move(position, move) : puzzle.unmove(position, move);
+                int estPathCost = node.pathCost + puzzle.getCost(move);
+                SearchNode old = reached.get(nbr);
+                if (old == null || estPathCost < old.pathCost) {
+                    reach(new SearchNode(nbr, move, node, estPathCost));
+                    numTries++;
+                }
+                else {
+                    metrics.duplicateRejected();
+                }
+            }
+        }
+
+        /** Record the node and check whether it meets the search from the other direction. */
+        private void reach(SearchNode node) {
+            reached.put(node.getPosition(), node);
+            open.add(node);
+
+            SearchNode meeting = other().reached.get(node.getPosition());
+            if (meeting != null && node.pathCost + meeting.pathCost < bestCost) {
+                bestCost = node.pathCost + meeting.pathCost;
+                bestForwardNode = isForward ? node : meeting;
+                bestBackwardNode = isForward ? meeting : node;
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each task on a virtual thread of its own, with at most as many tasks running at once as there are permits.
+ * A task waiting for a permit is a parked virtual thread, which costs little more than a task waiting in a queue.
+ * Virtual threads are carried by a small pool of platform threads shared by the whole JVM, so many solvers
+ * can run at once without each one starting threads of its own.
+ *
+ * Virtual threads need Java 21, and this is built for older versions too, so they are created by reflection.
+ * Where they are not available, a fixed pool with one platform thread per permit is used instead.
+ * Like ThreadPoolExecutor.DiscardPolicy, tasks given after shutdown are quietly dropped.
+ * ThreadSafe
+ *
+ * @author Barry Becker
+ */
+public class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+
+    private final ExecutorService threads;
+    private final Semaphore permits;
+    private final boolean virtual;
+
+    /** Run as many tasks at once as there are processors. */
+    public BoundedVirtualThreadExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism most tasks to run at the same time.
+     */
+    public BoundedVirtualThreadExecutor(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1. Was " + parallelism);
+        }
+        ExecutorService perTask = createVirtualThreadPerTaskExecutor();
+        virtual = perTask != null;
+        threads = virtual ? perTask : new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadPoolExecutor.DiscardPolicy());
+        permits = new Semaphore(parallelism);
+    }
+
+    /** @return roughly the number of tasks given, but not yet started. */
+    public int getNumWaiting() {
+        return virtual ? permits.getQueueLength() : ((ThreadPoolExecutor) threads).getQueue().size();
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        if (!virtual) {
+            threads.execute(task);
+            return;
+        }
+        try {
+            threads.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        return;  // shut down while waiting to run
+                    }
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (!threads.isShutdown()) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        threads.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return threads.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return threads.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return threads.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threads.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Calls Executors.newVirtualThreadPerTaskExecutor if this JVM has it.
+     * @return null if virtual threads are not available.
+     */
+    private static ExecutorService createVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+        catch (InvocationTargetException e) {
+            // a preview feature on Java 19 and 20, where it throws unless previews are enabled
+            return null;
+        }
+    }
+}
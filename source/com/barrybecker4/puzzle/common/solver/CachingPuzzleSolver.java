@@ -0,0 +1,123 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.solver.cache.SolutionCache;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps another solver, and remembers the solutions it finds in a SolutionCache.
+ * When asked to solve an instance that was solved before, the cached solution is returned and
+ * finalRefresh is called with it, without searching at all.
+ * The cache key is made from the kind of instance, the encoded initial position and the algorithm,
+ * so the same cache can be shared by many puzzles and solvers.
+ * The encoded position alone does not always identify an instance. For example, two pails always
+ * start empty, whatever the pail sizes are. So the caller supplies the rest, as the variant.
+ *
+ * Only solutions are cached, not failures, since a failure may just mean a limit was reached.
+ * Cached solutions are replayed from the initial position before being returned. If one no longer
+ * leads to the goal, it is ignored and the instance is solved again.
+ * Puzzles that cannot encode their positions are never cached.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class CachingPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    private final PuzzleController<P, M> puzzle;
+    private final PuzzleSolver<M> solver;
+    private final SolutionCache cache;
+    private final String keyPrefix;
+
+    /**
+     * @param puzzle the puzzle to solve. The same one that the solver was created for.
+     * @param solver does the search when the solution is not cached.
+     * @param cache where solutions are remembered.
+     * @param variant identifies the instance along with its initial position. For example, the pail sizes.
+     * @param algorithmName identifies the solver, since different solvers may find different solutions.
+     */
+    public CachingPuzzleSolver(PuzzleController<P, M> puzzle, PuzzleSolver<M> solver,
+                               SolutionCache cache, String variant, String algorithmName) {
+        this.puzzle = puzzle;
+        this.solver = solver;
+        this.cache = cache;
+        this.keyPrefix = puzzle.getClass().getSimpleName() + '|' + variant + '|' + algorithmName + '|';
+    }
+
+    @Override
+    public List<M> solve() throws InterruptedException {
+        return solve(new SolveLimits());
+    }
+
+    @Override
+    public List<M> solve(SolveLimits limits) throws InterruptedException {
+        if (!puzzle.canEncode()) {
+            return solver.solve(limits);
+        }
+        long startTime = System.currentTimeMillis();
+        P startingPos = puzzle.initialPosition();
+        String key = keyPrefix + Long.toHexString(puzzle.encode(startingPos));
+
+        int[] moveIndices = cache.get(key);
+        if (moveIndices != null) {
+            List<M> path = new ArrayList<>(moveIndices.length);
+            P solution = replay(startingPos, moveIndices, path);
+            if (solution != null) {
+                puzzle.finalRefresh(path, solution, 0, System.currentTimeMillis() - startTime);
+                return path;
+            }
+        }
+
+        List<M> path = solver.solve(limits);
+        if (path != null) {
+            cache.put(key, toMoveIndices(startingPos, path));
+        }
+        return path;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return solver.getMetrics();
+    }
+
+    /**
+     * Apply the moves with the specified indices, adding each to the path.
+     * @return the goal reached, or null if the moves do not lead to a goal.
+     */
+    private P replay(P position, int[] moveIndices, List<M> path) {
+        for (int index : moveIndices) {
+            List<M> moves = puzzle.legalMoves(position);
+            if (index >= moves.size()) {
+                return null;
+            }
+            M move = moves.get(index);
+            path.add(move);
+            position = puzzle.move(position, move);
+        }
+        return puzzle.isGoal(position) ? position : null;
+    }
+
+    /**
+     * Moves do not all implement equals, so each is found among the legal moves by the position it leads to.
+     * @return the index of each move of the path among the legal moves at that point.
+     */
+    private int[] toMoveIndices(P position, List<M> path) {
+        int[] moveIndices = new int[path.size()];
+        for (int i = 0; i < path.size(); i++) {
+            P next = puzzle.move(position, path.get(i));
+            long nextCode = puzzle.encode(next);
+            List<M> moves = puzzle.legalMoves(position);
+            int index = 0;
+            while (puzzle.encode(puzzle.move(position, moves.get(index))) != nextCode) {
+                index++;
+            }
+            moveIndices[i] = index;
+            position = next;
+        }
+        return moveIndices;
+    }
+}
@@ -0,0 +1,175 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.MoveBuffer;
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+import com.barrybecker4.puzzle.common.solver.queue.IntBucketQueue;
+import com.barrybecker4.puzzle.common.solver.seen.LongIntHashMap;
+import com.barrybecker4.puzzle.common.solver.store.NodeStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The same A* search as AStarPuzzleSolver, but without creating a PuzzleNode for every position reached.
+ * Nodes live in a NodeStore as rows of primitive arrays, with the position encoded as a long and the
+ * move kept as its index among the parent's legal moves. The open list is a queue of node indices,
+ * and one primitive map from encoded position to node index serves as both the path costs and the
+ * check for out of date entries on the open list.
+ * Positions are decoded again when their node is expanded. PuzzleNodes are only created for the
+ * solution path, at the end, by replaying the recorded move indices from the initial position.
+ * This assumes that forEachMove and legalMoves give the moves for a position in the same order every time.
+ *
+ * Only works for puzzles whose controller canEncode.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class CompactAStarPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    private static final int NOT_FOUND = -1;
+
+    private final PuzzleController<P, M> puzzle;
+
+    /** every node created, whether or not it has been expanded yet. */
+    private final NodeStore nodes = new NodeStore();
+
+    /** indices of the nodes on the frontier, by estimated cost. */
+    private final IntBucketQueue open = new IntBucketQueue();
+
+    /**
+     * the node with the cheapest path to each position reached.
+     * Nodes on the open list that are not in here have been replaced by a cheaper one.
+     */
+    private final LongIntHashMap bestNode = new LongIntHashMap();
+
+    /** refilled with the legal moves of each position expanded. */
+    private final MoveBuffer<M> moves = new MoveBuffer<>();
+
+    private long numTries = 0;
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
+
+    /**
+     * @param puzzle the puzzle to solve. It must be able to encode positions.
+     */
+    public CompactAStarPuzzleSolver(PuzzleController<P, M> puzzle) {
+        if (!puzzle.canEncode()) {
+            throw new IllegalArgumentException("The compact A* search needs positions that can be encoded");
+        }
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+    }
+
+    @Override
+    public List<M> solve() {
+        return solve(new SolveLimits());
+    }
+
+    @Override
+    public List<M> solve(SolveLimits limits) {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
+        nodes.clear();
+        open.clear();
+        bestNode.clear();
+
+        P startingPos = puzzle.initialPosition();
+        long startTime = System.currentTimeMillis();
+        long startCode = puzzle.encode(startingPos);
+        int root = nodes.addRoot(startCode);
+        bestNode.put(startCode, root);
+        open.add(root, puzzle.distanceFromGoal(startingPos));
+
+        PuzzleNode<P, M> solutionState = search();
+
+        List<M> pathToSolution = null;
+        P solution = null;
+        if (solutionState != null) {
+            pathToSolution = solutionState.asMoveList();
+            solution = solutionState.getPosition();
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
+        puzzle.finalRefresh(pathToSolution, solution, numTries, elapsedTime);
+        return pathToSolution;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Best first search for a solution to the puzzle.
+     * @return the solution state node if found which has the path leading to a solution.
+     *   Null if no solution, or a limit was reached first.
+     */
+    private PuzzleNode<P, M> search() {
+        while (!open.isEmpty()) {
+            int current = open.removeBest();
+            long currentCode = nodes.getCode(current);
+            if (bestNode.get(currentCode, NOT_FOUND) != current) {
+                continue;  // a cheaper path to this position was found after it was queued
+            }
+            if (limits.isReached(numTries)) {
+                return null;
+            }
+            P currentPosition = puzzle.decode(currentCode);
+            puzzle.refresh(currentPosition, numTries);
+
+            if (puzzle.isGoal(currentPosition)) {
+                return createPath(current, currentPosition);  // success
+            }
+            metrics.depth(nodes.getDepth(current));
+            int currentCost = nodes.getPathCost(current);
+            // estimates are not stored with the nodes, so find it once for the parent rather than for each child
+            int currentDistance = puzzle.distanceFromGoal(currentPosition);
+            moves.clear();
+            puzzle.forEachMove(currentPosition, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                M move = moves.get(i);
+                P nbr = puzzle.move(currentPosition, move);
+                long nbrCode = puzzle.encode(nbr);
+                int estPathCost = currentCost + puzzle.getCost(move);
+                int existing = bestNode.get(nbrCode, NOT_FOUND);
+                if (existing == NOT_FOUND || estPathCost < nodes.getPathCost(existing)) {
+                    int child = nodes.add(nbrCode, current, estPathCost, i);
+                    bestNode.put(nbrCode, child);
+                    open.add(child,
+                            estPathCost + puzzle.distanceFromGoal(currentPosition, move, currentDistance, nbr));
+                    numTries++;
+                }
+                else {
+                    metrics.duplicateRejected();
+                }
+            }
+            metrics.frontierSize(open.size());
+        }
+        return null;  // failure
+    }
+
+    /**
+     * Replay the moves from the initial position to the goal, creating a PuzzleNode for each step.
+     * @return the node for the goal.
+     */
+    private PuzzleNode<P, M> createPath(int goal, P goalPosition) {
+        int depth = nodes.getDepth(goal);
+        List<Integer> steps = new ArrayList<>(depth + 1);
+        for (int node = goal; node != NodeStore.NO_PARENT; node = nodes.getParent(node)) {
+            steps.add(node);
+        }
+        P position = puzzle.decode(nodes.getCode(steps.get(depth)));
+        PuzzleNode<P, M> pathNode = new PuzzleNode<>(position, null, null);
+        for (int i = depth - 1; i >= 0; i--) {
+            M move = puzzle.legalMoves(position).get(nodes.getMoveIndex(steps.get(i)));
+            position = (i == 0) ? goalPosition : puzzle.move(position, move);
+            pathNode = new PuzzleNode<>(position, move, pathNode);
+        }
+        return pathNode;
+    }
+}
@@ -2,8 +2,10 @@
 package com.barrybecker4.puzzle.common.solver;
 
 import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.SplitRandom;
 import com.barrybecker4.puzzle.common.model.PuzzleNode;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -26,16 +28,27 @@ public class ConcurrentPuzzleSolver <P, M> extends BaseConcurrentPuzzleSolver<P,
         taskCount.set(0);
     }
 
+    /**
+     * @param puzzle the puzzle to solve
+     * @param depthBreadthFactor the ratio of depth first to breadth first searching to use.
+     * @param exec runs the tasks. It is shut down when the solve is done, so it cannot be shared.
+     */
+    protected ConcurrentPuzzleSolver(PuzzleController<P, M> puzzle, float depthBreadthFactor, ExecutorService exec) {
+        super(puzzle, exec);
+        setDepthBreadthFactor(depthBreadthFactor);
+        taskCount.set(0);
+    }
+
 
     @Override
-    protected SolverTask newTask(P p, M m, PuzzleNode<P, M> n) {
-        return new CountingSolverTask(p, m, n);
+    protected SolverTask newTask(P p, M m, PuzzleNode<P, M> n, SplitRandom random) {
+        return new CountingSolverTask(p, m, n, random);
     }
 
 
     class CountingSolverTask extends SolverTask {
-        CountingSolverTask(P pos, M move, PuzzleNode<P, M> prev) {
-            super(pos, move, prev);
+        CountingSolverTask(P pos, M move, PuzzleNode<P, M> prev, SplitRandom random) {
+            super(pos, move, prev, random);
             taskCount.incrementAndGet();
         }
 
@@ -0,0 +1,302 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.MoveBuffer;
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.external.LongCursor;
+import com.barrybecker4.puzzle.common.solver.external.SortedLongFile;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Breadth first search that keeps the positions it has reached on disk instead of in the heap,
+ * so it can exhaust state spaces far larger than memory, like the 4x4 sliding puzzle.
+ * See Korf, "Delayed duplicate detection" (2003).
+ *
+ * Each layer of the search is a file of encoded positions in sorted order.
+ * Children of the current layer are collected in memory until a chunk fills up,
+ * then sorted and written out as a run. When the layer is done, the runs are merged,
+ * and any position found in one of the previous layers is dropped. Duplicates are only detected
+ * then, in one sequential pass, rather than with a random access hash lookup for every child.
+ * Only the previous two layers need to be checked if every move can be undone (or, like hi-q,
+ * each move changes something that can never change back, so no position appears in two layers).
+ * Otherwise check all of them.
+ * The path is recovered after the goal is found by searching back through the layers for a
+ * parent of each position, so no parent pointers are stored.
+ * Positions are stored in canonical form, so the layers only hold one of each set of symmetric positions.
+ * The parents found are then only known up to symmetry, so the moves are worked out afterward
+ * by replaying from the initial position.
+ *
+ * Moves are assumed to have equal cost, so the solution has the fewest moves.
+ * Only works for puzzles whose controller canEncode.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class ExternalBreadthFirstPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    /** Use to check every earlier layer for duplicates. */
+    public static final int ALL_LAYERS = Integer.MAX_VALUE;
+
+    /** 4M positions, or 32MB */
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+    private static final int DEFAULT_LAYERS_TO_CHECK = 2;
+
+    private final PuzzleController<P, M> puzzle;
+    private final File workDirectory;
+    private final int chunkSize;
+    private final int layersToCheck;
+
+    private long[] chunk;
+
+    /** refilled with the legal moves of each position expanded. */
+    private final MoveBuffer<M> moves = new MoveBuffer<>();
+    private long numTries = 0;
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
+
+    /**
+     * Use a temporary directory, and check the previous two layers for duplicates if the puzzle is reversible,
+     * or all of them if not.
+     * @param puzzle the puzzle to solve. It must be able to encode positions.
+     */
+    public ExternalBreadthFirstPuzzleSolver(PuzzleController<P, M> puzzle) {
+        this(puzzle, null, DEFAULT_CHUNK_SIZE, puzzle.isReversible() ? DEFAULT_LAYERS_TO_CHECK : ALL_LAYERS);
+    }
+
+    /**
+     * @param puzzle the puzzle to solve. It must be able to encode positions.
+     * @param workDirectory where to create the layer files, or null for the system temporary directory.
+     *    A new sub directory is created there for each solve, and deleted afterward.
+     * @param chunkSize number of positions to sort in memory at once.
+     * @param layersToCheck number of previous layers to check for duplicates, or ALL_LAYERS.
+     */
+    public ExternalBreadthFirstPuzzleSolver(PuzzleController<P, M> puzzle,
+                                            File workDirectory, int chunkSize, int layersToCheck) {
+        if (!puzzle.canEncode()) {
+            throw new IllegalArgumentException("External breadth first search needs positions that can be encoded");
+        }
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+        this.workDirectory = workDirectory;
+        this.chunkSize = chunkSize;
+        this.layersToCheck = layersToCheck;
+    }
+
+    @Override
+    public List<M> solve() {
+        return solve(new SolveLimits());
+    }
+
+    @Override
+    public List<M> solve(SolveLimits limits) {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
+        P startingPos = puzzle.initialPosition();
+        long startTime = System.currentTimeMillis();
+        PuzzleNode<P, M> solutionState = search(startingPos);
+
+        List<M> pathToSolution = null;
+        P solution = null;
+        if (solutionState != null) {
+            pathToSolution = solutionState.asMoveList();
+            solution = solutionState.getPosition();
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
+        puzzle.finalRefresh(pathToSolution, solution, numTries, elapsedTime);
+        return pathToSolution;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Search layer by layer until a goal is found, the search space is exhausted, or a limit is reached.
+     * @return the node for the goal found, or null if none.
+     */
+    private PuzzleNode<P, M> search(P startingPos) {
+        if (puzzle.isGoal(startingPos)) {
+            return new PuzzleNode<>(startingPos, null, null);
+        }
+        File directory = null;
+        List<SortedLongFile> layers = new ArrayList<>();
+        try {
+            directory = createDirectory();
+            chunk = new long[chunkSize];
+            chunk[0] = canonicalCode(startingPos);
+            layers.add(SortedLongFile.write(new File(directory, "layer0"), chunk, 1));
+
+            P goal = null;
+            while (goal == null && !layers.get(layers.size() - 1).isEmpty() && !limits.isReached(numTries)) {
+                goal = expandLayer(directory, layers);
+            }
+            return (goal == null) ? null : reconstructPath(goal, layers);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("External breadth first search failed", e);
+        }
+        finally {
+            chunk = null;
+            for (SortedLongFile layer : layers) {
+                layer.delete();
+            }
+            if (directory != null && !directory.delete()) {
+                directory.deleteOnExit();
+            }
+        }
+    }
+
+    private File createDirectory() throws IOException {
+        String prefix = "bfs";
+        return (workDirectory == null)
+                ? Files.createTempDirectory(prefix).toFile()
+                : Files.createTempDirectory(workDirectory.toPath(), prefix).toFile();
+    }
+
+    /**
+     * Generate the children of the last layer and add the next layer, without any of the
+     * positions already found.
+     * @return a goal position if one was generated. Then the next layer is not added.
+     */
+    private P expandLayer(File directory, List<SortedLongFile> layers) throws IOException {
+        int depth = layers.size() - 1;
+        SortedLongFile layer = layers.get(depth);
+        metrics.depth(depth);
+        metrics.frontierSize(layer.size());
+
+        List<SortedLongFile> runs = new ArrayList<>();
+        try {
+            int count = 0;
+            long numGenerated = 0;
+            LongCursor cursor = layer.cursor();
+            while (cursor.hasNext()) {
+                if (limits.isReached(numTries)) {
+                    return null;
+                }
+                P position = puzzle.decode(cursor.next());
+                puzzle.refresh(position, numTries);
+                moves.clear();
+                puzzle.forEachMove(position, moves);
+                for (int i = 0; i < moves.size(); i++) {
+                    M move = moves.get(i);
+                    P child = puzzle.move(position, move);
+                    numTries++;
+                    if (puzzle.isGoal(child)) {
+                        return child;
+                    }
+                    chunk[count++] = canonicalCode(child);
+                    if (count == chunkSize) {
+                        runs.add(SortedLongFile.write(new File(directory, "run" + runs.size()), chunk, count));
+                        numGenerated += count;
+                        count = 0;
+                    }
+                }
+            }
+            runs.add(SortedLongFile.write(new File(directory, "run" + runs.size()), chunk, count));
+            numGenerated += count;
+
+            List<SortedLongFile> previous = layers.subList(Math.max(0, layers.size() - layersToCheck), layers.size());
+            SortedLongFile nextLayer = SortedLongFile.merge(runs, previous, new File(directory, "layer" + (depth + 1)));
+            metrics.duplicatesRejected(numGenerated - nextLayer.size());
+            layers.add(nextLayer);
+            return null;
+        }
+        finally {
+            for (SortedLongFile run : runs) {
+                run.delete();
+            }
+        }
+    }
+
+    /**
+     * Work back from the goal, finding a parent of each position in the layer before it.
+     * Then replay from the initial position, choosing at each step a move to the next position on the way.
+     * @param goal found while expanding the last layer.
+     * @return the node for the goal, linked back to the initial position.
+     */
+    private PuzzleNode<P, M> reconstructPath(P goal, List<SortedLongFile> layers) {
+        LinkedList<Long> codes = new LinkedList<>();
+        P position = goal;
+        codes.addFirst(canonicalCode(goal));
+        // the goal is not in any layer. Its parent is in the last one, and the initial position is the only one in layer 0
+        for (int depth = layers.size() - 1; depth > 0; depth--) {
+            SortedLongFile layer = layers.get(depth);
+            position = puzzle.isReversible() ? findParentBackward(position, layer) : findParentForward(position, layer);
+            codes.addFirst(canonicalCode(position));
+        }
+
+        P startingPos = puzzle.initialPosition();
+        PuzzleNode<P, M> node = new PuzzleNode<>(startingPos, null, null);
+        for (long code : codes) {
+            node = findChild(node, code);
+        }
+        return node;
+    }
+
+    /**
+     * Undo each move that could have led to the position until one gives a position in the layer.
+     * Each check is a binary search of the layer.
+     * @return the parent found.
+     */
+    private P findParentBackward(P position, SortedLongFile layer) {
+        for (M move : puzzle.predecessorMoves(position)) {
+            P parent = puzzle.unmove(position, move);
+            if (layer.contains(canonicalCode(parent))) {
+                return parent;
+            }
+        }
+        throw new IllegalStateException("No parent of " + position + " in " + layer);
+    }
+
+    /**
+     * Without predecessor moves, the whole layer is scanned for a position with a move that leads to this one.
+     * @return the parent found.
+     */
+    private P findParentForward(P position, SortedLongFile layer) {
+        long code = canonicalCode(position);
+        LongCursor cursor = layer.cursor();
+        while (cursor.hasNext()) {
+            P parent = puzzle.decode(cursor.next());
+            moves.clear();
+            puzzle.forEachMove(parent, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                M move = moves.get(i);
+                if (canonicalCode(puzzle.move(parent, move)) == code) {
+                    return parent;
+                }
+            }
+        }
+        throw new IllegalStateException("No parent of " + position + " in " + layer);
+    }
+
+    /**
+     * @return the node for the move from the node's position to a position with the specified canonical code.
+     */
+    private PuzzleNode<P, M> findChild(PuzzleNode<P, M> node, long code) {
+        P position = node.getPosition();
+        for (M move : puzzle.legalMoves(position)) {
+            P child = puzzle.move(position, move);
+            if (canonicalCode(child) == code) {
+                return new PuzzleNode<>(child, move, node);
+            }
+        }
+        throw new IllegalStateException("No move from " + position + " leads toward the goal");
+    }
+
+    /** Symmetric positions are stored once, as the code of their canonical form. */
+    private long canonicalCode(P position) {
+        return puzzle.encode(puzzle.canonicalize(position));
+    }
+}
@@ -0,0 +1,160 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+import com.barrybecker4.puzzle.common.solver.seen.ConcurrentEncodedVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.ConcurrentVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.VisitedSet;
+
+import java.security.AccessControlException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent puzzle solver that uses a work stealing ForkJoinPool with one thread per processor.
+ * Every child position is forked as its own task. Each thread works on its own most recently
+ * forked tasks first, so it searches depth first, while idle threads steal the oldest
+ * (shallowest) tasks from busy ones, which spreads the search wide.
+ * Unlike BaseConcurrentPuzzleSolver, no tasks are ever discarded, and like ConcurrentPuzzleSolver
+ * it recognizes when there is no solution.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class ForkJoinPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    private final PuzzleController<P, M> puzzle;
+    private final ForkJoinPool pool;
+
+    private final VisitedSet<P> seen;
+    private final ValueLatch<PuzzleNode<P, M>> solution = new ValueLatch<>();
+
+    /** number of tasks that have been created but not yet finished. */
+    private final AtomicInteger taskCount = new AtomicInteger(0);
+    private final AtomicLong numTries = new AtomicLong(0);
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
+
+    /**
+     * Uses one thread per available processor.
+     * @param puzzle the puzzle instance to solve.
+     */
+    public ForkJoinPuzzleSolver(PuzzleController<P, M> puzzle) {
+        this(puzzle, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param puzzle the puzzle instance to solve.
+     * @param parallelism number of threads to search with.
+     */
+    public ForkJoinPuzzleSolver(PuzzleController<P, M> puzzle, int parallelism) {
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+        this.pool = new ForkJoinPool(parallelism);
+        this.seen = puzzle.canEncode() ?
+                new ConcurrentEncodedVisitedSet<>(puzzle) : new ConcurrentVisitedSet<P>();
+    }
+
+    @Override
+    public List<M> solve() throws InterruptedException {
+        return solve(new SolveLimits());
+    }
+
+    /**
+     * If a limit is reached, the first task to notice releases the latch and shutdownNow
+     * stops the rest without running them.
+     */
+    @Override
+    public List<M> solve(SolveLimits limits) throws InterruptedException {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
+        try {
+            return doSolve();
+        } finally {
+            try {
+                pool.shutdownNow();
+            } catch (AccessControlException e) {
+                System.out.println("AccessControlException shutting down fork join pool. " +
+                        "Probably because running in a secure sandbox.");
+            }
+        }
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    private List<M> doSolve() throws InterruptedException {
+        P p = puzzle.initialPosition();
+        long startTime = System.currentTimeMillis();
+        pool.execute(new SolverAction(new PuzzleNode<P, M>(p, null, null)));
+
+        // block until solution found, or all tasks finished without finding one
+        PuzzleNode<P, M> solutionPuzzleNode = solution.getValue();
+
+        List<M> path = (solutionPuzzleNode == null) ? null : solutionPuzzleNode.asMoveList();
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
+        P position = (solutionPuzzleNode == null) ? null : solutionPuzzleNode.getPosition();
+
+        puzzle.finalRefresh(path, position, numTries.get(), elapsedTime);
+        return path;
+    }
+
+    /**
+     * Expands one node and forks a task for each of its children.
+     * Nothing ever joins on the children. Instead the task count tells when the search is exhausted.
+     */
+    private class SolverAction extends RecursiveAction {
+
+        private final PuzzleNode<P, M> node;
+
+        SolverAction(PuzzleNode<P, M> node) {
+            this.node = node;
+            taskCount.incrementAndGet();
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                expand();
+            } finally {
+                if (taskCount.decrementAndGet() == 0) {
+                    solution.setValue(null);
+                }
+            }
+        }
+
+        private void expand() {
+            P position = node.getPosition();
+            long tries = numTries.incrementAndGet();
+            if (solution.isSet() || puzzle.alreadySeen(position, seen)) {
+                return; // already solved or seen this position
+            }
+            if (limits.isReached(tries)) {
+                solution.setValue(null);
+                return;
+            }
+            puzzle.refresh(position, tries);
+
+            if (puzzle.isGoal(position)) {
+                solution.setValue(node);
+            }
+            else {
+                metrics.depth(node.getDepth());
+                metrics.frontierSize(taskCount.get());
+                for (M move : puzzle.legalMoves(position)) {
+                    new SolverAction(new PuzzleNode<>(puzzle.move(position, move), move, node)).fork();
+                }
+            }
+        }
+    }
+}
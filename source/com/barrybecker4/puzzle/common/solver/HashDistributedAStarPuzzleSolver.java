@@ -0,0 +1,320 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.MoveBuffer;
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+import com.barrybecker4.puzzle.common.solver.queue.BucketOpenList;
+import com.barrybecker4.puzzle.common.solver.queue.OpenList;
+import com.barrybecker4.puzzle.common.solver.seen.LongHashSet;
+import com.barrybecker4.puzzle.common.solver.seen.PathCosts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Concurrent A* search that finds the same optimal solutions as AStarPuzzleSolver.
+ * This is HDA* (hash distributed A*). See http://www.aaai.org/ocs/index.php/ICAPS/ICAPS09/paper/view/733
+ * Each worker thread owns the positions whose hashCode maps to it, and keeps its own open list
+ * and path costs for them, so no locking is needed on those structures.
+ * Generated nodes are sent to their owner through a lock-free queue.
+ * When a solution is found, the search continues until no remaining node could lead to a
+ * cheaper one, so the result is optimal as long as the distanceFromGoal estimate is admissible.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class HashDistributedAStarPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    /** How long an idle worker waits before checking its inbox again. */
+    private static final long IDLE_PARK_NANOS = 20000L;
+
+    /** Each worker counts its own tries, and adds them to the shared total only this often. */
+    private static final int REPORT_INTERVAL = 256;
+
+    private final PuzzleController<P, M> puzzle;
+    private final int numWorkers;
+    private List<SearchWorker> workers;
+
+    /**
+     * Nodes sent to a worker but not yet received, plus the number of busy workers.
+     * Only busy workers send nodes, so once this drops to zero the search is over.
+     */
+    private final AtomicLong outstandingWork = new AtomicLong();
+
+    /**
+     * Tries reported by the workers, for checking the node limit while they search.
+     * Each may have up to REPORT_INTERVAL more that it has not reported yet.
+     */
+    private final AtomicLong reportedTries = new AtomicLong();
+
+    /** cost of the best solution found so far. Nodes that cannot beat it are pruned. */
+    private volatile int incumbentCost;
+    private PuzzleNode<P, M> incumbent;
+
+    private volatile boolean finished;
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
+    private CountDownLatch done;
+
+    /**
+     * Uses one worker per available processor.
+     * @param puzzle the puzzle to solve
+     */
+    public HashDistributedAStarPuzzleSolver(PuzzleController<P, M> puzzle) {
+        this(puzzle, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param puzzle the puzzle to solve
+     * @param numWorkers number of threads to partition the state space among.
+     */
+    public HashDistributedAStarPuzzleSolver(PuzzleController<P, M> puzzle, int numWorkers) {
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+        this.numWorkers = Math.max(1, numWorkers);
+    }
+
+    @Override
+    public List<M> solve() throws InterruptedException {
+        return solve(new SolveLimits());
+    }
+
+    /**
+     * If a limit is reached, the workers stop and the best solution found so far is returned,
+     * though it may not be optimal.
+     */
+    @Override
+    public List<M> solve(SolveLimits limits) throws InterruptedException {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
+        P startingPos = puzzle.initialPosition();
+        long startTime = System.currentTimeMillis();
+        init();
+
+        if (puzzle.isGoal(startingPos)) {
+            offerSolution(new SearchNode(startingPos, null, null, 0, 0));
+        }
+        else {
+            search(new SearchNode(startingPos, null, null, 0, puzzle.distanceFromGoal(startingPos)));
+        }
+
+        List<M> pathToSolution = null;
+        P solution = null;
+        PuzzleNode<P, M> solutionState = getIncumbent();
+        if (solutionState != null) {
+            pathToSolution = solutionState.asMoveList();
+            solution = solutionState.getPosition();
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
+        puzzle.finalRefresh(pathToSolution, solution, getNumTries(), elapsedTime);
+        return pathToSolution;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void init() {
+        workers = new ArrayList<>(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            workers.add(new SearchWorker());
+        }
+        outstandingWork.set(0);
+        reportedTries.set(0);
+        incumbentCost = Integer.MAX_VALUE;
+        incumbent = null;
+        finished = false;
+        done = new CountDownLatch(1);
+    }
+
+    /**
+     * Send the start node to its owner, then block until all the workers have run out of work.
+     * Waits for the workers to exit too, so that their counts can be read.
+     */
+    private void search(SearchNode startNode) throws InterruptedException {
+        ExecutorService exec = Executors.newFixedThreadPool(numWorkers);
+        try {
+            send(startNode);
+            for (SearchWorker worker : workers) {
+                exec.execute(worker);
+            }
+            done.await();
+        } finally {
+            finished = true;
+            exec.shutdownNow();
+        }
+        exec.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    private void send(SearchNode node) {
+        outstandingWork.incrementAndGet();
+        ownerOf(node.getPosition()).inbox.add(node);
+    }
+
+    /** If the puzzle can encode positions, hash the code so that all the workers agree on what is equal. */
+    private SearchWorker ownerOf(P position) {
+        int h;
+        if (puzzle.canEncode()) {
+            h = (int) (LongHashSet.mix(puzzle.encode(position)) >>> 32);
+        } else {
+            h = position.hashCode();
+            h ^= (h >>> 16);
+        }
+        return workers.get((h & Integer.MAX_VALUE) % numWorkers);
+    }
+
+    private synchronized void offerSolution(SearchNode node) {
+        if (node.pathCost < incumbentCost) {
+            incumbent = node;
+            incumbentCost = node.pathCost;
+        }
+    }
+
+    private synchronized PuzzleNode<P, M> getIncumbent() {
+        return incumbent;
+    }
+
+    /** Only call once the workers have exited. */
+    private long getNumTries() {
+        long total = 0;
+        for (SearchWorker worker : workers) {
+            total += worker.numTries;
+        }
+        return total;
+    }
+
+    private void workFinished() {
+        if (outstandingWork.decrementAndGet() == 0) {
+            stop();
+        }
+    }
+
+    private void stop() {
+        finished = true;
+        done.countDown();
+    }
+
+    /**
+     * A node along with the cost of the path that reached it.
+     */
+    private class SearchNode extends PuzzleNode<P, M> {
+        final int pathCost;
+
+        SearchNode(P pos, M move, PuzzleNode<P, M> prev, int pathCost, int estimatedFutureCost) {
+            super(pos, move, prev, estimatedFutureCost);
+            this.pathCost = pathCost;
+        }
+    }
+
+    /**
+     * Searches the part of the state space that hashes to it.
+     */
+    private class SearchWorker implements Runnable {
+
+        /** nodes sent by other workers. */
+        final Queue<SearchNode> inbox = new ConcurrentLinkedQueue<>();
+
+        /** only accessed by this worker's thread. */
+        private final OpenList<P, M> open = new BucketOpenList<>();
+        private final PathCosts<P> pathCost = new PathCosts<>(puzzle);
+        private final MoveBuffer<M> moves = new MoveBuffer<>();
+        private boolean busy = false;
+        private long numTries = 0;
+        private int unreportedTries = 0;
+
+        @Override
+        public void run() {
+            while (!finished) {
+                SearchNode received;
+                while ((received = inbox.poll()) != null) {
+                    if (!busy) {
+                        busy = true;
+                        outstandingWork.incrementAndGet();
+                    }
+                    receive(received);
+                    outstandingWork.decrementAndGet();
+                }
+
+                @SuppressWarnings("unchecked")
+                SearchNode node = busy ? (SearchNode) open.removeBest() : null;
+                if (node != null && limits.isReached(reportedTries.get() + unreportedTries)) {
+                    stop();
+                }
+                else if (node != null && node.getEstimatedFutureCost() < incumbentCost) {
+                    expand(node);
+                }
+                else if (busy) {
+                    // the open list is either empty or has nothing that could beat the incumbent
+                    open.clear();
+                    busy = false;
+                    workFinished();
+                }
+                else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        private void receive(SearchNode node) {
+            if (node.pathCost >= pathCost.get(node.getPosition())) {
+                metrics.duplicateRejected();
+            }
+            else if (node.getEstimatedFutureCost() < incumbentCost) {
+                pathCost.put(node.getPosition(), node.pathCost);
+                open.add(node);
+            }
+        }
+
+        /** Each worker reports the size of its own open list, so the frontier size is that of one partition. */
+        private void expand(SearchNode node) {
+            P position = node.getPosition();
+            puzzle.refresh(position, numTries);
+            metrics.depth(node.getDepth());
+            metrics.frontierSize(open.size());
+            int distance = node.getEstimatedFutureCost() - node.pathCost;
+
+            moves.clear();
+            puzzle.forEachMove(position, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                M move = moves.get(i);
+                P nbr = puzzle.move(position, move);
+                int estPathCost = node.pathCost + puzzle.getCost(move);
+                numTries++;
+                if (++unreportedTries == REPORT_INTERVAL) {
+                    reportedTries.addAndGet(unreportedTries);
+                    unreportedTries = 0;
+                }
+                if (puzzle.isGoal(nbr)) {
+                    // check for goals when generated so a solution is not pruned by a positive estimate at the goal
+                    offerSolution(new SearchNode(nbr, move, node, estPathCost, estPathCost));
+                }
+                else {
+                    int estFutureCost = estPathCost + puzzle.distanceFromGoal(position, move, distance, nbr);
+                    if (estFutureCost < incumbentCost) {
+                        SearchNode child = new SearchNode(nbr, move, node, estPathCost, estFutureCost);
+                        SearchWorker owner = ownerOf(nbr);
+                        if (owner == this) {
+                            receive(child);
+                        } else {
+                            send(child);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
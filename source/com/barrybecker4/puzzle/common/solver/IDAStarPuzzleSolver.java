@@ -0,0 +1,161 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.MoveBuffer;
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sequential puzzle solver that uses the iterative deepening A* (IDA*) search algorithm.
+ * See http://en.wikipedia.org/wiki/IDA*
+ * Like A*, it finds the shortest path if the heuristic is admissible, but it only needs
+ * memory proportional to the depth of the solution rather than the size of the search frontier.
+ * The price paid is that nodes near the root get re-expanded on every iteration.
+ * @author Barry Becker
+ */
+public class IDAStarPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    private final PuzzleController<P, M> puzzle;
+
+    /** positions on the path currently being explored. Used to avoid cycling back on ourselves. */
+    private final Set<P> pathPositions = new HashSet<>();
+
+    /** the legal moves at each depth of the current path. Reused, since only one path is searched at a time. */
+    private final List<MoveBuffer<M>> movesAtDepth = new ArrayList<>();
+
+    /** the smallest estimated cost that exceeded the threshold on the current iteration */
+    private int nextThreshold;
+
+    private long numTries = 0;
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
+
+    /**
+     * @param puzzle the puzzle to solve
+     */
+    public IDAStarPuzzleSolver(PuzzleController<P, M> puzzle) {
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+    }
+
+    @Override
+    public List<M> solve() {
+        return solve(new SolveLimits());
+    }
+
+    @Override
+    public List<M> solve(SolveLimits limits) {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
+        pathPositions.clear();
+
+        P startingPos = puzzle.initialPosition();
+        long startTime = System.currentTimeMillis();
+        PuzzleNode<P, M> solutionState =
+                search(new PuzzleNode<P, M>(startingPos, null, null, puzzle.distanceFromGoal(startingPos)));
+
+        List<M> pathToSolution = null;
+        P solution = null;
+        if (solutionState != null) {
+            pathToSolution = solutionState.asMoveList();
+            solution = solutionState.getPosition();
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
+        puzzle.finalRefresh(pathToSolution, solution, numTries, elapsedTime);
+        return pathToSolution;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Repeatedly do a depth first search bounded by the estimated total cost,
+     * raising the bound to the smallest cost that exceeded it each time.
+     * @return the solution state node if found which has the path leading to a solution. Null if no solution.
+     */
+    private PuzzleNode<P, M> search(PuzzleNode<P, M> startNode) {
+        int threshold = startNode.getEstimatedFutureCost();
+
+        while (true) {
+            nextThreshold = Integer.MAX_VALUE;
+            PuzzleNode<P, M> solutionState = boundedSearch(startNode, 0, threshold);
+            if (solutionState != null) {
+                return solutionState;
+            }
+            if (nextThreshold == Integer.MAX_VALUE) {
+                return null;  // nothing was cut off, so the whole reachable space was searched
+            }
+            if (limits.wasStopped()) {
+                return null;
+            }
+            threshold = nextThreshold;
+        }
+    }
+
+    /**
+     * Depth first search that does not go past nodes whose estimated total cost exceeds the threshold.
+     * @param node the current state of the puzzle. Its estimated future cost is its distance from the goal (h score).
+     * @param pathCost the cost of the path from the start to this node (g score).
+     * @param threshold maximum estimated total cost (f score) to explore on this iteration.
+     * @return the solution state node if found. Null if no solution within the threshold, or a limit was reached.
+     */
+    private PuzzleNode<P, M> boundedSearch(PuzzleNode<P, M> node, int pathCost, int threshold) {
+        if (limits.isReached(numTries)) {
+            return null;
+        }
+        P position = node.getPosition();
+        int distance = node.getEstimatedFutureCost();
+        int estTotalCost = pathCost + distance;
+        if (estTotalCost > threshold) {
+            nextThreshold = Math.min(nextThreshold, estTotalCost);
+            return null;
+        }
+        puzzle.refresh(position, numTries);
+        if (puzzle.isGoal(position)) {
+            return node;
+        }
+
+        metrics.depth(node.getDepth());
+        pathPositions.add(position);
+        MoveBuffer<M> moves = getMoveBuffer(node.getDepth());
+        puzzle.forEachMove(position, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            M move = moves.get(i);
+            P child = puzzle.move(position, move);
+            if (pathPositions.contains(child)) {
+                metrics.duplicateRejected();
+            }
+            else {
+                numTries++;
+                int childDistance = puzzle.distanceFromGoal(position, move, distance, child);
+                PuzzleNode<P, M> result = boundedSearch(new PuzzleNode<>(child, move, node, childDistance),
+                        pathCost + puzzle.getCost(move), threshold);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        pathPositions.remove(position);
+        return null;
+    }
+
+    /** @return an empty buffer for the moves at the specified depth. */
+    private MoveBuffer<M> getMoveBuffer(int depth) {
+        while (movesAtDepth.size() <= depth) {
+            movesAtDepth.add(new MoveBuffer<M>());
+        }
+        MoveBuffer<M> moves = movesAtDepth.get(depth);
+        moves.clear();
+        return moves;
+    }
+}
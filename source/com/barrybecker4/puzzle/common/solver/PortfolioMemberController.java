@@ -0,0 +1,166 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.AlgorithmEnum;
+import com.barrybecker4.puzzle.common.MoveSink;
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.solver.seen.VisitedSet;
+
+import java.util.List;
+
+/**
+ * The controller given to each solver of a portfolio.
+ * Everything is passed through to the puzzle, except that finalRefresh is only recorded,
+ * since just the portfolio knows which result gets shown. Once the member is silenced,
+ * because another one won or the portfolio gave up, its refreshes are dropped too.
+ *
+ * @author Barry Becker
+ */
+class PortfolioMemberController<P, M> implements PuzzleController<P, M> {
+
+    private final PuzzleController<P, M> puzzle;
+    private volatile boolean silenced;
+
+    private P position;
+    private long numTries;
+
+    /**
+     * @param puzzle the controller to delegate to.
+     */
+    PortfolioMemberController(PuzzleController<P, M> puzzle) {
+        this.puzzle = puzzle;
+    }
+
+    /** Stop passing on refreshes. */
+    void silence() {
+        silenced = true;
+    }
+
+    /** @return the position passed to finalRefresh, or null if it has not been called. */
+    P getPosition() {
+        return position;
+    }
+
+    /** @return the number of tries passed to finalRefresh. */
+    long getNumTries() {
+        return numTries;
+    }
+
+    @Override
+    public void refresh(P pos, long numTries) {
+        if (!silenced) {
+            puzzle.refresh(pos, numTries);
+        }
+    }
+
+    @Override
+    public void finalRefresh(List<M> path, P position, long numTries, long elapsedMillis) {
+        this.position = position;
+        this.numTries = numTries;
+    }
+
+    @Override
+    public List<M> legalMoves(P position) {
+        return puzzle.legalMoves(position);
+    }
+
+    @Override
+    public void forEachMove(P position, MoveSink<M> sink) {
+        puzzle.forEachMove(position, sink);
+    }
+
+    @Override
+    public P move(P position, M move) {
+        return puzzle.move(position, move);
+    }
+
+    @Override
+    public int distanceFromGoal(P position) {
+        return puzzle.distanceFromGoal(position);
+    }
+
+    @Override
+    public int distanceFromGoal(P parent, M move, int parentDistance, P child) {
+        return puzzle.distanceFromGoal(parent, move, parentDistance, child);
+    }
+
+    @Override
+    public boolean alreadySeen(P position, VisitedSet<P> seen) {
+        return puzzle.alreadySeen(position, seen);
+    }
+
+    @Override
+    public P canonicalize(P position) {
+        return puzzle.canonicalize(position);
+    }
+
+    @Override
+    public List<M> predecessorMoves(P position) {
+        return puzzle.predecessorMoves(position);
+    }
+
+    @Override
+    public P unmove(P position, M move) {
+        return puzzle.unmove(position, move);
+    }
+
+    @Override
+    public P initialPosition() {
+        return puzzle.initialPosition();
+    }
+
+    @Override
+    public boolean isGoal(P position) {
+        return puzzle.isGoal(position);
+    }
+
+    @Override
+    public int getCost(M move) {
+        return puzzle.getCost(move);
+    }
+
+    @Override
+    public boolean canEncode() {
+        return puzzle.canEncode();
+    }
+
+    @Override
+    public long encode(P position) {
+        return puzzle.encode(position);
+    }
+
+    @Override
+    public P decode(long code) {
+        return puzzle.decode(code);
+    }
+
+    @Override
+    public boolean isReversible() {
+        return puzzle.isReversible();
+    }
+
+    @Override
+    public List<P> goalPositions() {
+        return puzzle.goalPositions();
+    }
+
+    @Override
+    public void setAlgorithm(AlgorithmEnum<P, M> algorithm) {
+        puzzle.setAlgorithm(algorithm);
+    }
+
+    @Override
+    public AlgorithmEnum getAlgorithm() {
+        return puzzle.getAlgorithm();
+    }
+
+    @Override
+    public void startSolving() {
+        puzzle.startSolving();
+    }
+
+    @Override
+    public void stopSolving() {
+        puzzle.stopSolving();
+    }
+}
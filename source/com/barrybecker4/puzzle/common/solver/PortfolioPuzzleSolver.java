@@ -0,0 +1,207 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.AlgorithmEnum;
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Races several algorithms against each other on the same puzzle, each on its own thread.
+ * The first to find a solution wins, and the others are cancelled.
+ * Which algorithm is fastest can vary a lot from one instance to the next,
+ * so the portfolio is rarely much slower than the best of its members, and often much faster than the worst.
+ *
+ * Each member gets its own copy of the limits, with the same seed, which is cancelled as soon as another
+ * member wins. So members must check their limits as they search. The refreshes of a losing member are dropped.
+ * The node limit is split evenly among the members, so that together they try no more positions than one solver could.
+ * Only the winning result is passed to finalRefresh. The metrics count the work of all the members.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class PortfolioPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    /** how often to check whether the solve was cancelled, while waiting for the members. */
+    private static final int POLL_MILLIS = 50;
+
+    private final PuzzleController<P, M> puzzle;
+    private final List<AlgorithmEnum<P, M>> algorithms;
+    private final SolverMetrics metrics = new SolverMetrics();
+    private volatile AlgorithmEnum<P, M> winner;
+
+    /**
+     * @param puzzle the puzzle to solve.
+     * @param algorithms the algorithms to race. Each creates its own solver for the puzzle.
+     */
+    public PortfolioPuzzleSolver(PuzzleController<P, M> puzzle, List<? extends AlgorithmEnum<P, M>> algorithms) {
+        if (algorithms.isEmpty()) {
+            throw new IllegalArgumentException("A portfolio needs at least one algorithm");
+        }
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+        this.algorithms = new ArrayList<>(algorithms);
+    }
+
+    @Override
+    public List<M> solve() throws InterruptedException {
+        return solve(new SolveLimits());
+    }
+
+    /**
+     * If no member finds a solution, the limits are marked with the reason that the first member to stop early gave.
+     */
+    @Override
+    public List<M> solve(SolveLimits limits) throws InterruptedException {
+        limits.start();
+        metrics.start();
+        winner = null;
+        long startTime = System.currentTimeMillis();
+        long deadline = (limits.getTimeLimitMillis() == SolveLimits.NO_LIMIT)
+                ? Long.MAX_VALUE : startTime + limits.getTimeLimitMillis();
+
+        List<Member> members = new ArrayList<>(algorithms.size());
+        ExecutorService exec = Executors.newFixedThreadPool(algorithms.size(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "PortfolioMember");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        Member winningMember;
+        try {
+            CompletionService<Member> completion = new ExecutorCompletionService<>(exec);
+            for (AlgorithmEnum<P, M> algorithm : algorithms) {
+                Member member = new Member(algorithm, limits, algorithms.size());
+                members.add(member);
+                completion.submit(member);
+            }
+            winningMember = awaitWinner(completion, members.size(), limits, deadline);
+        } finally {
+            for (Member member : members) {
+                member.stop();
+            }
+            exec.shutdownNow();
+        }
+
+        List<M> path = null;
+        P position = null;
+        long numTries = 0;
+        if (winningMember != null) {
+            winner = winningMember.algorithm;
+            path = winningMember.path;
+            position = winningMember.controller.getPosition();
+            numTries = winningMember.controller.getNumTries();
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
+        puzzle.finalRefresh(path, position, numTries, elapsedTime);
+        return path;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the algorithm that found the solution of the last solve, or null if none did.
+     */
+    public AlgorithmEnum<P, M> getWinner() {
+        return winner;
+    }
+
+    /**
+     * Wait for members to finish until one has found a solution.
+     * Members that fail with an exception are treated as not finding one, unless they all fail.
+     * @return the winning member, or null if none found a solution or the portfolio's own limits were reached first.
+     */
+    private Member awaitWinner(CompletionService<Member> completion, int numMembers,
+                               SolveLimits limits, long deadline) throws InterruptedException {
+        int remaining = numMembers;
+        int numFailed = 0;
+        ExecutionException failure = null;
+        SolveLimits.StopReason memberStopReason = null;
+        while (remaining > 0) {
+            Future<Member> done = completion.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (done == null) {
+                // isReached only reads the clock once in many calls, and this calls it rarely, so check the time here
+                if (System.currentTimeMillis() >= deadline) {
+                    limits.setStopReason(SolveLimits.StopReason.TIME_LIMIT);
+                    return null;
+                }
+                if (limits.isReached(0)) {
+                    return null;
+                }
+                continue;
+            }
+            remaining--;
+            try {
+                Member member = done.get();
+                if (member.path != null) {
+                    return member;
+                }
+                if (memberStopReason == null) {
+                    memberStopReason = member.limits.getStopReason();
+                }
+            } catch (ExecutionException e) {
+                numFailed++;
+                failure = (failure == null) ? e : failure;
+            }
+        }
+        if (numFailed == numMembers) {
+            throw new IllegalStateException("Every solver in the portfolio failed", failure.getCause());
+        }
+        if (memberStopReason != null) {
+            limits.setStopReason(memberStopReason);
+        }
+        return null;
+    }
+
+    /**
+     * One of the algorithms racing, with its own controller and limits, so that it can be silenced and
+     * cancelled without affecting the others.
+     */
+    private class Member implements Callable<Member> {
+
+        private final AlgorithmEnum<P, M> algorithm;
+        private final PortfolioMemberController<P, M> controller;
+        private final SolveLimits limits;
+        private List<M> path;
+
+        Member(AlgorithmEnum<P, M> algorithm, SolveLimits portfolioLimits, int numMembers) {
+            this.algorithm = algorithm;
+            this.controller = new PortfolioMemberController<>(puzzle);
+            long maxNodes = portfolioLimits.getMaxNodes();
+            this.limits = new SolveLimits(portfolioLimits.getTimeLimitMillis(),
+                    (maxNodes == SolveLimits.NO_LIMIT) ? SolveLimits.NO_LIMIT : Math.max(1, maxNodes / numMembers),
+                    portfolioLimits.getMaxMemoryBytes());
+            this.limits.setSeed(portfolioLimits.getSeed());
+        }
+
+        @Override
+        public Member call() throws InterruptedException {
+            path = algorithm.createSolver(controller).solve(limits);
+            return this;
+        }
+
+        /** Ask the member to stop searching, and drop anything it would still show. */
+        void stop() {
+            controller.silence();
+            limits.cancel();
+        }
+    }
+}
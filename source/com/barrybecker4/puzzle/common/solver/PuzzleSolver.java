@@ -1,6 +1,8 @@
 /** Copyright by Barry G. Becker, 2000-2011. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
 package com.barrybecker4.puzzle.common.solver;
 
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+
 import java.util.List;
 
 /**
@@ -19,4 +21,19 @@ public interface PuzzleSolver<M>  {
      *     Null if no solution found.
      */
     List<M> solve()  throws InterruptedException;
+
+    /**
+     * Solve the puzzle, but give up early if any of the limits are reached or the solve is cancelled.
+     * When stopped early, the best solution found so far is returned (not necessarily the best overall),
+     * or null if none was found yet. Check limits.getStopReason() to find out whether it stopped early.
+     * @param limits the limits to apply to this solve.
+     * @return list of moves (transitions) that can be made to arrive at a solution.
+     *     Null if no solution found.
+     */
+    List<M> solve(SolveLimits limits)  throws InterruptedException;
+
+    /**
+     * @return statistics about the solve in progress, or the last one completed.
+     */
+    SolverMetrics getMetrics();
 }
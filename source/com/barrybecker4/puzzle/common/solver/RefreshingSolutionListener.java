@@ -0,0 +1,42 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+
+import java.util.List;
+
+/**
+ * Shows each improved solution of an anytime solver as soon as it is found, rather than only the final one.
+ * The controller is refreshed with the position the solution reaches, and the solution is reported
+ * the way finalRefresh reports the last.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class RefreshingSolutionListener<P, M> implements SolutionListener<M> {
+
+    private final PuzzleController<P, M> puzzle;
+    private final SolverMetrics metrics;
+
+    /**
+     * @param puzzle the controller to refresh.
+     * @param metrics of the solver, for the number of tries so far.
+     */
+    public RefreshingSolutionListener(PuzzleController<P, M> puzzle, SolverMetrics metrics) {
+        this.puzzle = puzzle;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void solutionImproved(List<M> path, int cost, double bound, long elapsedMillis) {
+        P position = puzzle.initialPosition();
+        for (M move : path) {
+            position = puzzle.move(position, move);
+        }
+        puzzle.refresh(position, metrics.getNodesGenerated());
+        System.out.println("Found a solution with " + path.size() + " steps and cost " + cost
+                + ", at most " + bound + " times the best, after " + elapsedMillis + "ms");
+    }
+}
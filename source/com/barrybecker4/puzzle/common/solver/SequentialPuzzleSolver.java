@@ -2,11 +2,16 @@
 package com.barrybecker4.puzzle.common.solver;
 
 import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.MoveBuffer;
 import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+import com.barrybecker4.puzzle.common.solver.seen.EncodedVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.HashVisitedSet;
+import com.barrybecker4.puzzle.common.solver.seen.VisitedSet;
 
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Naive Sequential puzzle solver.
@@ -22,18 +27,32 @@ public class SequentialPuzzleSolver<P, M> implements PuzzleSolver<M> {
     private final PuzzleController<P, M> puzzle;
 
     /** set of visited nodes. Do not re-search them */
-    private final Set<P> seen = new HashSet<>();
+    private final VisitedSet<P> seen;
+
+    /** the legal moves at each depth of the current path. Reused, since only one path is searched at a time. */
+    private final List<MoveBuffer<M>> movesAtDepth = new ArrayList<>();
     private long numTries = 0;
+    private SolveLimits limits;
+    private final SolverMetrics metrics = new SolverMetrics();
 
     /**
      * @param puzzle the puzzle to solve
      */
     public SequentialPuzzleSolver(PuzzleController<P, M> puzzle) {
-        this.puzzle = puzzle;
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+        this.seen = puzzle.canEncode() ? new EncodedVisitedSet<>(puzzle) : new HashVisitedSet<P>();
     }
 
     @Override
     public List<M> solve() {
+        return solve(new SolveLimits());
+    }
+
+    @Override
+    public List<M> solve(SolveLimits limits) {
+        this.limits = limits;
+        limits.start();
+        metrics.start();
         P pos = puzzle.initialPosition();
         long startTime = System.currentTimeMillis();
         PuzzleNode<P, M> solutionState = search(new PuzzleNode<P, M>(pos, null, null));
@@ -45,24 +64,36 @@ public class SequentialPuzzleSolver<P, M> implements PuzzleSolver<M> {
             solution = solutionState.getPosition();
         }
         long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
         puzzle.finalRefresh(pathToSolution, solution, numTries, elapsedTime);
 
         return pathToSolution;
     }
 
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Depth first search for a solution to the puzzle.
      * @param node the current state of the puzzle.
-     * @return list of moves leading to a solution. Null if no solution.
+     * @return list of moves leading to a solution. Null if no solution, or a limit was reached.
      */
     private PuzzleNode<P, M> search(PuzzleNode<P, M> node) {
         P currentState = node.getPosition();
+        if (limits.isReached(numTries)) {
+            return null;
+        }
         if (!puzzle.alreadySeen(currentState, seen)) {
             if (puzzle.isGoal(currentState)) {
                 return node;
             }
-            List<M> moves = puzzle.legalMoves(currentState);
-            for (M move : moves) {
+            metrics.depth(node.getDepth());
+            MoveBuffer<M> moves = getMoveBuffer(node.getDepth());
+            puzzle.forEachMove(currentState, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                M move = moves.get(i);
                 P position = puzzle.move(currentState, move);
                 puzzle.refresh(position, numTries);
 
@@ -76,4 +107,14 @@ public class SequentialPuzzleSolver<P, M> implements PuzzleSolver<M> {
         }
         return null;
     }
+
+    /** @return an empty buffer for the moves at the specified depth. */
+    private MoveBuffer<M> getMoveBuffer(int depth) {
+        while (movesAtDepth.size() <= depth) {
+            movesAtDepth.add(new MoveBuffer<M>());
+        }
+        MoveBuffer<M> moves = movesAtDepth.get(depth);
+        moves.clear();
+        return moves;
+    }
 }
@@ -0,0 +1,24 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import java.util.List;
+
+/**
+ * Notified by anytime solvers each time they find a better solution, or prove that the one
+ * they have is closer to optimal, before the search as a whole is done.
+ * Called on the thread doing the solving, so implementations should return quickly.
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public interface SolutionListener<M> {
+
+    /**
+     * @param path moves that lead from the initial position to a solution.
+     * @param cost total cost of the moves.
+     * @param bound the cost is at most this many times that of the best possible solution.
+     *     1 if the solution is known to be optimal.
+     * @param elapsedMillis time since the solve started.
+     */
+    void solutionImproved(List<M> path, int cost, double bound, long elapsedMillis);
+}
@@ -0,0 +1,150 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits on how long or how far a single solve may run, and a way to cancel it from another thread.
+ * Solvers call isReached periodically while searching and stop as soon as it returns true.
+ * After the solve returns, getStopReason tells whether it stopped early and why.
+ * Also carries the seed for solvers that make random choices, so that a solve can be repeated.
+ * Create a new instance for each solve.
+ *
+ * @author Barry Becker
+ */
+public class SolveLimits {
+
+    /** Used for any limit that should not be applied. */
+    public static final long NO_LIMIT = 0;
+
+    /** Why a search was stopped before it finished. */
+    public enum StopReason {CANCELLED, TIME_LIMIT, NODE_LIMIT, MEMORY_LIMIT}
+
+    /** Checking the clock and memory on every node would be wasteful. */
+    private static final int CHECK_INTERVAL = 256;
+
+    private final long timeLimitMillis;
+    private final long maxNodes;
+    private final long maxMemoryBytes;
+
+    private long seed = new Random().nextLong();
+    private long deadline = Long.MAX_VALUE;
+    /** Atomic so that, however many threads call isReached, every CHECK_INTERVAL calls one checks the clock. */
+    private final AtomicInteger numChecks = new AtomicInteger();
+    private volatile boolean cancelled = false;
+    private volatile StopReason stopReason;
+
+    /**
+     * No limits. The solve can only be stopped by cancelling it.
+     */
+    public SolveLimits() {
+        this(NO_LIMIT, NO_LIMIT, NO_LIMIT);
+    }
+
+    /**
+     * @param timeLimitMillis maximum wall clock time for the solve, or NO_LIMIT.
+     * @param maxNodes maximum number of positions to try, or NO_LIMIT.
+     * @param maxMemoryBytes stop if the heap in use grows past this, or NO_LIMIT.
+     */
+    public SolveLimits(long timeLimitMillis, long maxNodes, long maxMemoryBytes) {
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxNodes = maxNodes;
+        this.maxMemoryBytes = maxMemoryBytes;
+    }
+
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getMaxMemoryBytes() {
+        return maxMemoryBytes;
+    }
+
+    /**
+     * Solvers that make random choices take them all from sources that follow from this seed.
+     * Single threaded solves with the same seed make the same choices.
+     * Concurrent ones make the same choices on each line of search, though the threads may interleave differently.
+     * @param seed to use in place of the random one chosen when these limits were created.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Called by the solver when it begins searching. The time limit counts from here.
+     */
+    public void start() {
+        deadline = (timeLimitMillis == NO_LIMIT) ? Long.MAX_VALUE : System.currentTimeMillis() + timeLimitMillis;
+        numChecks.set(0);
+    }
+
+    /**
+     * Ask the solver to stop as soon as it can. May be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Also treats interruption of the calling thread as a cancel, so callers may stop a solve either way.
+     * Safe to call from several solver threads at once.
+     * @param numNodes number of positions the solver has tried so far.
+     * @return true if the search should stop now.
+     */
+    public boolean isReached(long numNodes) {
+        if (stopReason != null) {
+            return true;
+        }
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            stopReason = StopReason.CANCELLED;
+        }
+        else if (maxNodes != NO_LIMIT && numNodes >= maxNodes) {
+            stopReason = StopReason.NODE_LIMIT;
+        }
+        else if (numChecks.incrementAndGet() % CHECK_INTERVAL == 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                stopReason = StopReason.TIME_LIMIT;
+            }
+            else if (maxMemoryBytes != NO_LIMIT && usedMemory() >= maxMemoryBytes) {
+                stopReason = StopReason.MEMORY_LIMIT;
+            }
+        }
+        return stopReason != null;
+    }
+
+    /**
+     * @return true if the solve was stopped by a limit or cancel before the search completed.
+     */
+    public boolean wasStopped() {
+        return stopReason != null;
+    }
+
+    /**
+     * @return why the solve stopped early, or null if it ran to completion.
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * For solvers that run others with limits of their own, to pass on why those stopped.
+     * @param reason why the solve stopped early.
+     */
+    void setStopReason(StopReason reason) {
+        stopReason = reason;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
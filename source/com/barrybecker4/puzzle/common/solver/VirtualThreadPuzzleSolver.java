@@ -0,0 +1,48 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+
+/**
+ * The same search as ConcurrentPuzzleSolver, but each task that is searched concurrently gets a virtual
+ * thread of its own, instead of waiting for one of a fixed pool of 100 platform threads.
+ * Only as many tasks run at once as there are processors. The rest wait as parked virtual threads.
+ * This is meant for running many solves at the same time in one JVM. Then they share the few platform
+ * threads that carry the virtual threads, rather than each solver starting 100 of its own.
+ * Before Java 21, this falls back to a pool with one platform thread per processor for each solver.
+ * See BoundedVirtualThreadExecutor.
+ *
+ * @author Barry Becker
+ */
+public class VirtualThreadPuzzleSolver<P, M> extends ConcurrentPuzzleSolver<P, M> {
+
+    private final BoundedVirtualThreadExecutor exec;
+
+    /**
+     * @param puzzle the puzzle to solve
+     * @param depthBreadthFactor the ratio of depth first to breadth first searching to use.
+     */
+    public VirtualThreadPuzzleSolver(PuzzleController<P, M> puzzle, float depthBreadthFactor) {
+        this(puzzle, depthBreadthFactor, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param puzzle the puzzle to solve
+     * @param depthBreadthFactor the ratio of depth first to breadth first searching to use.
+     * @param parallelism most tasks to run at the same time.
+     */
+    public VirtualThreadPuzzleSolver(PuzzleController<P, M> puzzle, float depthBreadthFactor, int parallelism) {
+        this(puzzle, depthBreadthFactor, new BoundedVirtualThreadExecutor(parallelism));
+    }
+
+    private VirtualThreadPuzzleSolver(PuzzleController<P, M> puzzle, float depthBreadthFactor,
+                                      BoundedVirtualThreadExecutor exec) {
+        super(puzzle, depthBreadthFactor, exec);
+        this.exec = exec;
+    }
+
+    @Override
+    protected int frontierSize() {
+        return exec.getNumWaiting();
+    }
+}
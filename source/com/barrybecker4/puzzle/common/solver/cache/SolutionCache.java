@@ -0,0 +1,177 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.cache;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Solutions that have already been found, so that solving the same instance again can skip the search.
+ * A solution is kept as the index of each move among the legal moves of the position before it,
+ * which does not depend on how the moves of a particular puzzle are represented.
+ *
+ * The most recently used solutions are kept in memory, up to a fixed number.
+ * If a directory is given, every solution is also written there, one file per key, so they
+ * survive restarts. Solutions missing from memory are then looked for on disk.
+ * Files are written to a temporary name first and then renamed, so a file is never seen half written.
+ * A file that cannot be written is reported and skipped. The solution is still kept in memory,
+ * since losing the cached copy must not lose the solution that was just found.
+ * Safe to share between threads.
+ *
+ * @author Barry Becker
+ */
+public class SolutionCache {
+
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private static final String SUFFIX = ".moves";
+
+    private final Map<String, int[]> memory;
+    private final File directory;
+
+    /**
+     * Keep solutions in memory only.
+     * @param capacity number of solutions to keep. The least recently used are dropped first.
+     */
+    public SolutionCache(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param capacity number of solutions to keep in memory. The least recently used are dropped first.
+     * @param directory where to keep every solution on disk, or null to keep them in memory only.
+     *   Created if it does not exist.
+     */
+    public SolutionCache(final int capacity, File directory) {
+        this.memory = new LinkedHashMap<String, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.directory = directory;
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Could not create the cache directory " + directory);
+        }
+    }
+
+    /**
+     * @param key identifies the instance and the algorithm that solved it.
+     * @return the indices of the moves that solve it, or null if it has not been solved yet.
+     */
+    public int[] get(String key) {
+        int[] moveIndices;
+        synchronized (memory) {
+            moveIndices = memory.get(key);
+        }
+        if (moveIndices == null && directory != null) {
+            moveIndices = read(key);
+            if (moveIndices != null) {
+                synchronized (memory) {
+                    memory.put(key, moveIndices);
+                }
+            }
+        }
+        return (moveIndices == null) ? null : moveIndices.clone();
+    }
+
+    /**
+     * Never fails because the solution cannot be written to disk. See write.
+     * @param key identifies the instance and the algorithm that solved it.
+     * @param moveIndices the index of each move of the solution among the legal moves at that point.
+     */
+    public void put(String key, int[] moveIndices) {
+        int[] copy = moveIndices.clone();
+        synchronized (memory) {
+            memory.put(key, copy);
+        }
+        if (directory != null) {
+            write(key, copy);
+        }
+    }
+
+    /** @return number of solutions in memory. */
+    public int size() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    /** Forget the solutions in memory. Those on disk are kept. */
+    public void clearMemory() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+
+    /** Keys can be any string, so the file name is derived from a hash, and the key is stored inside. */
+    private File fileFor(String key) {
+        return new File(directory, UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + SUFFIX);
+    }
+
+    /**
+     * The first line of the file is the key, and the second has the move indices separated by commas.
+     * @return null if there is no file for the key, or it cannot be read.
+     */
+    private int[] read(String key) {
+        File file = fileFor(key);
+        if (!file.exists()) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String storedKey = reader.readLine();
+            String moves = reader.readLine();
+            if (!key.equals(storedKey) || moves == null) {
+                return null;
+            }
+            if (moves.isEmpty()) {
+                return new int[0];
+            }
+            String[] values = moves.split(",");
+            int[] moveIndices = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                moveIndices[i] = Integer.parseInt(values[i]);
+            }
+            return moveIndices;
+        }
+        catch (IOException | NumberFormatException e) {
+            // treat a damaged file as missing. It is replaced once the instance is solved again
+            return null;
+        }
+    }
+
+    /** If the file cannot be written, the cause is reported on standard error. */
+    private void write(String key, int[] moveIndices) {
+        File file = fileFor(key);
+        File temp = null;
+        try {
+            temp = File.createTempFile("solution", SUFFIX + ".tmp", directory);
+            try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(key);
+                writer.write('\n');
+                for (int i = 0; i < moveIndices.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(Integer.toString(moveIndices[i]));
+                }
+                writer.write('\n');
+            }
+            Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            if (temp != null && temp.exists() && !temp.delete()) {
+                temp.deleteOnExit();
+            }
+            System.err.println("Could not write the solution to " + file + ": " + e);
+        }
+    }
+}
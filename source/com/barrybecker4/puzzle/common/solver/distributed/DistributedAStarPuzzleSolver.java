@@ -0,0 +1,397 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.distributed;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.common.solver.metrics.MeteredPuzzleController;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A* search spread over several worker processes, so that the nodes of a search too big for one heap
+ * can be kept in the heaps of all of them. This is HDA*, like HashDistributedAStarPuzzleSolver,
+ * but with the workers in separate JVMs (see DistributedSearchWorker), on one host or several,
+ * connected by sockets. Each worker owns the positions whose code hashes to it, and generated nodes
+ * travel to their owners in batches of many nodes per frame.
+ *
+ * This solver is the coordinator. It does not search itself. It tells the workers which instance to
+ * solve, collects the solutions they find and tells them all about the best one so far, and decides
+ * when the search is over. That is when every worker is idle and every batch sent has been received,
+ * for two rounds of status requests in a row with the same counts (Mattern's four counter method),
+ * since one round could miss a batch sent between two requests.
+ * The solution path is then put together by asking the owner of each position on it for its parent.
+ *
+ * Each worker builds its own controller from the instance spec, so the puzzle must be one that can be
+ * described by a spec, and must be able to encode positions. The limits are only checked here,
+ * against the total number of nodes expanded and the time taken. The memory limit only applies to
+ * this process. With a distanceFromGoal of 0, the search is a breadth first enumeration of every position
+ * reachable from the start, which is how to use it to count all the positions of a puzzle.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public class DistributedAStarPuzzleSolver<P, M> implements PuzzleSolver<M> {
+
+    /** how often to ask the workers for their status. */
+    private static final int POLL_MILLIS = 20;
+
+    private final PuzzleController<P, M> puzzle;
+    private final String instanceSpec;
+    private final List<InetSocketAddress> workerAddresses;
+    private final SolverMetrics metrics = new SolverMetrics();
+
+    /** the best solution reported by a worker so far. Guarded by this. */
+    private int incumbentCost;
+    private long goalCode;
+    private long goalParentCode;
+    private int goalMoveIndex;
+
+    /** guarded by this, since solutions are offered by the threads reading from the links. */
+    private List<WorkerLink> links;
+    private long numExpanded;
+
+    /**
+     * @param puzzle the puzzle to solve. It must be able to encode positions.
+     * @param instanceSpec describes the puzzle to the workers, so each can create a controller for it.
+     *   For example "slider 4 42" when the workers use PuzzleCases.parse.
+     * @param workers addresses of the workers to use. They must all be able to reach each other.
+     */
+    public DistributedAStarPuzzleSolver(PuzzleController<P, M> puzzle, String instanceSpec,
+                                        List<InetSocketAddress> workers) {
+        if (!puzzle.canEncode()) {
+            throw new IllegalArgumentException("The distributed A* search needs positions that can be encoded");
+        }
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("A distributed search needs at least one worker");
+        }
+        this.puzzle = new MeteredPuzzleController<>(puzzle, metrics);
+        this.instanceSpec = instanceSpec;
+        this.workerAddresses = new ArrayList<>(workers);
+    }
+
+    @Override
+    public List<M> solve() throws InterruptedException {
+        return solve(new SolveLimits());
+    }
+
+    /**
+     * If a limit is reached, the workers stop and the best solution found so far is returned,
+     * though it may not be optimal.
+     * @throws IllegalStateException if a worker cannot be reached, or fails during the search.
+     */
+    @Override
+    public List<M> solve(SolveLimits limits) throws InterruptedException {
+        limits.start();
+        metrics.start();
+        P startingPos = puzzle.initialPosition();
+        long startTime = System.currentTimeMillis();
+        initSolution();
+        numExpanded = 0;
+
+        List<M> pathToSolution = null;
+        P solution = null;
+        if (puzzle.isGoal(startingPos)) {
+            pathToSolution = Collections.emptyList();
+            solution = startingPos;
+        }
+        else {
+            PuzzleNode<P, M> solutionState = search(startingPos, limits);
+            if (solutionState != null) {
+                pathToSolution = solutionState.asMoveList();
+                solution = solutionState.getPosition();
+            }
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        metrics.stop();
+        puzzle.finalRefresh(pathToSolution, solution, numExpanded, elapsedTime);
+        return pathToSolution;
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    private synchronized void initSolution() {
+        incumbentCost = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Run the search on the workers, from start to finish.
+     * @return the node for the goal, with the path leading to it, or null if there is no solution,
+     *   or a limit was reached before one was found.
+     */
+    private PuzzleNode<P, M> search(P startingPos, SolveLimits limits) throws InterruptedException {
+        long sessionId = new Random().nextLong() | 1;  // never 0, which workers use for no session
+        List<WorkerLink> allLinks = new ArrayList<>(workerAddresses.size());
+        try {
+            for (int i = 0; i < workerAddresses.size(); i++) {
+                allLinks.add(new WorkerLink(workerAddresses.get(i)));
+            }
+            setLinks(allLinks);
+            for (int i = 0; i < allLinks.size(); i++) {
+                allLinks.get(i).start(new Frames.Start(sessionId, i, instanceSpec, workerAddresses));
+            }
+            for (WorkerLink link : allLinks) {
+                link.await(FrameType.READY);
+            }
+            for (WorkerLink link : allLinks) {
+                link.send(FrameType.GO);
+            }
+            awaitTermination(limits, allLinks);
+            for (WorkerLink link : allLinks) {
+                link.send(FrameType.STOP);
+            }
+            for (WorkerLink link : allLinks) {
+                link.await(FrameType.STOPPED);
+            }
+            return createPath(startingPos, allLinks);
+        } catch (IOException e) {
+            throw new IllegalStateException("Distributed search failed: " + e.getMessage(), e);
+        } finally {
+            setLinks(null);
+            for (WorkerLink link : allLinks) {
+                link.close();
+            }
+        }
+    }
+
+    private synchronized void setLinks(List<WorkerLink> links) {
+        this.links = links;
+    }
+
+    /**
+     * Poll the workers until none of them have anything left to do, or a limit is reached.
+     */
+    private void awaitTermination(SolveLimits limits, List<WorkerLink> links)
+            throws IOException, InterruptedException {
+        long previousSent = -1;
+        long previousReceived = -1;
+        long generated = 0;
+        long duplicates = 0;
+        while (true) {
+            Thread.sleep(POLL_MILLIS);
+            boolean allIdle = true;
+            long sent = 0;
+            long received = 0;
+            long expanded = 0;
+            long totalGenerated = 0;
+            long totalDuplicates = 0;
+            long openSize = 0;
+            for (WorkerLink link : links) {
+                link.send(FrameType.STATUS_REQUEST);
+                long[] status = link.await(FrameType.STATUS);
+                if (status[7] != 0) {
+                    throw new IOException("The worker at " + link.address + " failed");
+                }
+                allIdle &= status[0] != 0;
+                sent += status[1];
+                received += status[2];
+                expanded += status[3];
+                totalGenerated += status[4];
+                totalDuplicates += status[5];
+                openSize += status[6];
+            }
+            metrics.nodesExpanded(expanded - numExpanded);
+            metrics.nodesGenerated(totalGenerated - generated);
+            metrics.duplicatesRejected(totalDuplicates - duplicates);
+            metrics.frontierSize(openSize);
+            numExpanded = expanded;
+            generated = totalGenerated;
+            duplicates = totalDuplicates;
+
+            if (limits.isReached(numExpanded)) {
+                return;
+            }
+            if (allIdle && sent == received) {
+                if (sent == previousSent && received == previousReceived) {
+                    return;
+                }
+                previousSent = sent;
+                previousReceived = received;
+            }
+            else {
+                previousSent = -1;
+                previousReceived = -1;
+            }
+        }
+    }
+
+    /**
+     * Called by the thread reading from a worker when that worker finds a solution.
+     * If it is the best so far, the other workers are told, so they can prune with it.
+     */
+    private synchronized void offerSolution(long[] values) {
+        int cost = (int) values[0];
+        if (links == null || cost >= incumbentCost) {
+            return;
+        }
+        incumbentCost = cost;
+        goalCode = values[1];
+        goalParentCode = values[2];
+        goalMoveIndex = (int) values[3];
+        for (WorkerLink link : links) {
+            try {
+                link.send(FrameType.INCUMBENT, cost);
+            } catch (IOException e) {
+                // the link is broken, which the main thread will find out when it next uses it
+            }
+        }
+    }
+
+    /**
+     * Follow the parents back from the goal, asking the owner of each position for them,
+     * then replay the moves from the initial position, creating a PuzzleNode for each step.
+     * @return the node for the goal, or null if no solution was found.
+     */
+    private PuzzleNode<P, M> createPath(P startingPos, List<WorkerLink> links)
+            throws IOException, InterruptedException {
+        long goal;
+        long goalParent;
+        List<Integer> moveIndices = new ArrayList<>();
+        synchronized (this) {
+            if (incumbentCost == Integer.MAX_VALUE) {
+                return null;
+            }
+            goal = goalCode;
+            goalParent = goalParentCode;
+            moveIndices.add(goalMoveIndex);
+        }
+        long startCode = puzzle.encode(startingPos);
+        for (long code = goalParent; code != startCode; ) {
+            if (moveIndices.size() > numExpanded + 1) {
+                throw new IOException("The parents of the solution do not lead back to the start");
+            }
+            WorkerLink owner = links.get(DistributedSearchWorker.ownerOf(code, links.size()));
+            owner.send(FrameType.PARENT_REQUEST, code);
+            long[] parent = owner.await(FrameType.PARENT);
+            if (parent[0] == 0) {
+                throw new IOException("The worker at " + owner.address + " has no node for a step of the solution");
+            }
+            moveIndices.add((int) parent[2]);
+            code = parent[1];
+        }
+
+        P position = startingPos;
+        PuzzleNode<P, M> pathNode = new PuzzleNode<>(position, null, null);
+        for (int i = moveIndices.size() - 1; i >= 0; i--) {
+            M move = puzzle.legalMoves(position).get(moveIndices.get(i));
+            position = puzzle.move(position, move);
+            pathNode = new PuzzleNode<>(position, move, pathNode);
+        }
+        if (puzzle.encode(position) != goal) {
+            throw new IOException("Replaying the solution did not reach the goal");
+        }
+        return pathNode;
+    }
+
+    /**
+     * The connection to one worker. A thread reads its frames, handles solutions as they come,
+     * and queues everything else for the main thread, which only ever waits on one reply at a time.
+     */
+    private class WorkerLink implements Runnable {
+
+        private final InetSocketAddress address;
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final BlockingQueue<Reply> replies = new LinkedBlockingQueue<>();
+        private boolean started;
+
+        WorkerLink(InetSocketAddress address) throws IOException {
+            this.address = address;
+            socket = new Socket(address.getHostString(), address.getPort());
+            socket.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void start(Frames.Start start) throws IOException {
+            synchronized (out) {
+                Frames.writeStart(out, start);
+            }
+            started = true;
+            Thread reader = new Thread(this, "DistributedSearchLink-" + address.getPort());
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        void send(FrameType type, long... values) throws IOException {
+            synchronized (out) {
+                Frames.write(out, type, values);
+            }
+        }
+
+        /**
+         * @return the values of the next reply, which must be of the expected type.
+         */
+        long[] await(FrameType expected) throws IOException, InterruptedException {
+            Reply reply = replies.take();
+            if (reply.type != expected) {
+                throw new IOException("Expected " + expected + " from the worker at " + address
+                        + " but got " + (reply.type == null ? "disconnected" : reply.type));
+            }
+            return reply.values;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    FrameType type = Frames.readType(in);
+                    long[] values = Frames.readValues(in);
+                    if (type == FrameType.SOLUTION) {
+                        offerSolution(values);
+                    } else {
+                        replies.add(new Reply(type, values));
+                    }
+                }
+            } catch (IOException e) {
+                replies.add(new Reply(null, null));  // wakes the main thread if it is waiting
+            }
+        }
+
+        /** Tell the worker the session is over, if it was started, and hang up. */
+        void close() {
+            if (started) {
+                try {
+                    send(FrameType.END);
+                } catch (IOException e) {
+                    // it is gone already
+                }
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+
+    /** A frame received from a worker. The type is null if the connection was lost. */
+    private static class Reply {
+        final FrameType type;
+        final long[] values;
+
+        Reply(FrameType type, long[] values) {
+            this.type = type;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,494 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.distributed;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.model.MoveBuffer;
+import com.barrybecker4.puzzle.common.solver.queue.IntBucketQueue;
+import com.barrybecker4.puzzle.common.solver.seen.LongHashSet;
+import com.barrybecker4.puzzle.common.solver.seen.LongIntHashMap;
+import com.barrybecker4.puzzle.common.solver.store.PartitionNodeStore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One process of a distributed A* search (see DistributedAStarPuzzleSolver).
+ * It listens on a port for a coordinator to start a search, and for the other workers of that search
+ * to send it nodes. Each worker owns the positions whose encoded value hashes to it, keeps the nodes
+ * for them, and expands them. Nodes for positions owned by other workers are collected in a batch
+ * for each owner, and sent when the batch is full, or when the worker has nothing left to expand.
+ * So the state space is split across the heaps of all the workers, rather than having to fit in one.
+ *
+ * Searches run one at a time, on a single thread. A worker can serve any number of searches
+ * one after the other, and holds no nodes between them.
+ * Several workers may run in one JVM, which is how the tests run them, though the point is to run one
+ * per JVM, on one host or several.
+ *
+ * @author Barry Becker
+ */
+public class DistributedSearchWorker implements Closeable {
+
+    /** most nodes sent to another worker in one frame. */
+    private static final int BATCH_SIZE = 1024;
+
+    /** batches that are not full are sent after this many expansions, so other workers are not kept waiting. */
+    private static final int FLUSH_INTERVAL = 256;
+
+    /** How long an idle worker waits before checking its inbox again. */
+    private static final long IDLE_PARK_NANOS = 100000L;
+
+    private static final int NOT_FOUND = -1;
+
+    private final PuzzleControllerFactory factory;
+    private final ServerSocket serverSocket;
+
+    /** batches received from the other workers, waiting to be added to the search. */
+    private final Queue<NodeBatch> inbox = new ConcurrentLinkedQueue<>();
+
+    /** batches for any other session are dropped. Zero when no search is running. */
+    private volatile long currentSessionId;
+    private volatile boolean closed;
+
+    /**
+     * Creates the worker and binds its port. Call start to begin accepting connections.
+     * @param port the port to listen on, or 0 for any free one (see getPort).
+     * @param factory creates the puzzle instance that a coordinator asks for.
+     */
+    public DistributedSearchWorker(int port, PuzzleControllerFactory factory) throws IOException {
+        this.factory = factory;
+        this.serverSocket = new ServerSocket(port);
+    }
+
+    /** @return the port the worker listens on. */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return the address to give the coordinator, for a worker on this host.
+     */
+    public InetSocketAddress getLocalAddress() {
+        return new InetSocketAddress("localhost", getPort());
+    }
+
+    /**
+     * Begin accepting connections on a daemon thread.
+     */
+    public void start() {
+        Thread acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                acceptConnections();
+            }
+        }, "DistributedSearchWorker-" + getPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Stop listening. A search in progress ends when its coordinator disconnects.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+    }
+
+    private void acceptConnections() {
+        while (!closed) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.out.println("Worker on port " + getPort() + " stopped accepting: " + e.getMessage());
+                }
+                return;
+            }
+            Thread handler = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    handleConnection(socket);
+                }
+            }, "DistributedSearchConnection-" + getPort());
+            handler.setDaemon(true);
+            handler.start();
+        }
+    }
+
+    /**
+     * The first frame says whether the connection is from a coordinator or another worker.
+     */
+    private void handleConnection(Socket socket) {
+        try (Socket s = socket) {
+            s.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            FrameType type = Frames.readType(in);
+            switch (type) {
+                case START :
+                    runSession(Frames.readStart(in), in, out);
+                    break;
+                case HELLO_PEER :
+                    Frames.readValues(in);
+                    receiveBatches(in);
+                    break;
+                default :
+                    throw new IOException("Unexpected first frame " + type);
+            }
+        } catch (EOFException e) {
+            // the other end hung up
+        } catch (IOException e) {
+            if (!closed) {
+                System.out.println("Worker on port " + getPort() + " lost a connection: " + e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            // most likely an instance spec that the factory could not understand. The coordinator sees the hang up.
+            System.out.println("Worker on port " + getPort() + " could not run a search: " + e);
+        }
+    }
+
+    /**
+     * Keep reading NODES frames from another worker until it disconnects.
+     */
+    private void receiveBatches(DataInputStream in) throws IOException {
+        while (true) {
+            FrameType type = Frames.readType(in);
+            if (type != FrameType.NODES) {
+                throw new IOException("Expected NODES from a worker but got " + type);
+            }
+            NodeBatch batch = NodeBatch.read(in);
+            if (batch.getSessionId() == currentSessionId) {
+                inbox.add(batch);
+            }
+        }
+    }
+
+    private void runSession(Frames.Start start, DataInputStream in, DataOutputStream out) throws IOException {
+        PuzzleController<?, ?> puzzle = factory.create(start.instanceSpec);
+        if (!puzzle.canEncode()) {
+            throw new IOException("Distributed search needs positions that can be encoded: " + start.instanceSpec);
+        }
+        newSession(puzzle, start, out).run(in);
+    }
+
+    private <P, M> Session<P, M> newSession(PuzzleController<P, M> puzzle, Frames.Start start, DataOutputStream out) {
+        return new Session<>(puzzle, start, out);
+    }
+
+    /**
+     * @return index of the worker that owns the encoded position. The coordinator and all the workers agree on it.
+     */
+    static int ownerOf(long code, int numWorkers) {
+        int h = (int) (LongHashSet.mix(code) >>> 32);
+        return (h & Integer.MAX_VALUE) % numWorkers;
+    }
+
+    /**
+     * The part of one search done by this worker.
+     * The thread that created it reads frames from the coordinator. The search runs on a thread of its own.
+     */
+    private class Session<P, M> implements Runnable {
+
+        private final PuzzleController<P, M> puzzle;
+        private final Frames.Start start;
+        private final int numWorkers;
+
+        /** shared by the search thread and the coordinator reader, so writes must synchronize on it. */
+        private final DataOutputStream coordinator;
+
+        /** only accessed by the search thread. */
+        private final PartitionNodeStore nodes = new PartitionNodeStore();
+        private final IntBucketQueue open = new IntBucketQueue();
+        private final LongIntHashMap bestNode = new LongIntHashMap();
+        private final MoveBuffer<M> moves = new MoveBuffer<>();
+        private final NodeBatch[] outgoing;
+        private DataOutputStream[] peers;
+        private Socket[] peerSockets;
+        private int expansionsSinceFlush;
+
+        /** read by the coordinator reader when asked for status. */
+        private volatile boolean idle;
+        private volatile long batchesSent;
+        private volatile long batchesReceived;
+        private volatile long numExpanded;
+        private volatile long numGenerated;
+        private volatile long numDuplicates;
+        private volatile int openSize;
+
+        private volatile int incumbentCost = Integer.MAX_VALUE;
+        private volatile boolean stopped;
+        private volatile boolean failed;
+
+        Session(PuzzleController<P, M> puzzle, Frames.Start start, DataOutputStream coordinator) {
+            this.puzzle = puzzle;
+            this.start = start;
+            this.numWorkers = start.workers.size();
+            this.coordinator = coordinator;
+            outgoing = new NodeBatch[numWorkers];
+            for (int i = 0; i < numWorkers; i++) {
+                outgoing[i] = new NodeBatch(start.sessionId, BATCH_SIZE);
+            }
+        }
+
+        /**
+         * Connect to the other workers, then serve the coordinator until it ends the session.
+         */
+        void run(DataInputStream in) throws IOException {
+            Thread searchThread = new Thread(this, "DistributedSearch-" + getPort());
+            searchThread.setDaemon(true);
+            inbox.clear();
+            currentSessionId = start.sessionId;
+            try {
+                connectToPeers();
+                send(FrameType.READY);
+                serveCoordinator(in, searchThread);
+            } finally {
+                stopped = true;
+                joinQuietly(searchThread);
+                currentSessionId = 0;
+                inbox.clear();
+                disconnectFromPeers();
+            }
+        }
+
+        private void serveCoordinator(DataInputStream in, Thread searchThread) throws IOException {
+            while (true) {
+                FrameType type = Frames.readType(in);
+                long[] values = Frames.readValues(in);
+                switch (type) {
+                    case GO :
+                        searchThread.start();
+                        break;
+                    case STATUS_REQUEST :
+                        boolean wasIdle = idle;
+                        long received = batchesReceived;
+                        send(FrameType.STATUS, wasIdle ? 1 : 0, batchesSent, received,
+                                numExpanded, numGenerated, numDuplicates, openSize, failed ? 1 : 0);
+                        break;
+                    case INCUMBENT :
+                        lowerIncumbent((int) values[0]);
+                        break;
+                    case STOP :
+                        stopped = true;
+                        joinQuietly(searchThread);
+                        send(FrameType.STOPPED);
+                        break;
+                    case PARENT_REQUEST :
+                        // only asked after STOPPED, so the search thread is no longer touching the nodes
+                        int node = bestNode.get(values[0], NOT_FOUND);
+                        if (node == NOT_FOUND) {
+                            send(FrameType.PARENT, 0, 0, 0);
+                        } else {
+                            send(FrameType.PARENT, 1, nodes.getParentCode(node), nodes.getMoveIndex(node));
+                        }
+                        break;
+                    case END :
+                        return;
+                    default :
+                        throw new IOException("Unexpected frame from coordinator: " + type);
+                }
+            }
+        }
+
+        /** The search loop, run on its own thread after GO. A failure is reported with the next status. */
+        @Override
+        public void run() {
+            try {
+                search();
+            } catch (IOException | RuntimeException e) {
+                if (!stopped) {
+                    failed = true;
+                    System.out.println("Distributed search on port " + getPort() + " failed: " + e);
+                }
+            }
+        }
+
+        private synchronized boolean lowerIncumbent(int cost) {
+            if (cost < incumbentCost) {
+                incumbentCost = cost;
+                return true;
+            }
+            return false;
+        }
+
+        private void search() throws IOException {
+            P startingPos = puzzle.initialPosition();
+            long startCode = puzzle.encode(startingPos);
+            if (ownerOf(startCode, numWorkers) == start.workerIndex) {
+                receive(startCode, startCode, 0, puzzle.distanceFromGoal(startingPos), 0);
+            }
+            while (!stopped) {
+                NodeBatch batch = inbox.poll();
+                if (batch != null) {
+                    // set before counting it, so a status never shows the batch received while still idle
+                    idle = false;
+                    for (int i = 0; i < batch.size(); i++) {
+                        receive(batch.getCode(i), batch.getParentCode(i), batch.getPathCost(i),
+                                batch.getDistance(i), batch.getMoveIndex(i));
+                    }
+                    batchesReceived++;
+                    continue;
+                }
+                int node = nextNode();
+                if (node != NOT_FOUND) {
+                    idle = false;
+                    expand(node);
+                    if (++expansionsSinceFlush >= FLUSH_INTERVAL) {
+                        flush();
+                    }
+                }
+                else {
+                    flush();
+                    openSize = 0;
+                    idle = inbox.isEmpty();
+                    if (idle) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return the best node that is up to date and could lead to a solution cheaper than the incumbent,
+         *   or NOT_FOUND if there is none.
+         */
+        private int nextNode() {
+            while (!open.isEmpty()) {
+                int node = open.removeBest();
+                if (bestNode.get(nodes.getCode(node), NOT_FOUND) != node) {
+                    continue;  // a cheaper path to this position was found after it was queued
+                }
+                if (nodes.getPathCost(node) + nodes.getDistance(node) >= incumbentCost) {
+                    open.clear();  // nothing left could beat the incumbent
+                    return NOT_FOUND;
+                }
+                return node;
+            }
+            return NOT_FOUND;
+        }
+
+        private void receive(long code, long parentCode, int pathCost, int distance, int moveIndex) {
+            int existing = bestNode.get(code, NOT_FOUND);
+            if (existing != NOT_FOUND && pathCost >= nodes.getPathCost(existing)) {
+                numDuplicates++;
+            }
+            else if (pathCost + distance < incumbentCost) {
+                int node = nodes.add(code, parentCode, pathCost, distance, moveIndex);
+                bestNode.put(code, node);
+                open.add(node, pathCost + distance);
+            }
+        }
+
+        private void expand(int node) throws IOException {
+            long code = nodes.getCode(node);
+            P position = puzzle.decode(code);
+            int pathCost = nodes.getPathCost(node);
+            int distance = nodes.getDistance(node);
+            numExpanded++;
+            openSize = open.size();
+
+            moves.clear();
+            puzzle.forEachMove(position, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                M move = moves.get(i);
+                P nbr = puzzle.move(position, move);
+                int estPathCost = pathCost + puzzle.getCost(move);
+                long nbrCode = puzzle.encode(nbr);
+                numGenerated++;
+                if (puzzle.isGoal(nbr)) {
+                    // check for goals when generated so a solution is not pruned by a positive estimate at the goal
+                    if (lowerIncumbent(estPathCost)) {
+                        send(FrameType.SOLUTION, estPathCost, nbrCode, code, i);
+                    }
+                    continue;
+                }
+                int nbrDistance = puzzle.distanceFromGoal(position, move, distance, nbr);
+                if (estPathCost + nbrDistance >= incumbentCost) {
+                    continue;
+                }
+                int owner = ownerOf(nbrCode, numWorkers);
+                if (owner == start.workerIndex) {
+                    receive(nbrCode, code, estPathCost, nbrDistance, i);
+                }
+                else {
+                    outgoing[owner].add(nbrCode, code, estPathCost, nbrDistance, i);
+                    if (outgoing[owner].isFull()) {
+                        sendBatch(owner);
+                    }
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            for (int i = 0; i < numWorkers; i++) {
+                if (!outgoing[i].isEmpty()) {
+                    sendBatch(i);
+                }
+            }
+            expansionsSinceFlush = 0;
+        }
+
+        /** Counted as sent before it is written, so it is never received before it is counted. */
+        private void sendBatch(int owner) throws IOException {
+            batchesSent++;
+            outgoing[owner].write(peers[owner]);
+            outgoing[owner].clear();
+        }
+
+        private void send(FrameType type, long... values) throws IOException {
+            synchronized (coordinator) {
+                Frames.write(coordinator, type, values);
+            }
+        }
+
+        private void connectToPeers() throws IOException {
+            peers = new DataOutputStream[numWorkers];
+            peerSockets = new Socket[numWorkers];
+            for (int i = 0; i < numWorkers; i++) {
+                if (i != start.workerIndex) {
+                    InetSocketAddress address = start.workers.get(i);
+                    Socket socket = new Socket(address.getHostString(), address.getPort());
+                    socket.setTcpNoDelay(true);
+                    peerSockets[i] = socket;
+                    peers[i] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                    Frames.write(peers[i], FrameType.HELLO_PEER, start.sessionId);
+                }
+            }
+        }
+
+        private void disconnectFromPeers() {
+            if (peerSockets == null) {
+                return;
+            }
+            for (Socket socket : peerSockets) {
+                if (socket != null) {
+                    try {
+                        socket.close();
+                    } catch (IOException e) {
+                        // already closed
+                    }
+                }
+            }
+        }
+
+        private void joinQuietly(Thread thread) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
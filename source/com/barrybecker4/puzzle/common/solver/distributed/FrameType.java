@@ -0,0 +1,58 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.distributed;
+
+/**
+ * The kinds of frame sent between the coordinator of a distributed search and its workers,
+ * and between the workers themselves. Each frame starts with a byte giving its type.
+ * START and NODES have their own layout (see Frames and NodeBatch). All the others are followed by
+ * an int count and that many longs, given after each type below.
+ *
+ * @author Barry Becker
+ */
+enum FrameType {
+
+    /** coordinator to worker: session id, worker index, number of workers, instance spec, then the worker addresses. */
+    START,
+
+    /** worker to coordinator, once connected to all the other workers. */
+    READY,
+
+    /** coordinator to worker: begin searching. */
+    GO,
+
+    /** first frame from one worker to another: session id. It is followed only by NODES frames. */
+    HELLO_PEER,
+
+    /** worker to worker: a batch of nodes owned by the receiver. */
+    NODES,
+
+    /** coordinator to worker: ask for a STATUS. */
+    STATUS_REQUEST,
+
+    /**
+     * worker to coordinator: idle (1 or 0), batches sent, batches received, expanded, generated, duplicates,
+     * open, failed (1 or 0).
+     */
+    STATUS,
+
+    /** worker to coordinator: cost, goal code, parent code, move index. */
+    SOLUTION,
+
+    /** coordinator to worker: cost of the best solution found so far. */
+    INCUMBENT,
+
+    /** coordinator to worker: stop searching, and answer with STOPPED once the search thread is done. */
+    STOP,
+
+    /** worker to coordinator, after STOP. */
+    STOPPED,
+
+    /** coordinator to worker: code of a position the worker owns. */
+    PARENT_REQUEST,
+
+    /** worker to coordinator: found (1 or 0), parent code, move index. */
+    PARENT,
+
+    /** coordinator to worker: the session is over, so its nodes can be dropped. */
+    END
+}
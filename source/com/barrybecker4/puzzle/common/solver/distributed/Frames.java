@@ -0,0 +1,113 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the frames of the distributed search protocol.
+ * Writing is not synchronized. Callers that share a stream between threads must do that themselves.
+ *
+ * @author Barry Becker
+ */
+final class Frames {
+
+    private static final FrameType[] TYPES = FrameType.values();
+
+    /** no control frame has more values than this, so anything larger means the stream is corrupt. */
+    private static final int MAX_VALUES = 16;
+
+    private Frames() {}
+
+    /**
+     * Write a control frame and flush it.
+     */
+    static void write(DataOutputStream out, FrameType type, long... values) throws IOException {
+        out.writeByte(type.ordinal());
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+        out.flush();
+    }
+
+    /**
+     * @return the type of the next frame.
+     * @throws java.io.EOFException if the other end closed the connection.
+     */
+    static FrameType readType(DataInputStream in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= TYPES.length) {
+            throw new IOException("Unknown frame type " + ordinal);
+        }
+        return TYPES[ordinal];
+    }
+
+    /**
+     * @return the values of a control frame whose type has just been read.
+     */
+    static long[] readValues(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_VALUES) {
+            throw new IOException("Bad number of values in frame: " + count);
+        }
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+    static void writeStart(DataOutputStream out, Start start) throws IOException {
+        out.writeByte(FrameType.START.ordinal());
+        out.writeLong(start.sessionId);
+        out.writeInt(start.workerIndex);
+        out.writeUTF(start.instanceSpec);
+        out.writeInt(start.workers.size());
+        for (InetSocketAddress address : start.workers) {
+            out.writeUTF(address.getHostString());
+            out.writeInt(address.getPort());
+        }
+        out.flush();
+    }
+
+    /**
+     * @return the contents of a START frame whose type has just been read.
+     */
+    static Start readStart(DataInputStream in) throws IOException {
+        long sessionId = in.readLong();
+        int workerIndex = in.readInt();
+        String instanceSpec = in.readUTF();
+        int numWorkers = in.readInt();
+        if (numWorkers <= workerIndex || workerIndex < 0) {
+            throw new IOException("Bad worker index " + workerIndex + " of " + numWorkers);
+        }
+        List<InetSocketAddress> workers = new ArrayList<>(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            String host = in.readUTF();
+            workers.add(InetSocketAddress.createUnresolved(host, in.readInt()));
+        }
+        return new Start(sessionId, workerIndex, instanceSpec, workers);
+    }
+
+    /**
+     * What a worker is told at the start of a search.
+     */
+    static class Start {
+        final long sessionId;
+        final int workerIndex;
+        final String instanceSpec;
+        final List<InetSocketAddress> workers;
+
+        Start(long sessionId, int workerIndex, String instanceSpec, List<InetSocketAddress> workers) {
+            this.sessionId = sessionId;
+            this.workerIndex = workerIndex;
+            this.instanceSpec = instanceSpec;
+            this.workers = workers;
+        }
+    }
+}
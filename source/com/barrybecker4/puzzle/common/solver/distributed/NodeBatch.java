@@ -0,0 +1,123 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Nodes on their way from one worker to the worker that owns them, sent together in one NODES frame
+ * so that the cost of a write is shared by many nodes.
+ * The frame has the session id and the number of nodes, then 25 bytes for each node:
+ * code, parent code, path cost, estimated distance to the goal, and move index.
+ *
+ * @author Barry Becker
+ */
+class NodeBatch {
+
+    /** no batch is written with more nodes than this, so anything larger means the stream is corrupt. */
+    static final int MAX_SIZE = 1 << 16;
+
+    private final long sessionId;
+    private final long[] codes;
+    private final long[] parentCodes;
+    private final int[] pathCosts;
+    private final int[] distances;
+    private final byte[] moveIndices;
+    private int size;
+
+    /**
+     * @param sessionId the search that the nodes belong to.
+     * @param capacity most nodes the batch can hold.
+     */
+    NodeBatch(long sessionId, int capacity) {
+        this.sessionId = sessionId;
+        codes = new long[capacity];
+        parentCodes = new long[capacity];
+        pathCosts = new int[capacity];
+        distances = new int[capacity];
+        moveIndices = new byte[capacity];
+    }
+
+    long getSessionId() {
+        return sessionId;
+    }
+
+    void add(long code, long parentCode, int pathCost, int distance, int moveIndex) {
+        codes[size] = code;
+        parentCodes[size] = parentCode;
+        pathCosts[size] = pathCost;
+        distances[size] = distance;
+        moveIndices[size] = (byte) moveIndex;
+        size++;
+    }
+
+    long getCode(int index) {
+        return codes[index];
+    }
+
+    long getParentCode(int index) {
+        return parentCodes[index];
+    }
+
+    int getPathCost(int index) {
+        return pathCosts[index];
+    }
+
+    int getDistance(int index) {
+        return distances[index];
+    }
+
+    int getMoveIndex(int index) {
+        return moveIndices[index] & 0xFF;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean isFull() {
+        return size == codes.length;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Write the batch as a NODES frame and flush it.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeByte(FrameType.NODES.ordinal());
+        out.writeLong(sessionId);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(codes[i]);
+            out.writeLong(parentCodes[i]);
+            out.writeInt(pathCosts[i]);
+            out.writeInt(distances[i]);
+            out.writeByte(moveIndices[i]);
+        }
+        out.flush();
+    }
+
+    /**
+     * @return the batch in a NODES frame whose type has just been read.
+     */
+    static NodeBatch read(DataInputStream in) throws IOException {
+        long sessionId = in.readLong();
+        int size = in.readInt();
+        if (size < 0 || size > MAX_SIZE) {
+            throw new IOException("Bad number of nodes in frame: " + size);
+        }
+        NodeBatch batch = new NodeBatch(sessionId, size);
+        for (int i = 0; i < size; i++) {
+            batch.add(in.readLong(), in.readLong(), in.readInt(), in.readInt(), in.readUnsignedByte());
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,20 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.distributed;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+
+/**
+ * Lets a worker of a distributed search build the puzzle instance that the coordinator names,
+ * since controllers cannot be sent over the wire.
+ *
+ * @author Barry Becker
+ */
+public interface PuzzleControllerFactory {
+
+    /**
+     * @param instanceSpec identifies the puzzle instance, for example "slider 4 42".
+     *   Every worker must create the same instance from the same spec.
+     * @return a new controller, with no ui, for that instance. It must be able to encode positions.
+     */
+    PuzzleController<?, ?> create(String instanceSpec);
+}
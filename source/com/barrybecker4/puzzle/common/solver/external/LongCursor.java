@@ -0,0 +1,57 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.external;
+
+import java.nio.LongBuffer;
+
+/**
+ * Reads the values of a SortedLongFile in order, one mapped segment at a time.
+ * Cursors are ordered by their next value, so that several can be merged with a priority queue.
+ *
+ * @author Barry Becker
+ */
+public class LongCursor implements Comparable<LongCursor> {
+
+    private final SortedLongFile file;
+    private final int numSegments;
+    private int segmentIndex = -1;
+    private LongBuffer segment;
+
+    LongCursor(SortedLongFile file) {
+        this.file = file;
+        this.numSegments = file.getNumSegments();
+        nextSegment();
+    }
+
+    public boolean hasNext() {
+        return segment != null;
+    }
+
+    /** @return the next value without moving past it. */
+    public long peek() {
+        return segment.get(segment.position());
+    }
+
+    public long next() {
+        long value = segment.get();
+        if (!segment.hasRemaining()) {
+            nextSegment();
+        }
+        return value;
+    }
+
+    private void nextSegment() {
+        segmentIndex++;
+        // each cursor needs its own position, so it reads through a duplicate of the shared mapping
+        segment = (segmentIndex < numSegments) ? file.getSegment(segmentIndex).duplicate() : null;
+        if (segment != null) {
+            segment.rewind();
+        }
+    }
+
+    @Override
+    public int compareTo(LongCursor other) {
+        long value = peek();
+        long otherValue = other.peek();
+        return (value < otherValue) ? -1 : ((value == otherValue) ? 0 : 1);
+    }
+}
@@ -0,0 +1,254 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.external;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A file of distinct longs in increasing order, such as encoded puzzle positions.
+ * Files are written once, sequentially, and then read through memory mapping, so they
+ * can be far larger than the heap. The operating system pages them in as needed.
+ * Large files are mapped in several segments, since a single mapping is limited to 2GB.
+ *
+ * @author Barry Becker
+ */
+public class SortedLongFile {
+
+    /** number of longs in each mapped segment (128MB). Tests use smaller segments to cross their boundaries. */
+    static final int SEGMENT_SIZE = 1 << 24;
+
+    private static final int BYTES_PER_LONG = 8;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final File file;
+    private final long size;
+    private final int segmentSize;
+    private LongBuffer[] segments;
+
+    private SortedLongFile(File file, long size, int segmentSize) {
+        this.file = file;
+        this.size = size;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Sort the values, drop any repeats, and write what is left to the file.
+     * @param file where to write them.
+     * @param values the values to write. The first count of them are sorted in place.
+     * @param count number of values to use.
+     */
+    public static SortedLongFile write(File file, long[] values, int count) throws IOException {
+        return write(file, values, count, SEGMENT_SIZE);
+    }
+
+    /**
+     * Like write, but the file is mapped in segments of the specified number of longs.
+     */
+    static SortedLongFile write(File file, long[] values, int count, int segmentSize) throws IOException {
+        Arrays.sort(values, 0, count);
+        Writer writer = new Writer(file, segmentSize);
+        try {
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || values[i] != values[i - 1]) {
+                    writer.add(values[i]);
+                }
+            }
+        } finally {
+            writer.close();
+        }
+        return writer.toSortedLongFile();
+    }
+
+    /**
+     * Merge sorted runs into a single file of distinct values,
+     * leaving out any value that appears in one of the excluded files.
+     * This is how delayed duplicate detection removes positions that were already reached.
+     * @param runs the files to merge.
+     * @param excluded values in these files are left out of the result.
+     * @param file where to write the result.
+     */
+    public static SortedLongFile merge(List<SortedLongFile> runs, List<SortedLongFile> excluded, File file)
+            throws IOException {
+        return merge(runs, excluded, file, SEGMENT_SIZE);
+    }
+
+    /**
+     * Like merge, but the result is mapped in segments of the specified number of longs.
+     */
+    static SortedLongFile merge(List<SortedLongFile> runs, List<SortedLongFile> excluded, File file,
+                                int segmentSize) throws IOException {
+        PriorityQueue<LongCursor> heads = new PriorityQueue<>(Math.max(1, runs.size()));
+        for (SortedLongFile run : runs) {
+            LongCursor cursor = run.cursor();
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+        }
+        LongCursor[] exclusions = new LongCursor[excluded.size()];
+        for (int i = 0; i < exclusions.length; i++) {
+            exclusions[i] = excluded.get(i).cursor();
+        }
+
+        Writer writer = new Writer(file, segmentSize);
+        try {
+            boolean first = true;
+            long last = 0;
+            while (!heads.isEmpty()) {
+                LongCursor head = heads.poll();
+                long value = head.next();
+                if (head.hasNext()) {
+                    heads.add(head);
+                }
+                if ((first || value != last) && !isExcluded(value, exclusions)) {
+                    writer.add(value);
+                }
+                first = false;
+                last = value;
+            }
+        } finally {
+            writer.close();
+        }
+        return writer.toSortedLongFile();
+    }
+
+    /** values arrive in increasing order, so each exclusion cursor only ever moves forward. */
+    private static boolean isExcluded(long value, LongCursor[] exclusions) {
+        for (LongCursor exclusion : exclusions) {
+            while (exclusion.hasNext() && exclusion.peek() < value) {
+                exclusion.next();
+            }
+            if (exclusion.hasNext() && exclusion.peek() == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /** @return number of values in the file. */
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index position of the value in the file.
+     * @return the value at that position.
+     */
+    public long get(long index) {
+        return getSegment((int) (index / segmentSize)).get((int) (index % segmentSize));
+    }
+
+    /**
+     * Binary search for the value.
+     * @return true if the file contains the value.
+     */
+    public boolean contains(long value) {
+        long low = 0;
+        long high = size - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long midValue = get(mid);
+            if (midValue < value) {
+                low = mid + 1;
+            } else if (midValue > value) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return a way to read the values in order. */
+    public LongCursor cursor() {
+        return new LongCursor(this);
+    }
+
+    /**
+     * Delete the file. Mapped segments are released when they are garbage collected.
+     */
+    public void delete() {
+        segments = null;
+        if (!file.delete() && file.exists()) {
+            file.deleteOnExit();
+        }
+    }
+
+    int getNumSegments() {
+        return (int) ((size + segmentSize - 1) / segmentSize);
+    }
+
+    /** segments are mapped the first time they are used. */
+    synchronized LongBuffer getSegment(int segmentIndex) {
+        if (segments == null) {
+            segments = new LongBuffer[getNumSegments()];
+        }
+        if (segments[segmentIndex] == null) {
+            long start = (long) segmentIndex * segmentSize;
+            long length = Math.min(segmentSize, size - start);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                segments[segmentIndex] = raf.getChannel()
+                        .map(FileChannel.MapMode.READ_ONLY, start * BYTES_PER_LONG, length * BYTES_PER_LONG)
+                        .asLongBuffer();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not map " + file, e);
+            }
+        }
+        return segments[segmentIndex];
+    }
+
+    @Override
+    public String toString() {
+        return file.getName() + " (" + size + " values)";
+    }
+
+    /**
+     * Writes values to a new file. They must be added in increasing order.
+     */
+    public static class Writer {
+        private final File file;
+        private final DataOutputStream out;
+        private final int segmentSize;
+        private long size = 0;
+
+        public Writer(File file) throws IOException {
+            this(file, SEGMENT_SIZE);
+        }
+
+        Writer(File file, int segmentSize) throws IOException {
+            this.file = file;
+            this.segmentSize = segmentSize;
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), WRITE_BUFFER_SIZE));
+        }
+
+        public void add(long value) throws IOException {
+            out.writeLong(value);
+            size++;
+        }
+
+        public void close() throws IOException {
+            out.close();
+        }
+
+        /** @return the file written. Only call after closing. */
+        public SortedLongFile toSortedLongFile() {
+            return new SortedLongFile(file, size, segmentSize);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.metrics;
+
+import com.barrybecker4.puzzle.common.AlgorithmEnum;
+import com.barrybecker4.puzzle.common.MoveSink;
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.solver.seen.VisitedSet;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Wraps a puzzle controller and records what the solver asks of it in SolverMetrics.
+ * Every call to legalMoves (or forEachMove, or predecessorMoves) counts as an expansion, every call to move (or unmove)
+ * as a generated node, and every position that alreadySeen rejects as a duplicate.
+ * Reading the clock on every call would cost about as much as some of the calls themselves,
+ * so only a random sample of the calls are timed, and the total time is estimated from those.
+ * Everything else is passed straight through to the wrapped controller.
+ *
+ * @author Barry Becker
+ */
+public class MeteredPuzzleController<P, M> implements PuzzleController<P, M> {
+
+    /** one in this many calls is timed. Must be a power of 2. */
+    private static final int SAMPLE_RATE = 16;
+
+    private final PuzzleController<P, M> puzzle;
+    private final SolverMetrics metrics;
+
+    /**
+     * @param puzzle the controller to delegate to.
+     * @param metrics where to record the calls.
+     */
+    public MeteredPuzzleController(PuzzleController<P, M> puzzle, SolverMetrics metrics) {
+        this.puzzle = puzzle;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<M> legalMoves(P position) {
+        metrics.nodeExpanded();
+        if (!isSampled()) {
+            return puzzle.legalMoves(position);
+        }
+        long start = System.nanoTime();
+        List<M> moves = puzzle.legalMoves(position);
+        metrics.addLegalMovesNanos((System.nanoTime() - start) * SAMPLE_RATE);
+        return moves;
+    }
+
+    @Override
+    public void forEachMove(P position, MoveSink<M> sink) {
+        metrics.nodeExpanded();
+        if (!isSampled()) {
+            puzzle.forEachMove(position, sink);
+            return;
+        }
+        long start = System.nanoTime();
+        puzzle.forEachMove(position, sink);
+        metrics.addLegalMovesNanos((System.nanoTime() - start) * SAMPLE_RATE);
+    }
+
+    @Override
+    public P move(P position, M move) {
+        metrics.nodeGenerated();
+        if (!isSampled()) {
+            return puzzle.move(position, move);
+        }
+        long start = System.nanoTime();
+        P child = puzzle.move(position, move);
+        metrics.addMoveNanos((System.nanoTime() - start) * SAMPLE_RATE);
+        return child;
+    }
+
+    @Override
+    public int distanceFromGoal(P position) {
+        if (!isSampled()) {
+            return puzzle.distanceFromGoal(position);
+        }
+        long start = System.nanoTime();
+        int distance = puzzle.distanceFromGoal(position);
+        metrics.addDistanceFromGoalNanos((System.nanoTime() - start) * SAMPLE_RATE);
+        return distance;
+    }
+
+    @Override
+    public int distanceFromGoal(P parent, M move, int parentDistance, P child) {
+        if (!isSampled()) {
+            return puzzle.distanceFromGoal(parent, move, parentDistance, child);
+        }
+        long start = System.nanoTime();
+        int distance = puzzle.distanceFromGoal(parent, move, parentDistance, child);
+        metrics.addDistanceFromGoalNanos((System.nanoTime() - start) * SAMPLE_RATE);
+        return distance;
+    }
+
+    @Override
+    public boolean alreadySeen(P position, VisitedSet<P> seen) {
+        boolean wasSeen = puzzle.alreadySeen(position, seen);
+        if (wasSeen) {
+            metrics.duplicateRejected();
+        }
+        return wasSeen;
+    }
+
+    @Override
+    public P canonicalize(P position) {
+        return puzzle.canonicalize(position);
+    }
+
+    @Override
+    public List<M> predecessorMoves(P position) {
+        metrics.nodeExpanded();
+        return puzzle.predecessorMoves(position);
+    }
+
+    @Override
+    public P unmove(P position, M move) {
+        metrics.nodeGenerated();
+        return puzzle.unmove(position, move);
+    }
+
+    private static boolean isSampled() {
+        return (ThreadLocalRandom.current().nextInt() & (SAMPLE_RATE - 1)) == 0;
+    }
+
+    @Override
+    public P initialPosition() {
+        return puzzle.initialPosition();
+    }
+
+    @Override
+    public boolean isGoal(P position) {
+        return puzzle.isGoal(position);
+    }
+
+    @Override
+    public int getCost(M move) {
+        return puzzle.getCost(move);
+    }
+
+    @Override
+    public boolean canEncode() {
+        return puzzle.canEncode();
+    }
+
+    @Override
+    public long encode(P position) {
+        return puzzle.encode(position);
+    }
+
+    @Override
+    public P decode(long code) {
+        return puzzle.decode(code);
+    }
+
+    @Override
+    public boolean isReversible() {
+        return puzzle.isReversible();
+    }
+
+    @Override
+    public List<P> goalPositions() {
+        return puzzle.goalPositions();
+    }
+
+    @Override
+    public void setAlgorithm(AlgorithmEnum<P, M> algorithm) {
+        puzzle.setAlgorithm(algorithm);
+    }
+
+    @Override
+    public AlgorithmEnum getAlgorithm() {
+        return puzzle.getAlgorithm();
+    }
+
+    @Override
+    public void startSolving() {
+        puzzle.startSolving();
+    }
+
+    @Override
+    public void stopSolving() {
+        puzzle.stopSolving();
+    }
+
+    @Override
+    public void refresh(P pos, long numTries) {
+        puzzle.refresh(pos, numTries);
+    }
+
+    @Override
+    public void finalRefresh(List<M> path, P position, long numTries, long elapsedMillis) {
+        puzzle.finalRefresh(path, position, numTries, elapsedMillis);
+    }
+}
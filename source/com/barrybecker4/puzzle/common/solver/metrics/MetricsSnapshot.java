@@ -0,0 +1,92 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.metrics;
+
+/**
+ * Immutable copy of the solver metrics at one point in time.
+ *
+ * @author Barry Becker
+ */
+public class MetricsSnapshot {
+
+    private final long nodesGenerated;
+    private final long nodesExpanded;
+    private final long duplicatesRejected;
+    private final long frontierSize;
+    private final long peakFrontierSize;
+    private final int currentDepth;
+    private final long elapsedMillis;
+    private final long legalMovesMillis;
+    private final long moveMillis;
+    private final long distanceFromGoalMillis;
+
+    MetricsSnapshot(SolverMetrics metrics) {
+        nodesGenerated = metrics.getNodesGenerated();
+        nodesExpanded = metrics.getNodesExpanded();
+        duplicatesRejected = metrics.getDuplicatesRejected();
+        frontierSize = metrics.getFrontierSize();
+        peakFrontierSize = metrics.getPeakFrontierSize();
+        currentDepth = metrics.getCurrentDepth();
+        elapsedMillis = metrics.getElapsedMillis();
+        legalMovesMillis = metrics.getLegalMovesMillis();
+        moveMillis = metrics.getMoveMillis();
+        distanceFromGoalMillis = metrics.getDistanceFromGoalMillis();
+    }
+
+    public long getNodesGenerated() {
+        return nodesGenerated;
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public long getDuplicatesRejected() {
+        return duplicatesRejected;
+    }
+
+    public double getDuplicateRate() {
+        return SolverMetrics.rate(duplicatesRejected, nodesGenerated);
+    }
+
+    public long getFrontierSize() {
+        return frontierSize;
+    }
+
+    public long getPeakFrontierSize() {
+        return peakFrontierSize;
+    }
+
+    public int getCurrentDepth() {
+        return currentDepth;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getExpansionsPerSecond() {
+        return SolverMetrics.rate(1000L * nodesExpanded, elapsedMillis);
+    }
+
+    public long getLegalMovesMillis() {
+        return legalMovesMillis;
+    }
+
+    public long getMoveMillis() {
+        return moveMillis;
+    }
+
+    public long getDistanceFromGoalMillis() {
+        return distanceFromGoalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "expanded=" + nodesExpanded + " generated=" + nodesGenerated
+                + " duplicates=" + duplicatesRejected + " peakFrontier=" + peakFrontierSize
+                + " depth=" + currentDepth + " elapsed=" + elapsedMillis + "ms"
+                + " expansions/sec=" + (long) getExpansionsPerSecond()
+                + " legalMoves=" + legalMovesMillis + "ms move=" + moveMillis + "ms"
+                + " distanceFromGoal=" + distanceFromGoalMillis + "ms";
+    }
+}
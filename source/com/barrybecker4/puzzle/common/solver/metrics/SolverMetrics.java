@@ -0,0 +1,237 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics about the health of a running solver.
+ * Updated from the solver threads, so every update is cheap and none of them lock.
+ * Node counts and timings are gathered by MeteredPuzzleController, which solvers wrap around the puzzle.
+ * Solvers report the frontier size and depth themselves since only they know them.
+ * Read them with snapshot(), or through JMX after calling registerMBean.
+ *
+ * @author Barry Becker
+ */
+public class SolverMetrics implements SolverMetricsMBean {
+
+    private static final String DOMAIN = "com.barrybecker4.puzzle";
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final StripedCounter nodesGenerated = new StripedCounter();
+    private final StripedCounter nodesExpanded = new StripedCounter();
+    private final StripedCounter duplicatesRejected = new StripedCounter();
+    private final StripedCounter legalMovesNanos = new StripedCounter();
+    private final StripedCounter moveNanos = new StripedCounter();
+    private final StripedCounter distanceFromGoalNanos = new StripedCounter();
+
+    private final AtomicLong peakFrontierSize = new AtomicLong();
+    private volatile long frontierSize;
+    private volatile int currentDepth;
+
+    private volatile long startNanos = System.nanoTime();
+    /** zero while the solve is running. */
+    private volatile long stopNanos;
+
+    private ObjectName objectName;
+
+    /**
+     * Clear everything and start the clock. Called when a solve begins.
+     */
+    public void start() {
+        nodesGenerated.reset();
+        nodesExpanded.reset();
+        duplicatesRejected.reset();
+        legalMovesNanos.reset();
+        moveNanos.reset();
+        distanceFromGoalNanos.reset();
+        peakFrontierSize.set(0);
+        frontierSize = 0;
+        currentDepth = 0;
+        stopNanos = 0;
+        startNanos = System.nanoTime();
+    }
+
+    /** Stop the clock. Called when a solve ends. */
+    public void stop() {
+        stopNanos = System.nanoTime();
+    }
+
+    public void nodeGenerated() {
+        nodesGenerated.increment();
+    }
+
+    public void nodeExpanded() {
+        nodesExpanded.increment();
+    }
+
+    public void duplicateRejected() {
+        duplicatesRejected.increment();
+    }
+
+    /**
+     * @param count number of nodes generated elsewhere, for solvers that collect counts from remote workers.
+     */
+    public void nodesGenerated(long count) {
+        nodesGenerated.add(count);
+    }
+
+    /**
+     * @param count number of nodes expanded elsewhere, for solvers that collect counts from remote workers.
+     */
+    public void nodesExpanded(long count) {
+        nodesExpanded.add(count);
+    }
+
+    /**
+     * @param count number of duplicates rejected at once, for solvers that remove them in batches.
+     */
+    public void duplicatesRejected(long count) {
+        duplicatesRejected.add(count);
+    }
+
+    /**
+     * @param size current number of nodes waiting to be expanded.
+     */
+    public void frontierSize(long size) {
+        frontierSize = size;
+        long peak = peakFrontierSize.get();
+        while (size > peak && !peakFrontierSize.compareAndSet(peak, size)) {
+            peak = peakFrontierSize.get();
+        }
+    }
+
+    /**
+     * @param depth depth of the position being expanded.
+     */
+    public void depth(int depth) {
+        currentDepth = depth;
+    }
+
+    void addLegalMovesNanos(long nanos) {
+        legalMovesNanos.add(nanos);
+    }
+
+    void addMoveNanos(long nanos) {
+        moveNanos.add(nanos);
+    }
+
+    void addDistanceFromGoalNanos(long nanos) {
+        distanceFromGoalNanos.add(nanos);
+    }
+
+    /**
+     * @return a copy of the current values that will not change as the solver runs.
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(this);
+    }
+
+    @Override
+    public long getNodesGenerated() {
+        return nodesGenerated.sum();
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded.sum();
+    }
+
+    @Override
+    public long getDuplicatesRejected() {
+        return duplicatesRejected.sum();
+    }
+
+    @Override
+    public double getDuplicateRate() {
+        return rate(getDuplicatesRejected(), getNodesGenerated());
+    }
+
+    @Override
+    public long getFrontierSize() {
+        return frontierSize;
+    }
+
+    @Override
+    public long getPeakFrontierSize() {
+        return peakFrontierSize.get();
+    }
+
+    @Override
+    public int getCurrentDepth() {
+        return currentDepth;
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        long stop = stopNanos;
+        return ((stop == 0 ? System.nanoTime() : stop) - startNanos) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getExpansionsPerSecond() {
+        return rate(1000L * getNodesExpanded(), getElapsedMillis());
+    }
+
+    @Override
+    public long getLegalMovesMillis() {
+        return legalMovesNanos.sum() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getMoveMillis() {
+        return moveNanos.sum() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getDistanceFromGoalMillis() {
+        return distanceFromGoalNanos.sum() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Make these metrics visible to JMX clients under the specified name,
+     * replacing any metrics that were already registered with that name.
+     * @param name identifies the solver, for example the puzzle and algorithm being used.
+     */
+    public synchronized void registerMBean(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName newName = new ObjectName(DOMAIN + ":type=SolverMetrics,name=" + ObjectName.quote(name));
+            if (server.isRegistered(newName)) {
+                server.unregisterMBean(newName);
+            }
+            server.registerMBean(this, newName);
+            objectName = newName;
+        } catch (JMException | SecurityException e) {
+            System.out.println("Could not register solver metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    /** Remove these metrics from JMX if they were registered. */
+    public synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException | SecurityException e) {
+            System.out.println("Could not unregister solver metrics from JMX: " + e.getMessage());
+        }
+        objectName = null;
+    }
+
+    static double rate(long numerator, long denominator) {
+        return (denominator == 0) ? 0 : (double) numerator / denominator;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
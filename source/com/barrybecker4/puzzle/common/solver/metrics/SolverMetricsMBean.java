@@ -0,0 +1,43 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.metrics;
+
+/**
+ * Management interface so that solver health can be watched with JMX tools like jconsole.
+ * All the values are for the solve in progress, or the last one if none is running.
+ *
+ * @author Barry Becker
+ */
+public interface SolverMetricsMBean {
+
+    /** @return number of positions produced by applying moves. */
+    long getNodesGenerated();
+
+    /** @return number of positions whose moves have been generated. */
+    long getNodesExpanded();
+
+    /** @return number of generated positions thrown away because they were already seen, or reached more cheaply. */
+    long getDuplicatesRejected();
+
+    /** @return fraction of generated positions that were duplicates. */
+    double getDuplicateRate();
+
+    long getFrontierSize();
+
+    long getPeakFrontierSize();
+
+    /** @return depth of the most recently expanded position. */
+    int getCurrentDepth();
+
+    long getElapsedMillis();
+
+    double getExpansionsPerSecond();
+
+    /** @return estimated time spent generating legal moves. */
+    long getLegalMovesMillis();
+
+    /** @return estimated time spent applying moves. */
+    long getMoveMillis();
+
+    /** @return estimated time spent estimating the distance to the goal. */
+    long getDistanceFromGoalMillis();
+}
@@ -0,0 +1,60 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that many threads can increment at once without contending on a single memory location.
+ * Each thread adds to one of several cells, chosen by thread id, and reading the count sums the cells.
+ * The cells are spaced a cache line apart so that threads updating neighboring cells do not slow each other.
+ * Reads are not atomic with respect to concurrent updates, which is fine for statistics.
+ *
+ * @author Barry Becker
+ */
+public class StripedCounter {
+
+    /** number of longs in a 64 byte cache line. */
+    private static final int PAD = 8;
+
+    private final int mask;
+    private final AtomicLongArray cells;
+
+    /**
+     * Uses enough cells for twice the number of processors.
+     */
+    public StripedCounter() {
+        int numCells = Integer.highestOneBit(Math.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        mask = numCells - 1;
+        cells = new AtomicLongArray(numCells * PAD);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long amount) {
+        cells.getAndAdd(cellIndex(), amount);
+    }
+
+    /**
+     * @return the total of all the amounts added since the last reset.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += PAD) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    public void reset() {
+        for (int i = 0; i < cells.length(); i += PAD) {
+            cells.set(i, 0);
+        }
+    }
+
+    /** thread ids are usually assigned sequentially, so the low bits spread threads across cells. */
+    private int cellIndex() {
+        return ((int) Thread.currentThread().getId() & mask) * PAD;
+    }
+}
@@ -0,0 +1,89 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.queue;
+
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Open list that files nodes into one bucket per estimated cost.
+ * Adding a node and removing the best one are O(1) (amortized), but this only makes sense
+ * when the estimated costs are small non-negative integers, which is the case for all the
+ * puzzle controllers so far.
+ * When a cheaper node for a queued position is added, the old one is left in its bucket and
+ * dropped lazily when it comes to the front.
+ * Within a bucket, the most recently added node is returned first, which tends to favor
+ * deeper nodes when there are ties.
+ *
+ * @author Barry Becker
+ */
+public class BucketOpenList<P, M> implements OpenList<P, M> {
+
+    /** nodes indexed by estimated cost. */
+    private final List<Deque<PuzzleNode<P, M>>> buckets = new ArrayList<>();
+
+    /** the current (not stale) node for each queued position. */
+    private final Map<P, PuzzleNode<P, M>> live = new HashMap<>();
+
+    /** no non-empty bucket has a lower index than this. */
+    private int minBucket = 0;
+
+    @Override
+    public void add(PuzzleNode<P, M> node) {
+        int cost = node.getEstimatedFutureCost();
+        if (cost < 0) {
+            throw new IllegalArgumentException("Estimated costs must not be negative. Was " + cost);
+        }
+        PuzzleNode<P, M> existing = live.get(node.getPosition());
+        if (existing != null && existing.getEstimatedFutureCost() <= cost) {
+            return;
+        }
+        live.put(node.getPosition(), node);
+        while (buckets.size() <= cost) {
+            buckets.add(new ArrayDeque<PuzzleNode<P, M>>());
+        }
+        buckets.get(cost).push(node);
+        minBucket = Math.min(minBucket, cost);
+    }
+
+    @Override
+    public PuzzleNode<P, M> removeBest() {
+        if (live.isEmpty()) {
+            return null;
+        }
+        for (; minBucket < buckets.size(); minBucket++) {
+            Deque<PuzzleNode<P, M>> bucket = buckets.get(minBucket);
+            while (!bucket.isEmpty()) {
+                PuzzleNode<P, M> node = bucket.pop();
+                if (live.get(node.getPosition()) == node) {
+                    live.remove(node.getPosition());
+                    return node;
+                }
+                // otherwise it was superseded by a cheaper node, so just drop it
+            }
+        }
+        throw new IllegalStateException("There are " + live.size() + " live nodes, but all buckets are empty");
+    }
+
+    @Override
+    public int size() {
+        return live.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return live.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        buckets.clear();
+        live.clear();
+        minBucket = 0;
+    }
+}
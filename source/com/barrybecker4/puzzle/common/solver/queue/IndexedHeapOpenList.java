@@ -0,0 +1,109 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.queue;
+
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary heap open list that keeps an index from position to heap slot.
+ * Finding a queued position is O(1) and inserts, removals and decrease-key are O(log n).
+ * Use this when estimated costs are spread over a wide range.
+ *
+ * @author Barry Becker
+ */
+public class IndexedHeapOpenList<P, M> implements OpenList<P, M> {
+
+    private final List<PuzzleNode<P, M>> heap = new ArrayList<>();
+
+    /** slot in the heap for each queued position. */
+    private final Map<P, Integer> index = new HashMap<>();
+
+    @Override
+    public void add(PuzzleNode<P, M> node) {
+        Integer slot = index.get(node.getPosition());
+        if (slot == null) {
+            heap.add(node);
+            siftUp(heap.size() - 1);
+        }
+        else if (node.compareTo(heap.get(slot)) < 0) {
+            // decrease key
+            heap.set(slot, node);
+            siftUp(slot);
+        }
+    }
+
+    @Override
+    public PuzzleNode<P, M> removeBest() {
+        if (heap.isEmpty()) {
+            return null;
+        }
+        PuzzleNode<P, M> best = heap.get(0);
+        index.remove(best.getPosition());
+
+        PuzzleNode<P, M> last = heap.remove(heap.size() - 1);
+        if (!heap.isEmpty()) {
+            heap.set(0, last);
+            siftDown(0);
+        }
+        return best;
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+        index.clear();
+    }
+
+    private void siftUp(int slot) {
+        PuzzleNode<P, M> node = heap.get(slot);
+        while (slot > 0) {
+            int parent = (slot - 1) >> 1;
+            PuzzleNode<P, M> parentNode = heap.get(parent);
+            if (node.compareTo(parentNode) >= 0) {
+                break;
+            }
+            place(parentNode, slot);
+            slot = parent;
+        }
+        place(node, slot);
+    }
+
+    private void siftDown(int slot) {
+        PuzzleNode<P, M> node = heap.get(slot);
+        int size = heap.size();
+        int half = size >> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && heap.get(right).compareTo(heap.get(child)) < 0) {
+                child = right;
+            }
+            PuzzleNode<P, M> childNode = heap.get(child);
+            if (node.compareTo(childNode) <= 0) {
+                break;
+            }
+            place(childNode, slot);
+            slot = child;
+        }
+        place(node, slot);
+    }
+
+    private void place(PuzzleNode<P, M> node, int slot) {
+        heap.set(slot, node);
+        index.put(node.getPosition(), slot);
+    }
+}
@@ -0,0 +1,86 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.queue;
+
+import java.util.Arrays;
+
+/**
+ * Priority queue of int values, like node indices, with small non-negative integer priorities.
+ * Like BucketOpenList, there is one bucket per priority, and the most recently added value
+ * comes out first when there are ties. Each bucket is a growable int array, so nothing is boxed.
+ * Values are not keyed, so the same value may be queued more than once. The caller has to drop
+ * the ones that are out of date when they come out. Not thread safe.
+ *
+ * @author Barry Becker
+ */
+public class IntBucketQueue {
+
+    private static final int INITIAL_BUCKET_SIZE = 16;
+
+    /** values indexed by priority. Each one is used as a stack. */
+    private int[][] buckets = new int[0][];
+    private int[] bucketSizes = new int[0];
+
+    /** no non-empty bucket has a lower index than this. */
+    private int minBucket = 0;
+    private int size = 0;
+
+    /**
+     * @param value the value to add.
+     * @param priority lower comes out first. Must not be negative.
+     */
+    public void add(int value, int priority) {
+        if (priority < 0) {
+            throw new IllegalArgumentException("Priorities must not be negative. Was " + priority);
+        }
+        if (priority >= buckets.length) {
+            int numBuckets = Math.max(priority + 1, buckets.length << 1);
+            buckets = Arrays.copyOf(buckets, numBuckets);
+            bucketSizes = Arrays.copyOf(bucketSizes, numBuckets);
+        }
+        int[] bucket = buckets[priority];
+        int bucketSize = bucketSizes[priority];
+        if (bucket == null) {
+            bucket = new int[INITIAL_BUCKET_SIZE];
+            buckets[priority] = bucket;
+        }
+        else if (bucketSize == bucket.length) {
+            bucket = Arrays.copyOf(bucket, bucket.length << 1);
+            buckets[priority] = bucket;
+        }
+        bucket[bucketSize] = value;
+        bucketSizes[priority] = bucketSize + 1;
+        minBucket = Math.min(minBucket, priority);
+        size++;
+    }
+
+    /**
+     * @return the value with the lowest priority after removing it.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public int removeBest() {
+        if (size == 0) {
+            throw new IllegalStateException("The queue is empty");
+        }
+        while (bucketSizes[minBucket] == 0) {
+            minBucket++;
+        }
+        int bucketSize = --bucketSizes[minBucket];
+        size--;
+        return buckets[minBucket][bucketSize];
+    }
+
+    /** @return number of values queued, including any out of date ones. */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(bucketSizes, 0);
+        minBucket = 0;
+        size = 0;
+    }
+}
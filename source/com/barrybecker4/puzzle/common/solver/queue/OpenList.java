@@ -0,0 +1,37 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.queue;
+
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+
+/**
+ * The open list (frontier) of a best first search like A*.
+ * Nodes are keyed by their position, so adding a cheaper path to a position that is
+ * already queued replaces the old entry instead of having to find and remove it.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public interface OpenList<P, M> {
+
+    /**
+     * Add the node to the frontier.
+     * If a node for the same position is already queued, keep whichever has the lower estimated cost.
+     * @param node the node to add.
+     */
+    void add(PuzzleNode<P, M> node);
+
+    /**
+     * @return the node with the lowest estimated cost after removing it. Null if the list is empty.
+     */
+    PuzzleNode<P, M> removeBest();
+
+    /**
+     * @return number of distinct positions on the list.
+     */
+    int size();
+
+    boolean isEmpty();
+
+    void clear();
+}
@@ -0,0 +1,82 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+
+/**
+ * Visited set that many solver threads may share, which stores each position as the long that
+ * the puzzle encodes it to. The codes are split among many stripes, each with its own lock,
+ * so two threads only contend if their positions hash to the same stripe.
+ * Only use with puzzles that can encode their positions.
+ *
+ * @author Barry Becker
+ */
+public class ConcurrentEncodedVisitedSet<P> implements VisitedSet<P> {
+
+    /**
+     * More than ConcurrentVisitedSet uses, because here lookups lock too, and a stripe stays locked
+     * while its table doubles and every code is copied. Smaller stripes make those pauses shorter.
+     * An empty stripe costs a 16KB table, so 16 per processor is still only a few MB.
+     */
+    private static final int STRIPES_PER_PROCESSOR = 16;
+
+    private final PuzzleController<P, ?> puzzle;
+    private final LongHashSet[] stripes;
+    private final int stripeMask;
+
+    /**
+     * @param puzzle used to encode positions. Its canEncode method must return true.
+     */
+    public ConcurrentEncodedVisitedSet(PuzzleController<P, ?> puzzle) {
+        this.puzzle = puzzle;
+        int numStripes = Integer.highestOneBit(STRIPES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+        stripes = new LongHashSet[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            stripes[i] = new LongHashSet();
+        }
+        stripeMask = numStripes - 1;
+    }
+
+    @Override
+    public boolean addIfAbsent(P position) {
+        long code = puzzle.encode(position);
+        LongHashSet stripe = stripeFor(code);
+        synchronized (stripe) {
+            return stripe.add(code);
+        }
+    }
+
+    @Override
+    public boolean contains(P position) {
+        long code = puzzle.encode(position);
+        LongHashSet stripe = stripeFor(code);
+        synchronized (stripe) {
+            return stripe.contains(code);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (LongHashSet stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (LongHashSet stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /** Use the high bits of the mixed code, so they are independent of the slot within the stripe. */
+    private LongHashSet stripeFor(long code) {
+        return stripes[(int) (LongHashSet.mix(code) >>> 32) & stripeMask];
+    }
+}
@@ -0,0 +1,52 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Visited set that may be shared by many solver threads without any global lock.
+ * Backed by a ConcurrentHashMap, so lookups never block and inserts only contend
+ * with other inserts that hash to the same stripe.
+ *
+ * @author Barry Becker
+ */
+public class ConcurrentVisitedSet<P> implements VisitedSet<P> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * Lookups in a ConcurrentHashMap take no lock, and an insert locks only briefly, so contention is rare
+     * with a few stripes per thread. On java 7 each stripe is a segment with its own lock and table,
+     * so more would only cost memory.
+     */
+    private static final int STRIPES_PER_PROCESSOR = 4;
+
+    private final ConcurrentMap<P, Boolean> positions;
+
+    public ConcurrentVisitedSet() {
+        int concurrencyLevel = STRIPES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors();
+        positions = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+    }
+
+    @Override
+    public boolean addIfAbsent(P position) {
+        return positions.putIfAbsent(position, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public boolean contains(P position) {
+        return positions.containsKey(position);
+    }
+
+    @Override
+    public int size() {
+        return positions.size();
+    }
+
+    @Override
+    public void clear() {
+        positions.clear();
+    }
+}
@@ -0,0 +1,44 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+
+/**
+ * Visited set for single threaded solvers that stores each position as the long that
+ * the puzzle encodes it to, rather than as an object. Not thread safe.
+ * Only use with puzzles that can encode their positions.
+ *
+ * @author Barry Becker
+ */
+public class EncodedVisitedSet<P> implements VisitedSet<P> {
+
+    private final PuzzleController<P, ?> puzzle;
+    private final LongHashSet codes = new LongHashSet();
+
+    /**
+     * @param puzzle used to encode positions. Its canEncode method must return true.
+     */
+    public EncodedVisitedSet(PuzzleController<P, ?> puzzle) {
+        this.puzzle = puzzle;
+    }
+
+    @Override
+    public boolean addIfAbsent(P position) {
+        return codes.add(puzzle.encode(position));
+    }
+
+    @Override
+    public boolean contains(P position) {
+        return codes.contains(puzzle.encode(position));
+    }
+
+    @Override
+    public int size() {
+        return codes.size();
+    }
+
+    @Override
+    public void clear() {
+        codes.clear();
+    }
+}
@@ -0,0 +1,35 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Visited set for solvers that search in a single thread. Not thread safe.
+ *
+ * @author Barry Becker
+ */
+public class HashVisitedSet<P> implements VisitedSet<P> {
+
+    private final Set<P> positions = new HashSet<>();
+
+    @Override
+    public boolean addIfAbsent(P position) {
+        return positions.add(position);
+    }
+
+    @Override
+    public boolean contains(P position) {
+        return positions.contains(position);
+    }
+
+    @Override
+    public int size() {
+        return positions.size();
+    }
+
+    @Override
+    public void clear() {
+        positions.clear();
+    }
+}
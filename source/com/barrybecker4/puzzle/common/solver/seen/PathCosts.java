@@ -0,0 +1,69 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+import com.barrybecker4.puzzle.common.PuzzleController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The cheapest known path cost (g score) to each position that a best first search has reached.
+ * If the puzzle can encode its positions as longs, the costs are kept in a primitive table,
+ * otherwise in a HashMap keyed by position. Not thread safe.
+ *
+ * @author Barry Becker
+ */
+public class PathCosts<P> {
+
+    /** returned for positions that have not been reached yet. Larger than any real cost. */
+    public static final int UNKNOWN = Integer.MAX_VALUE;
+
+    private final PuzzleController<P, ?> puzzle;
+    private final LongIntHashMap encodedCosts;
+    private final Map<P, Integer> costs;
+
+    /**
+     * @param puzzle the puzzle whose positions will be looked up.
+     */
+    public PathCosts(PuzzleController<P, ?> puzzle) {
+        this.puzzle = puzzle;
+        if (puzzle.canEncode()) {
+            encodedCosts = new LongIntHashMap();
+            costs = null;
+        } else {
+            encodedCosts = null;
+            costs = new HashMap<>();
+        }
+    }
+
+    /**
+     * @return the cost of the cheapest path found to the position so far, or UNKNOWN if not reached yet.
+     */
+    public int get(P position) {
+        if (encodedCosts != null) {
+            return encodedCosts.get(puzzle.encode(position), UNKNOWN);
+        }
+        Integer cost = costs.get(position);
+        return (cost == null) ? UNKNOWN : cost;
+    }
+
+    public void put(P position, int cost) {
+        if (encodedCosts != null) {
+            encodedCosts.put(puzzle.encode(position), cost);
+        } else {
+            costs.put(position, cost);
+        }
+    }
+
+    public int size() {
+        return (encodedCosts != null) ? encodedCosts.size() : costs.size();
+    }
+
+    public void clear() {
+        if (encodedCosts != null) {
+            encodedCosts.clear();
+        } else {
+            costs.clear();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+/**
+ * The set of positions that a solver has already visited, so that it does not search them again.
+ * Concurrent solvers share one instance between all their threads, so implementations used by
+ * them must make addIfAbsent atomic.
+ * P is the Puzzle type
+ *
+ * @author Barry Becker
+ */
+public interface VisitedSet<P> {
+
+    /**
+     * Add the position if it is not already in the set.
+     * @param position the position to add
+     * @return true if the position was added. False if it was already there.
+     */
+    boolean addIfAbsent(P position);
+
+    /**
+     * @return true if the position has been visited.
+     */
+    boolean contains(P position);
+
+    /**
+     * @return number of visited positions.
+     */
+    int size();
+
+    void clear();
+}
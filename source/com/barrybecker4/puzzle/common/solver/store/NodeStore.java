@@ -0,0 +1,132 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.store;
+
+import java.util.Arrays;
+
+/**
+ * Holds the nodes of a search in parallel primitive arrays instead of one object per node.
+ * A node is just an index into the arrays. For each one, the store keeps the encoded position,
+ * the index of its parent, the cost of the path to it, its depth, and which of its parent's
+ * legal moves led to it. That is 21 bytes a node, and nothing for the garbage collector to trace,
+ * where a PuzzleNode with its position and move takes a hundred bytes or more.
+ * Nodes are only ever added, so the index of a node never changes until the store is cleared.
+ * Not thread safe.
+ *
+ * @author Barry Becker
+ */
+public class NodeStore {
+
+    /** the parent of the root node. */
+    public static final int NO_PARENT = -1;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /** the move index is kept in a byte, treated as unsigned. */
+    private static final int MAX_MOVES = 256;
+
+    private long[] codes;
+    private int[] parents;
+    private int[] pathCosts;
+    private int[] depths;
+    private byte[] moveIndices;
+    private int size;
+
+    public NodeStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of nodes to make room for before needing to grow.
+     */
+    public NodeStore(int expectedSize) {
+        allocate(Math.max(1, expectedSize));
+    }
+
+    /**
+     * Add the node for the initial position.
+     * @return its index.
+     */
+    public int addRoot(long code) {
+        return add(code, NO_PARENT, 0, 0);
+    }
+
+    /**
+     * @param code the encoded position.
+     * @param parent index of the node that this one was reached from.
+     * @param pathCost cost of the path from the root to this node.
+     * @param moveIndex index of the move, in the list of legal moves of the parent, that led here.
+     * @return index of the new node.
+     */
+    public int add(long code, int parent, int pathCost, int moveIndex) {
+        if (moveIndex < 0 || moveIndex >= MAX_MOVES) {
+            throw new IllegalArgumentException("Move index must be between 0 and " + (MAX_MOVES - 1)
+                    + ". Was " + moveIndex);
+        }
+        if (size == codes.length) {
+            grow();
+        }
+        int index = size++;
+        codes[index] = code;
+        parents[index] = parent;
+        pathCosts[index] = pathCost;
+        depths[index] = (parent == NO_PARENT) ? 0 : depths[parent] + 1;
+        moveIndices[index] = (byte) moveIndex;
+        return index;
+    }
+
+    public long getCode(int index) {
+        return codes[index];
+    }
+
+    /** @return index of the parent node, or NO_PARENT for the root. */
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+    public int getPathCost(int index) {
+        return pathCosts[index];
+    }
+
+    /** @return number of moves from the root to this node. */
+    public int getDepth(int index) {
+        return depths[index];
+    }
+
+    /** @return index of the move, in the legal moves of the parent, that led to this node. */
+    public int getMoveIndex(int index) {
+        return moveIndices[index] & 0xFF;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Forget all the nodes, but keep the arrays for reuse. */
+    public void clear() {
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = codes.length << 1;
+        if (capacity < 0) {
+            throw new IllegalStateException("NodeStore cannot hold more than " + size + " nodes");
+        }
+        codes = Arrays.copyOf(codes, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        pathCosts = Arrays.copyOf(pathCosts, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        moveIndices = Arrays.copyOf(moveIndices, capacity);
+    }
+
+    private void allocate(int capacity) {
+        codes = new long[capacity];
+        parents = new int[capacity];
+        pathCosts = new int[capacity];
+        depths = new int[capacity];
+        moveIndices = new byte[capacity];
+    }
+}
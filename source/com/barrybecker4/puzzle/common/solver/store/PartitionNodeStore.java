@@ -0,0 +1,118 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.store;
+
+import java.util.Arrays;
+
+/**
+ * Like NodeStore, but for a search whose nodes are spread over several processes.
+ * The parent of a node may be kept by another process, so it is referred to by its encoded position
+ * instead of by index. The estimated distance to the goal is kept too, since the node may arrive
+ * from elsewhere and the parent is not at hand to find it incrementally.
+ * That is 25 bytes a node. Nodes are only ever added. Not thread safe.
+ *
+ * @author Barry Becker
+ */
+public class PartitionNodeStore {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /** the move index is kept in a byte, treated as unsigned. */
+    private static final int MAX_MOVES = 256;
+
+    private long[] codes;
+    private long[] parentCodes;
+    private int[] pathCosts;
+    private int[] distances;
+    private byte[] moveIndices;
+    private int size;
+
+    public PartitionNodeStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of nodes to make room for before needing to grow.
+     */
+    public PartitionNodeStore(int expectedSize) {
+        allocate(Math.max(1, expectedSize));
+    }
+
+    /**
+     * @param code the encoded position.
+     * @param parentCode the encoded position this one was reached from. For the root, its own code.
+     * @param pathCost cost of the path from the root to this node.
+     * @param distance estimated cost from this node to the goal.
+     * @param moveIndex index of the move, in the list of legal moves of the parent, that led here.
+     * @return index of the new node.
+     */
+    public int add(long code, long parentCode, int pathCost, int distance, int moveIndex) {
+        if (moveIndex < 0 || moveIndex >= MAX_MOVES) {
+            throw new IllegalArgumentException("Move index must be between 0 and " + (MAX_MOVES - 1)
+                    + ". Was " + moveIndex);
+        }
+        if (size == codes.length) {
+            grow();
+        }
+        int index = size++;
+        codes[index] = code;
+        parentCodes[index] = parentCode;
+        pathCosts[index] = pathCost;
+        distances[index] = distance;
+        moveIndices[index] = (byte) moveIndex;
+        return index;
+    }
+
+    public long getCode(int index) {
+        return codes[index];
+    }
+
+    public long getParentCode(int index) {
+        return parentCodes[index];
+    }
+
+    public int getPathCost(int index) {
+        return pathCosts[index];
+    }
+
+    public int getDistance(int index) {
+        return distances[index];
+    }
+
+    /** @return index of the move, in the legal moves of the parent, that led to this node. */
+    public int getMoveIndex(int index) {
+        return moveIndices[index] & 0xFF;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Forget all the nodes, but keep the arrays for reuse. */
+    public void clear() {
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = codes.length << 1;
+        if (capacity < 0) {
+            throw new IllegalStateException("PartitionNodeStore cannot hold more than " + size + " nodes");
+        }
+        codes = Arrays.copyOf(codes, capacity);
+        parentCodes = Arrays.copyOf(parentCodes, capacity);
+        pathCosts = Arrays.copyOf(pathCosts, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        moveIndices = Arrays.copyOf(moveIndices, capacity);
+    }
+
+    private void allocate(int capacity) {
+        codes = new long[capacity];
+        parentCodes = new long[capacity];
+        pathCosts = new int[capacity];
+        distances = new int[capacity];
+        moveIndices = new byte[capacity];
+    }
+}
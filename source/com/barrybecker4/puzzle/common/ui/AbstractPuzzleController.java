@@ -3,12 +3,14 @@ package com.barrybecker4.puzzle.common.ui;
 
 import com.barrybecker4.common.concurrency.Worker;
 import com.barrybecker4.puzzle.common.AlgorithmEnum;
+import com.barrybecker4.puzzle.common.MoveSink;
 import com.barrybecker4.puzzle.common.PuzzleController;
 import com.barrybecker4.puzzle.common.Refreshable;
 import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.common.solver.seen.VisitedSet;
 
 import java.util.List;
-import java.util.Set;
 
 /**
  * Provides default implementation for a PuzzleController.
@@ -23,15 +25,31 @@ public abstract class AbstractPuzzleController<P, M> implements PuzzleController
     /** the viewer that can show the current state. */
     protected final Refreshable<P, M> ui_;
 
+    /** samples the positions being searched and passes them to the ui. Null if no ui, or not sampled. */
+    private final ProgressPublisher<P, M> publisher_;
+
     /** default solver. */
     protected AlgorithmEnum<P, M> algorithm_;
 
+    /** the limits and worker thread for the solve in progress, so it can be stopped. */
+    private volatile SolveLimits limits_;
+    private volatile Worker worker_;
 
     /**
      * Creates a new instance of AbstractPuzzleController
      */
     public AbstractPuzzleController(Refreshable<P, M> ui) {
         ui_ = ui;
+        publisher_ = (ui != null && isRefreshSampled()) ? new ProgressPublisher<>(ui) : null;
+    }
+
+    /**
+     * Override this to return false if the ui needs to see every position, for example to animate the search.
+     * Then refresh calls go straight to the ui on the solver's thread, slowing the search down.
+     * @return true by default, so that showing progress does not slow down the search.
+     */
+    protected boolean isRefreshSampled() {
+        return true;
     }
 
     /**
@@ -53,18 +71,32 @@ public abstract class AbstractPuzzleController<P, M> implements PuzzleController
     }
 
     /**
-     * If this puzzle position was never seen before add it.
-     * Must be synchronized because some solvers use concurrency.
+     * If this puzzle position, or one symmetric to it, was never seen before add it.
+     * Not synchronized. Concurrent solvers pass a thread safe set, whose addIfAbsent is atomic.
      * @return true if this position was already seen while searching.
      */
     @Override
-    public synchronized boolean alreadySeen(P position, Set<P> seen) {
+    public boolean alreadySeen(P position, VisitedSet<P> seen) {
+        return !seen.addIfAbsent(canonicalize(position));
+    }
 
-        if (!seen.contains(position)) {
-            seen.add(position);
-            return false;
+    /**
+     * Override this to generate the moves without building a list, and without creating new moves if possible.
+     * By default, passes on each move of legalMoves.
+     */
+    @Override
+    public void forEachMove(P position, MoveSink<M> sink) {
+        for (M move : legalMoves(position)) {
+            sink.accept(move);
         }
-        return true;
+    }
+
+    /**
+     * Override this if the puzzle has symmetries that the search can take advantage of.
+     * @return the position itself by default.
+     */
+    public P canonicalize(P position) {
+        return position;
     }
 
     /**
@@ -77,6 +109,15 @@ public abstract class AbstractPuzzleController<P, M> implements PuzzleController
         return 1;
     }
 
+    /**
+     * Override this if the estimate for a child can be found from the parent's more cheaply than from scratch.
+     * @return estimate of the cost to reach the goal from the child, by default computed from the child alone.
+     */
+    @Override
+    public int distanceFromGoal(P parent, M move, int parentDistance, P child) {
+        return distanceFromGoal(child);
+    }
+
     /**
      * Override this when moves have varying cost (rare - see bridge problem for example).
      * @param move the move to determine cost of
@@ -86,9 +127,52 @@ public abstract class AbstractPuzzleController<P, M> implements PuzzleController
         return 1;
     }
 
-    /** Called when the puzzle solver wants to show progress to the user somehow */
+    /**
+     * Override this, along with encode and decode, if positions can be packed into a long.
+     * @return false by default
+     */
+    public boolean canEncode() {
+        return false;
+    }
+
+    public long encode(P position) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot encode positions");
+    }
+
+    public P decode(long code) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot decode positions");
+    }
+
+    /**
+     * Override this, along with goalPositions, predecessorMoves and unmove,
+     * if the puzzle can be searched backwards from its goal.
+     * @return false by default
+     */
+    public boolean isReversible() {
+        return false;
+    }
+
+    public List<P> goalPositions() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is not reversible");
+    }
+
+    public List<M> predecessorMoves(P position) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is not reversible");
+    }
+
+    public P unmove(P position, M move) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is not reversible");
+    }
+
+    /**
+     * Called when the puzzle solver wants to show progress to the user somehow.
+     * Called for every node searched, so it usually just hands the position to the publisher.
+     */
     public void refresh(P pos, long numTries) {
-        if (ui_ != null) {
+        if (publisher_ != null) {
+            publisher_.publish(pos, numTries);
+        }
+        else if (ui_ != null) {
             ui_.refresh(pos, numTries);
         }
     }
@@ -103,6 +187,9 @@ public abstract class AbstractPuzzleController<P, M> implements PuzzleController
             System.out.println("The number of steps in path to solution = " + path.size());
         }
 
+        if (publisher_ != null) {
+            publisher_.stop();
+        }
         if (ui_ != null) {
             ui_.finalRefresh(path, position, numTries, elapsedMillis);
         }
@@ -117,6 +204,9 @@ public abstract class AbstractPuzzleController<P, M> implements PuzzleController
 
         // Use either concurrent or sequential solver strategy
         final PuzzleSolver<M> solver = algorithm_.createSolver(this);
+        final SolveLimits limits = createSolveLimits();
+        // so the health of the solve can be watched with a JMX client like jconsole
+        solver.getMetrics().registerMBean(getClass().getSimpleName());
 
         Worker worker = new Worker()  {
 
@@ -125,14 +215,42 @@ public abstract class AbstractPuzzleController<P, M> implements PuzzleController
 
                 try {
                     // this does all the heavy work of solving it.
-                    solver.solve();
+                    solver.solve(limits);
                 } catch (InterruptedException e) {
-                    assert false: "Thread interrupted. " + e.getMessage();
+                    System.out.println("Solving was interrupted.");
                 }
                 return true;
             }
         };
 
+        limits_ = limits;
+        worker_ = worker;
+        if (publisher_ != null) {
+            publisher_.start();
+        }
         worker.start();
     }
+
+    /**
+     * Override this to put a time, node or memory limit on searches started by startSolving.
+     * @return no limits by default.
+     */
+    protected SolveLimits createSolveLimits() {
+        return new SolveLimits();
+    }
+
+    /**
+     * Cancel the limits so the solver stops cooperatively, and interrupt its thread in case it is blocked.
+     */
+    @Override
+    public void stopSolving() {
+        SolveLimits limits = limits_;
+        if (limits != null) {
+            limits.cancel();
+        }
+        Worker worker = worker_;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
 }
@@ -0,0 +1,113 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.ui;
+
+import com.barrybecker4.puzzle.common.Refreshable;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps showing the user progress from slowing down the search.
+ * Solvers publish every position they visit, but publishing only stores the latest one.
+ * A separate thread samples it at a fixed rate and passes it on to the ui.
+ * The stores are ordered (lazySet) rather than volatile, so the solver thread never waits on a memory fence.
+ * The sampling thread sees them a little later, which does not matter for a progress display.
+ * Positions published while stopped are never shown.
+ *
+ * @author Barry Becker
+ */
+public class ProgressPublisher<P, M> {
+
+    /** about 20 updates per second is enough to look animated. */
+    public static final long DEFAULT_PERIOD_MILLIS = 50;
+
+    private final Refreshable<P, M> ui;
+    private final long periodMillis;
+
+    private final AtomicReference<P> latestPosition = new AtomicReference<>();
+    private final AtomicLong latestNumTries = new AtomicLong();
+
+    /** only accessed by the sampling thread, or while it is stopped. */
+    private P lastShown;
+    private ScheduledExecutorService sampler;
+
+    /**
+     * @param ui where to show the sampled positions.
+     */
+    public ProgressPublisher(Refreshable<P, M> ui) {
+        this(ui, DEFAULT_PERIOD_MILLIS);
+    }
+
+    /**
+     * @param ui where to show the sampled positions.
+     * @param periodMillis time between samples.
+     */
+    public ProgressPublisher(Refreshable<P, M> ui, long periodMillis) {
+        this.ui = ui;
+        this.periodMillis = periodMillis;
+    }
+
+    /**
+     * Called by solvers for each position visited. Safe to call from many threads.
+     * @param position the latest position.
+     * @param numTries number of positions tried so far.
+     */
+    public void publish(P position, long numTries) {
+        latestNumTries.lazySet(numTries);
+        latestPosition.lazySet(position);
+    }
+
+    /**
+     * Start sampling. Called when a solve begins.
+     */
+    public synchronized void start() {
+        stop();
+        latestPosition.set(null);
+        lastShown = null;
+        sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "ProgressPublisher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        sampler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop sampling, then show the very last position published.
+     * Called when a solve ends, so that nothing gets shown after the final result.
+     */
+    public synchronized void stop() {
+        if (sampler == null) {
+            return;
+        }
+        sampler.shutdown();
+        try {
+            sampler.awaitTermination(periodMillis * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sampler = null;
+        sample();
+    }
+
+    /** show the latest position, unless it was already shown. */
+    private void sample() {
+        P position = latestPosition.get();
+        if (position != null && position != lastShown) {
+            lastShown = position;
+            ui.refresh(position, latestNumTries.get());
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.headless;
+
+import com.barrybecker4.common.app.AppContext;
+import com.barrybecker4.common.i18n.StubMessageContext;
+import com.barrybecker4.puzzle.common.AlgorithmEnum;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.common.solver.cache.SolutionCache;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Solves many puzzle instances without a ui, several at a time.
+ * Instances are read one per line, in the form accepted by PuzzleCases.parse, optionally followed by
+ * the name of the algorithm to use. For example "pails 9 4 6 IDA_STAR_SEQUENTIAL".
+ * Blank lines and lines starting with # are skipped.
+ * Every instance gets its own controller. The results are written as JSON, one line per instance,
+ * in the order they finish. Each line includes the line number of the instance it is for.
+ * Since the instances share the heap, the peak heap of each is not measured.
+ *
+ * The reader, the solving threads and the writer are connected by bounded queues,
+ * so reading waits when the solvers fall behind and an input of any size can be processed
+ * without holding more than a few instances in memory.
+ *
+ * Usage: BatchSolver [-threads n] [-timeLimit seconds] [-cache directory] [inputFile]
+ * If there is no inputFile, instances are read from standard input.
+ * Solutions are cached, so instances that repeat are only solved once. With -cache, they are also kept
+ * in the directory, so they are not solved again on later runs either.
+ *
+ * @author Barry Becker
+ */
+public class BatchSolver {
+
+    /** number of waiting instances, or finished results, allowed per solving thread. */
+    private static final int QUEUE_SIZE_PER_THREAD = 4;
+
+    /** put on the queues to signal that there is nothing more to come. */
+    private static final Instance END = new Instance(-1, "");
+    private static final String END_RESULT = "";
+
+    private final int numThreads;
+    private final SolveRunner runner;
+
+    /**
+     * @param numThreads number of instances to solve at once.
+     * @param timeLimitMillis give up on any instance that takes longer than this, or SolveLimits.NO_LIMIT.
+     */
+    public BatchSolver(int numThreads, long timeLimitMillis) {
+        this(numThreads, timeLimitMillis, null);
+    }
+
+    /**
+     * @param numThreads number of instances to solve at once.
+     * @param timeLimitMillis give up on any instance that takes longer than this, or SolveLimits.NO_LIMIT.
+     * @param cache instances solved before are answered from here. Null to solve every instance.
+     */
+    public BatchSolver(int numThreads, long timeLimitMillis, SolutionCache cache) {
+        this.numThreads = numThreads;
+        this.runner = new SolveRunner(timeLimitMillis, cache, numThreads);
+    }
+
+    /**
+     * Solve every instance read and write a JSON line for each. Returns when all have been written.
+     * @param in where to read the instances from.
+     * @param out where to write the results.
+     * @return the number of instances read.
+     */
+    public int solveAll(Reader in, Writer out) throws IOException, InterruptedException {
+        int queueSize = numThreads * QUEUE_SIZE_PER_THREAD;
+        final BlockingQueue<Instance> instances = new ArrayBlockingQueue<>(queueSize);
+        final BlockingQueue<String> results = new ArrayBlockingQueue<>(queueSize);
+
+        List<Thread> solvers = new ArrayList<>(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            Thread solver = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    solveInstances(instances, results);
+                }
+            }, "BatchSolver-" + i);
+            solver.setDaemon(true);
+            solver.start();
+            solvers.add(solver);
+        }
+        ResultWriter writer = new ResultWriter(results, new PrintWriter(out));
+        Thread writerThread = new Thread(writer, "BatchSolver-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        int numInstances = 0;
+        try {
+            numInstances = readInstances(new BufferedReader(in), instances);
+        } finally {
+            for (int i = 0; i < numThreads; i++) {
+                instances.put(END);
+            }
+            for (Thread solver : solvers) {
+                solver.join();
+            }
+            results.put(END_RESULT);
+            writerThread.join();
+        }
+        if (writer.getError() != null) {
+            throw writer.getError();
+        }
+        return numInstances;
+    }
+
+    /** @return the number of instances read. */
+    private static int readInstances(BufferedReader reader, BlockingQueue<Instance> instances)
+            throws IOException, InterruptedException {
+        int lineNumber = 0;
+        int numInstances = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                instances.put(new Instance(lineNumber, trimmed));
+                numInstances++;
+            }
+        }
+        return numInstances;
+    }
+
+    /** Runs on each solving thread until the end is signalled. */
+    private void solveInstances(BlockingQueue<Instance> instances, BlockingQueue<String> results) {
+        try {
+            Instance instance = instances.take();
+            while (instance != END) {
+                results.put(solve(instance));
+                instance = instances.take();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** @return the JSON line for the instance. */
+    private String solve(Instance instance) {
+        String prefix = "{\"line\":" + instance.lineNumber + ",\"input\":" + RunResult.jsonString(instance.spec) + ',';
+        try {
+            return prefix + solve(instance.spec).toJsonFields() + '}';
+        } catch (IllegalArgumentException e) {
+            return prefix + "\"error\":" + RunResult.jsonString(e.getMessage()) + '}';
+        } catch (RuntimeException e) {
+            return prefix + "\"error\":" + RunResult.jsonString(e.toString()) + '}';
+        }
+    }
+
+    private RunResult solve(String spec) {
+        String algorithmName = null;
+        String caseSpec = spec;
+        String[] words = spec.split("\\s+");
+        String lastWord = words[words.length - 1];
+        if (words.length > 1 && isAlgorithmName(lastWord)) {
+            algorithmName = lastWord;
+            caseSpec = spec.substring(0, spec.length() - lastWord.length());
+        }
+        return solve(PuzzleCases.parse(caseSpec), algorithmName);
+    }
+
+    private <P, M> RunResult solve(PuzzleCase<P, M> puzzleCase, String algorithmName) {
+        AlgorithmEnum<P, M> algorithm = (algorithmName == null)
+                ? puzzleCase.getDefaultAlgorithm() : puzzleCase.getAlgorithm(algorithmName);
+        return runner.run(puzzleCase, algorithm);
+    }
+
+    /** algorithms are enum constants, so all upper case, while instance values are numbers. */
+    private static boolean isAlgorithmName(String word) {
+        return Character.isUpperCase(word.charAt(0)) && word.equals(word.toUpperCase());
+    }
+
+    /** One line of input. */
+    private static class Instance {
+        final int lineNumber;
+        final String spec;
+
+        Instance(int lineNumber, String spec) {
+            this.lineNumber = lineNumber;
+            this.spec = spec;
+        }
+    }
+
+    /** Writes the results one per line as they arrive, until the end is signalled. */
+    private static class ResultWriter implements Runnable {
+        private final BlockingQueue<String> results;
+        private final PrintWriter writer;
+        private volatile IOException error;
+
+        ResultWriter(BlockingQueue<String> results, PrintWriter writer) {
+            this.results = results;
+            this.writer = writer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                String result = results.take();
+                while (result != END_RESULT) {
+                    writer.println(result);
+                    writer.flush();
+                    result = results.take();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writer.checkError()) {
+                error = new IOException("Could not write the results");
+            }
+        }
+
+        IOException getError() {
+            return error;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        long timeLimitMillis = SolveLimits.NO_LIMIT;
+        File cacheDirectory = null;
+        String inputFile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads" : numThreads = Integer.parseInt(args[++i]); break;
+                case "-timeLimit" : timeLimitMillis = Long.parseLong(args[++i]) * 1000L; break;
+                case "-cache" : cacheDirectory = new File(args[++i]); break;
+                default : inputFile = args[i];
+            }
+        }
+
+        // the algorithm labels need messages, but they are never shown
+        AppContext.injectMessageContext(new StubMessageContext());
+
+        // Some solvers print as they go. Keep that out of the results.
+        PrintStream stdout = System.out;
+        System.setOut(System.err);
+
+        InputStream input = (inputFile == null) ? System.in : new FileInputStream(inputFile);
+        Writer out = new OutputStreamWriter(stdout, StandardCharsets.UTF_8);
+        long start = System.currentTimeMillis();
+        int numSolved;
+        try (Reader in = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            SolutionCache cache = new SolutionCache(SolutionCache.DEFAULT_CAPACITY, cacheDirectory);
+            numSolved = new BatchSolver(numThreads, timeLimitMillis, cache).solveAll(in, out);
+        }
+        System.err.println("Solved " + numSolved + " instances in "
+                + (System.currentTimeMillis() - start) + "ms using " + numThreads + " threads");
+    }
+}
@@ -0,0 +1,108 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.headless;
+
+import com.barrybecker4.common.app.AppContext;
+import com.barrybecker4.common.i18n.StubMessageContext;
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.common.solver.distributed.DistributedAStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.distributed.DistributedSearchWorker;
+import com.barrybecker4.puzzle.common.solver.distributed.PuzzleControllerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs either a worker or the coordinator of a distributed A* search, without a ui.
+ * Instances are described in the form accepted by PuzzleCases.parse.
+ *
+ * Usage:
+ * <pre>
+ *   DistributedSearch -port n
+ *       run a worker that listens on port n until it is killed.
+ *   DistributedSearch -workers host:port,host:port,... [-timeLimit seconds] instance
+ *       solve the instance using the workers at those addresses. For example
+ *       DistributedSearch -workers localhost:7001,localhost:7002 slider 4 42
+ * </pre>
+ * To try it on one machine, start each worker in its own JVM on a different port, then run the coordinator.
+ *
+ * @author Barry Becker
+ */
+public class DistributedSearch {
+
+    /** Creates controllers for the instances that a coordinator names, using PuzzleCases.parse. */
+    public static final PuzzleControllerFactory CASE_FACTORY = new PuzzleControllerFactory() {
+        @Override
+        public PuzzleController<?, ?> create(String instanceSpec) {
+            return PuzzleCases.parse(instanceSpec).createController();
+        }
+    };
+
+    private DistributedSearch() {}
+
+    /**
+     * @return the path to the solution, or null if there is none or the time limit was reached first.
+     */
+    public static <P, M> List<M> solve(PuzzleCase<P, M> puzzleCase, String instanceSpec,
+                                       List<InetSocketAddress> workers, SolveLimits limits)
+            throws InterruptedException {
+        PuzzleController<P, M> controller = puzzleCase.createController();
+        return new DistributedAStarPuzzleSolver<>(controller, instanceSpec, workers).solve(limits);
+    }
+
+    /**
+     * @param list comma separated host:port pairs.
+     * @return the addresses in the list.
+     */
+    static List<InetSocketAddress> parseAddresses(String list) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String address : list.split(",")) {
+            int colon = address.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Expected host:port but got \"" + address + "\"");
+            }
+            addresses.add(InetSocketAddress.createUnresolved(
+                    address.substring(0, colon), Integer.parseInt(address.substring(colon + 1))));
+        }
+        return addresses;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = -1;
+        String workerList = null;
+        long timeLimitMillis = SolveLimits.NO_LIMIT;
+        StringBuilder instanceSpec = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-port" : port = Integer.parseInt(args[++i]); break;
+                case "-workers" : workerList = args[++i]; break;
+                case "-timeLimit" : timeLimitMillis = Long.parseLong(args[++i]) * 1000L; break;
+                default : instanceSpec.append(args[i]).append(' ');
+            }
+        }
+
+        // the algorithm labels need messages, but they are never shown
+        AppContext.injectMessageContext(new StubMessageContext());
+
+        if (port >= 0) {
+            DistributedSearchWorker worker = new DistributedSearchWorker(port, CASE_FACTORY);
+            worker.start();
+            System.out.println("Worker listening on port " + worker.getPort());
+            Thread.sleep(Long.MAX_VALUE);
+        }
+        else if (workerList != null && instanceSpec.length() > 0) {
+            String spec = instanceSpec.toString().trim();
+            long start = System.currentTimeMillis();
+            SolveLimits limits = new SolveLimits(timeLimitMillis, SolveLimits.NO_LIMIT, SolveLimits.NO_LIMIT);
+            List<?> path = solve(PuzzleCases.parse(spec), spec, parseAddresses(workerList), limits);
+            System.out.println((path == null ? "No solution" : "Solved in " + path.size() + " moves")
+                    + " after " + (System.currentTimeMillis() - start) + "ms");
+        }
+        else {
+            System.err.println("Usage: DistributedSearch -port n");
+            System.err.println("   or: DistributedSearch -workers host:port,... [-timeLimit seconds] instance");
+        }
+    }
+}
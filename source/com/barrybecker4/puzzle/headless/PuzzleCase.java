@@ -0,0 +1,88 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.headless;
+
+import com.barrybecker4.puzzle.common.AlgorithmEnum;
+import com.barrybecker4.puzzle.common.PuzzleController;
+
+import java.util.List;
+
+/**
+ * One instance of a puzzle to solve without a ui, and the algorithms that can solve it.
+ * P is the Puzzle type
+ * M is the move type
+ *
+ * @author Barry Becker
+ */
+public abstract class PuzzleCase<P, M> {
+
+    private final String puzzleName;
+    private final String instanceName;
+    private final long seed;
+
+    /**
+     * @param puzzleName the kind of puzzle. For example, "bridge"
+     * @param instanceName identifies the instance among others of the same puzzle.
+     * @param seed the random number generator is seeded with this before creating the controller.
+     */
+    protected PuzzleCase(String puzzleName, String instanceName, long seed) {
+        this.puzzleName = puzzleName;
+        this.instanceName = instanceName;
+        this.seed = seed;
+    }
+
+    public String getPuzzleName() {
+        return puzzleName;
+    }
+
+    public String getInstanceName() {
+        return instanceName;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Along with the encoded initial position, this identifies the instance in a SolutionCache.
+     * @return the instance name by default. Override if the initial position alone says more.
+     */
+    public String getVariant() {
+        return instanceName;
+    }
+
+    /**
+     * @return a new controller, with no ui, set up to solve this instance.
+     */
+    public abstract PuzzleController<P, M> createController();
+
+    /**
+     * @return every algorithm that can be used to solve this kind of puzzle.
+     */
+    public abstract List<AlgorithmEnum<P, M>> getAlgorithms();
+
+    /**
+     * @return the algorithm the controller uses unless told otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    public AlgorithmEnum<P, M> getDefaultAlgorithm() {
+        return (AlgorithmEnum<P, M>) createController().getAlgorithm();
+    }
+
+    /**
+     * @return the algorithm with the specified name. The name is the enum constant.
+     * @throws IllegalArgumentException if this puzzle has no algorithm with that name.
+     */
+    public AlgorithmEnum<P, M> getAlgorithm(String name) {
+        for (AlgorithmEnum<P, M> algorithm : getAlgorithms()) {
+            if (algorithm.toString().equals(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("There is no " + name + " algorithm for " + puzzleName);
+    }
+
+    @Override
+    public String toString() {
+        return puzzleName + " " + instanceName;
+    }
+}
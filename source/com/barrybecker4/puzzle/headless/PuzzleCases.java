@@ -0,0 +1,264 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.headless;
+
+import com.barrybecker4.common.math.MathUtil;
+import com.barrybecker4.puzzle.bridge.BridgePuzzleController;
+import com.barrybecker4.puzzle.bridge.model.Bridge;
+import com.barrybecker4.puzzle.bridge.model.BridgeMove;
+import com.barrybecker4.puzzle.bridge.model.InitialConfiguration;
+import com.barrybecker4.puzzle.common.AlgorithmEnum;
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.hiq.HiQController;
+import com.barrybecker4.puzzle.hiq.model.PegBoard;
+import com.barrybecker4.puzzle.hiq.model.PegMove;
+import com.barrybecker4.puzzle.redpuzzle.RedPuzzleController;
+import com.barrybecker4.puzzle.redpuzzle.model.Piece;
+import com.barrybecker4.puzzle.redpuzzle.model.PieceList;
+import com.barrybecker4.puzzle.slidingpuzzle.SlidingPuzzleController;
+import com.barrybecker4.puzzle.slidingpuzzle.model.SlideMove;
+import com.barrybecker4.puzzle.slidingpuzzle.model.Slider;
+import com.barrybecker4.puzzle.tantrix.TantrixController;
+import com.barrybecker4.puzzle.tantrix.model.HexTiles;
+import com.barrybecker4.puzzle.tantrix.model.TantrixBoard;
+import com.barrybecker4.puzzle.tantrix.model.TilePlacement;
+import com.barrybecker4.puzzle.twopails.TwoPailsPuzzleController;
+import com.barrybecker4.puzzle.twopails.model.PailParams;
+import com.barrybecker4.puzzle.twopails.model.Pails;
+import com.barrybecker4.puzzle.twopails.model.PourOperation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates the puzzle instances used for headless solving.
+ * Instances that need random numbers get them from their own seed, so they are the same every run.
+ *
+ * @author Barry Becker
+ */
+public final class PuzzleCases {
+
+    private static final long DEFAULT_SEED = 1;
+
+    private PuzzleCases() {}
+
+    /**
+     * The fixed set of instances that every algorithm is run on in the shootout.
+     * Small enough that most algorithms finish each one in seconds.
+     */
+    public static List<PuzzleCase<?, ?>> shootoutCases() {
+        List<PuzzleCase<?, ?>> cases = new ArrayList<>();
+        for (int seed = 1; seed <= 3; seed++) {
+            cases.add(slider(3, seed));
+        }
+        cases.add(hiQ());
+        for (InitialConfiguration config : InitialConfiguration.values()) {
+            cases.add(bridge(config.name(), config.getPeopleSpeeds()));
+        }
+        cases.add(twoPails(new PailParams(9, 4, 6)));
+        cases.add(twoPails(new PailParams(55, 17, 3)));
+        cases.add(twoPails(new PailParams(97, 23, 32)));
+        cases.add(redPuzzle());
+        for (int numTiles = 3; numTiles <= 5; numTiles++) {
+            cases.add(tantrix(numTiles, DEFAULT_SEED));
+        }
+        return cases;
+    }
+
+    /**
+     * Create a case from a one line description. The first word is the kind of puzzle,
+     * and the words after it identify the instance:
+     * <pre>
+     *   slider size [seed]         for example "slider 3 42"
+     *   hiq
+     *   bridge speed,speed,...     for example "bridge 1,2,5,8"
+     *   pails pail1 pail2 target   for example "pails 9 4 6"
+     *   redpuzzle
+     *   tantrix numTiles [seed]    for example "tantrix 5 7"
+     * </pre>
+     * @param spec the description.
+     * @return the case it describes.
+     * @throws IllegalArgumentException if the description cannot be understood.
+     */
+    public static PuzzleCase<?, ?> parse(String spec) {
+        String[] words = spec.trim().split("\\s+");
+        try {
+            switch (words[0].toLowerCase()) {
+                case "slider" :
+                    checkNumWords(words, 2, 3);
+                    return slider(Integer.parseInt(words[1]), optionalSeed(words, 2));
+                case "hiq" :
+                    checkNumWords(words, 1, 1);
+                    return hiQ();
+                case "bridge" :
+                    checkNumWords(words, 2, 2);
+                    return bridge(words[1], parseSpeeds(words[1]));
+                case "pails" :
+                case "twopails" :
+                    checkNumWords(words, 4, 4);
+                    return twoPails(new PailParams(
+                            Integer.parseInt(words[1]), Integer.parseInt(words[2]), Integer.parseInt(words[3])));
+                case "redpuzzle" :
+                    checkNumWords(words, 1, 1);
+                    return redPuzzle();
+                case "tantrix" :
+                    checkNumWords(words, 2, 3);
+                    return tantrix(Integer.parseInt(words[1]), optionalSeed(words, 2));
+                default :
+                    throw new IllegalArgumentException("Unknown puzzle: " + words[0]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a number in \"" + spec + "\"", e);
+        }
+    }
+
+    private static void checkNumWords(String[] words, int min, int max) {
+        if (words.length < min || words.length > max) {
+            throw new IllegalArgumentException("Wrong number of values for " + words[0] + ": " + (words.length - 1));
+        }
+    }
+
+    private static long optionalSeed(String[] words, int index) {
+        return words.length > index ? Long.parseLong(words[index]) : DEFAULT_SEED;
+    }
+
+    private static Integer[] parseSpeeds(String list) {
+        String[] values = list.split(",");
+        Integer[] speeds = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            speeds[i] = Integer.parseInt(values[i]);
+        }
+        return speeds;
+    }
+
+    /**
+     * @param size edge length of the slider.
+     * @param seed determines how the tiles are shuffled.
+     */
+    public static PuzzleCase<Slider, SlideMove> slider(final int size, final long seed) {
+        return new PuzzleCase<Slider, SlideMove>("slider", size + "x" + size + " seed=" + seed, seed) {
+            @Override
+            public PuzzleController<Slider, SlideMove> createController() {
+                // the shuffle uses the shared random number generator, so keep others from using it meanwhile
+                synchronized (MathUtil.RANDOM) {
+                    MathUtil.RANDOM.setSeed(seed);
+                    SlidingPuzzleController controller = new SlidingPuzzleController(null);
+                    controller.setSize(size);
+                    return controller;
+                }
+            }
+
+            /** the shuffled tiles are in the initial position, so the seed does not matter. */
+            @Override
+            public String getVariant() {
+                return size + "x" + size;
+            }
+
+            @Override
+            public List<AlgorithmEnum<Slider, SlideMove>> getAlgorithms() {
+                return Arrays.<AlgorithmEnum<Slider, SlideMove>>asList(
+                        com.barrybecker4.puzzle.slidingpuzzle.Algorithm.values());
+            }
+        };
+    }
+
+    /** The standard hi-q board. There is only one. */
+    public static PuzzleCase<PegBoard, PegMove> hiQ() {
+        return new PuzzleCase<PegBoard, PegMove>("hiq", "standard", DEFAULT_SEED) {
+            @Override
+            public PuzzleController<PegBoard, PegMove> createController() {
+                return new HiQController(null);
+            }
+
+            @Override
+            public List<AlgorithmEnum<PegBoard, PegMove>> getAlgorithms() {
+                return Arrays.<AlgorithmEnum<PegBoard, PegMove>>asList(com.barrybecker4.puzzle.hiq.Algorithm.values());
+            }
+        };
+    }
+
+    /**
+     * @param name identifies the instance.
+     * @param speeds the time each person takes to cross the bridge.
+     */
+    public static PuzzleCase<Bridge, BridgeMove> bridge(String name, final Integer[] speeds) {
+        return new PuzzleCase<Bridge, BridgeMove>("bridge", name, DEFAULT_SEED) {
+            @Override
+            public PuzzleController<Bridge, BridgeMove> createController() {
+                BridgePuzzleController controller = new BridgePuzzleController(null);
+                controller.setConfiguration(speeds);
+                return controller;
+            }
+
+            @Override
+            public List<AlgorithmEnum<Bridge, BridgeMove>> getAlgorithms() {
+                return Arrays.<AlgorithmEnum<Bridge, BridgeMove>>asList(
+                        com.barrybecker4.puzzle.bridge.Algorithm.values());
+            }
+        };
+    }
+
+    /**
+     * @param params the pail sizes and amount to measure.
+     */
+    public static PuzzleCase<Pails, PourOperation> twoPails(final PailParams params) {
+        return new PuzzleCase<Pails, PourOperation>("twopails", params.toString(), DEFAULT_SEED) {
+            @Override
+            public PuzzleController<Pails, PourOperation> createController() {
+                TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+                controller.setParams(params);
+                return controller;
+            }
+
+            @Override
+            public List<AlgorithmEnum<Pails, PourOperation>> getAlgorithms() {
+                return Arrays.<AlgorithmEnum<Pails, PourOperation>>asList(
+                        com.barrybecker4.puzzle.twopails.Algorithm.values());
+            }
+        };
+    }
+
+    /** The red puzzle pieces are always shuffled the same way, so there is only one instance. */
+    public static PuzzleCase<PieceList, Piece> redPuzzle() {
+        return new PuzzleCase<PieceList, Piece>("redpuzzle", "standard", DEFAULT_SEED) {
+            @Override
+            public PuzzleController<PieceList, Piece> createController() {
+                return new RedPuzzleController(null);
+            }
+
+            @Override
+            public List<AlgorithmEnum<PieceList, Piece>> getAlgorithms() {
+                return Arrays.<AlgorithmEnum<PieceList, Piece>>asList(
+                        com.barrybecker4.puzzle.redpuzzle.solver.Algorithm.values());
+            }
+        };
+    }
+
+    /**
+     * @param numTiles number of tiles to form a loop from.
+     * @param seed determines which tiles are drawn.
+     */
+    public static PuzzleCase<TantrixBoard, TilePlacement> tantrix(final int numTiles, final long seed) {
+        return new PuzzleCase<TantrixBoard, TilePlacement>("tantrix", numTiles + " tiles seed=" + seed, seed) {
+            @Override
+            public PuzzleController<TantrixBoard, TilePlacement> createController() {
+                final TantrixBoard board = new TantrixBoard(new HexTiles().createRandomList(numTiles, new Random(seed)));
+                TantrixController controller = new TantrixController(null) {
+                    @Override
+                    public TantrixBoard initialPosition() {
+                        return board;
+                    }
+                };
+                controller.setNumTiles(numTiles);
+                return controller;
+            }
+
+            @Override
+            public List<AlgorithmEnum<TantrixBoard, TilePlacement>> getAlgorithms() {
+                return Arrays.<AlgorithmEnum<TantrixBoard, TilePlacement>>asList(
+                        com.barrybecker4.puzzle.tantrix.solver.Algorithm.values());
+            }
+        };
+    }
+}
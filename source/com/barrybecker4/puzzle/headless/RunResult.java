@@ -0,0 +1,160 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.headless;
+
+/**
+ * The outcome of solving one puzzle instance with one algorithm.
+ * Can be written as a row of CSV or as a JSON object.
+ *
+ * @author Barry Becker
+ */
+public class RunResult {
+
+    public static final String CSV_HEADER =
+            "puzzle,instance,algorithm,solved,solutionLength,wallMillis,"
+            + "nodesExpanded,nodesGenerated,peakHeapBytes,stopReason";
+
+    /** The peak heap when it was not measured. It is then left out of the JSON and the CSV field is empty. */
+    public static final long NOT_MEASURED = -1;
+
+    private final String puzzle;
+    private final String instance;
+    private final String algorithm;
+    private final boolean solved;
+    private final int solutionLength;
+    private final long wallMillis;
+    private final long nodesExpanded;
+    private final long nodesGenerated;
+    private final long peakHeapBytes;
+    private final String stopReason;
+
+    /**
+     * @param solutionLength number of moves in the solution, or -1 if none was found.
+     * @param peakHeapBytes the most heap in use during the run, or NOT_MEASURED.
+     * @param stopReason why the solve ended early, or null if it ran to completion.
+     */
+    public RunResult(String puzzle, String instance, String algorithm,
+                     boolean solved, int solutionLength, long wallMillis,
+                     long nodesExpanded, long nodesGenerated, long peakHeapBytes, String stopReason) {
+        this.puzzle = puzzle;
+        this.instance = instance;
+        this.algorithm = algorithm;
+        this.solved = solved;
+        this.solutionLength = solutionLength;
+        this.wallMillis = wallMillis;
+        this.nodesExpanded = nodesExpanded;
+        this.nodesGenerated = nodesGenerated;
+        this.peakHeapBytes = peakHeapBytes;
+        this.stopReason = stopReason;
+    }
+
+    public String getPuzzle() {
+        return puzzle;
+    }
+
+    public String getInstance() {
+        return instance;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    public int getSolutionLength() {
+        return solutionLength;
+    }
+
+    public long getWallMillis() {
+        return wallMillis;
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public long getNodesGenerated() {
+        return nodesGenerated;
+    }
+
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    public String getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * @return the fields in the same order as CSV_HEADER.
+     */
+    public String toCsvRow() {
+        return csvField(puzzle) + ',' + csvField(instance) + ',' + csvField(algorithm) + ','
+                + solved + ',' + solutionLength + ',' + wallMillis + ','
+                + nodesExpanded + ',' + nodesGenerated + ','
+                + (peakHeapBytes == NOT_MEASURED ? "" : Long.toString(peakHeapBytes)) + ','
+                + (stopReason == null ? "" : csvField(stopReason));
+    }
+
+    /**
+     * @return a JSON object on a single line.
+     */
+    public String toJson() {
+        return '{' + toJsonFields() + '}';
+    }
+
+    /**
+     * @return the JSON fields without the surrounding braces, so more can be added to them.
+     */
+    String toJsonFields() {
+        return "\"puzzle\":" + jsonString(puzzle)
+                + ",\"instance\":" + jsonString(instance)
+                + ",\"algorithm\":" + jsonString(algorithm)
+                + ",\"solved\":" + solved
+                + ",\"solutionLength\":" + solutionLength
+                + ",\"wallMillis\":" + wallMillis
+                + ",\"nodesExpanded\":" + nodesExpanded
+                + ",\"nodesGenerated\":" + nodesGenerated
+                + (peakHeapBytes == NOT_MEASURED ? "" : ",\"peakHeapBytes\":" + peakHeapBytes)
+                + ",\"stopReason\":" + (stopReason == null ? "null" : jsonString(stopReason));
+    }
+
+    /** quote the value only if it contains something that would break the row. */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static String jsonString(String value) {
+        StringBuilder bldr = new StringBuilder(value.length() + 2);
+        bldr.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' : bldr.append("\\\""); break;
+                case '\\' : bldr.append("\\\\"); break;
+                case '\n' : bldr.append("\\n"); break;
+                case '\r' : bldr.append("\\r"); break;
+                case '\t' : bldr.append("\\t"); break;
+                default :
+                    if (c < ' ') {
+                        bldr.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        bldr.append(c);
+                    }
+            }
+        }
+        return bldr.append('"').toString();
+    }
+
+    @Override
+    public String toString() {
+        return puzzle + " " + instance + " " + algorithm + (solved ? " solved in " + solutionLength + " moves" : " unsolved")
+                + " in " + wallMillis + "ms expanded=" + nodesExpanded
+                + (stopReason == null ? "" : " stopped by " + stopReason);
+    }
+}
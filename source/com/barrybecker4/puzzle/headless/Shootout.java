@@ -0,0 +1,105 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.headless;
+
+import com.barrybecker4.common.app.AppContext;
+import com.barrybecker4.common.i18n.StubMessageContext;
+import com.barrybecker4.puzzle.common.AlgorithmEnum;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs every algorithm of every puzzle on the same fixed set of instances, so they can be compared.
+ * No ui is shown. For each run, the wall time, nodes expanded and generated, peak heap and
+ * solution length are recorded, and all the results are written to shootout.csv and shootout.json.
+ * Node counts come from the solver metrics, so they are 0 for solvers that do not gather them.
+ *
+ * Usage: Shootout [outputDirectory] [timeLimitSeconds]
+ *
+ * @author Barry Becker
+ */
+public final class Shootout {
+
+    private static final String DEFAULT_OUTPUT_DIR = "build/reports/shootout";
+    private static final int DEFAULT_TIME_LIMIT_SECONDS = 60;
+
+    private final SolveRunner runner;
+
+    /**
+     * @param timeLimitMillis give up on any run that takes longer than this.
+     */
+    public Shootout(long timeLimitMillis) {
+        runner = new SolveRunner(timeLimitMillis);
+    }
+
+    /**
+     * @param cases the instances to solve.
+     * @return one result for every algorithm applied to every case.
+     */
+    public List<RunResult> run(List<PuzzleCase<?, ?>> cases) {
+        List<RunResult> results = new ArrayList<>();
+        for (PuzzleCase<?, ?> puzzleCase : cases) {
+            runAll(puzzleCase, results);
+        }
+        return results;
+    }
+
+    private <P, M> void runAll(PuzzleCase<P, M> puzzleCase, List<RunResult> results) {
+        for (AlgorithmEnum<P, M> algorithm : puzzleCase.getAlgorithms()) {
+            RunResult result = runner.run(puzzleCase, algorithm);
+            System.out.println(result);
+            results.add(result);
+        }
+    }
+
+    /** write the results as CSV with a header row. */
+    public static void writeCsv(List<RunResult> results, File file) throws IOException {
+        try (PrintWriter writer = createWriter(file)) {
+            writer.println(RunResult.CSV_HEADER);
+            for (RunResult result : results) {
+                writer.println(result.toCsvRow());
+            }
+        }
+    }
+
+    /** write the results as a JSON array with one object per line. */
+    public static void writeJson(List<RunResult> results, File file) throws IOException {
+        try (PrintWriter writer = createWriter(file)) {
+            writer.println('[');
+            for (int i = 0; i < results.size(); i++) {
+                writer.println("  " + results.get(i).toJson() + (i < results.size() - 1 ? "," : ""));
+            }
+            writer.println(']');
+        }
+    }
+
+    private static PrintWriter createWriter(File file) throws IOException {
+        return new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws IOException {
+        File outputDir = new File(args.length > 0 ? args[0] : DEFAULT_OUTPUT_DIR);
+        int timeLimitSeconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TIME_LIMIT_SECONDS;
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Could not create " + outputDir);
+        }
+
+        // the algorithm labels need messages, but they are never shown
+        AppContext.injectMessageContext(new StubMessageContext());
+
+        Shootout shootout = new Shootout(timeLimitSeconds * 1000L);
+        List<RunResult> results = shootout.run(PuzzleCases.shootoutCases());
+
+        File csvFile = new File(outputDir, "shootout.csv");
+        File jsonFile = new File(outputDir, "shootout.json");
+        writeCsv(results, csvFile);
+        writeJson(results, jsonFile);
+        System.out.println("Wrote " + results.size() + " results to " + csvFile + " and " + jsonFile);
+    }
+}
@@ -0,0 +1,146 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.headless;
+
+import com.barrybecker4.puzzle.common.AlgorithmEnum;
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.solver.CachingPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.common.solver.cache.SolutionCache;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+/**
+ * Solves one puzzle instance with one algorithm, without a ui, and measures how it went.
+ * Each run gets a new controller and solver so that nothing carries over from earlier runs.
+ *
+ * Runs may be made one at a time or several at once. The heap is shared by the whole process,
+ * so when several run at once there is no full gc before each and the peak heap is not measured,
+ * since both would be disturbed by, and disturb, the other runs. Each run then stops once the heap has
+ * grown by more than its share since the run began.
+ *
+ * @author Barry Becker
+ */
+public class SolveRunner {
+
+    /** Stop a run before it can exhaust the heap and take the rest of the runs down with it. */
+    private static final double MAX_HEAP_FRACTION = 0.8;
+
+    private final long timeLimitMillis;
+    private final SolutionCache cache;
+    private final int numConcurrentRuns;
+
+    /**
+     * @param timeLimitMillis give up on any run that takes longer than this, or SolveLimits.NO_LIMIT.
+     */
+    public SolveRunner(long timeLimitMillis) {
+        this(timeLimitMillis, null);
+    }
+
+    /**
+     * @param timeLimitMillis give up on any run that takes longer than this, or SolveLimits.NO_LIMIT.
+     * @param cache instances solved before are answered from here without searching. Null for no cache.
+     */
+    public SolveRunner(long timeLimitMillis, SolutionCache cache) {
+        this(timeLimitMillis, cache, 1);
+    }
+
+    /**
+     * @param timeLimitMillis give up on any run that takes longer than this, or SolveLimits.NO_LIMIT.
+     * @param cache instances solved before are answered from here without searching. Null for no cache.
+     * @param numConcurrentRuns the most runs that will be made at once, from different threads.
+     */
+    public SolveRunner(long timeLimitMillis, SolutionCache cache, int numConcurrentRuns) {
+        this.timeLimitMillis = timeLimitMillis;
+        this.cache = cache;
+        this.numConcurrentRuns = Math.max(1, numConcurrentRuns);
+    }
+
+    /**
+     * @param puzzleCase the instance to solve.
+     * @param algorithm the algorithm to solve it with.
+     * @return what happened. Never null, even if the solver failed.
+     */
+    public <P, M> RunResult run(PuzzleCase<P, M> puzzleCase, AlgorithmEnum<P, M> algorithm) {
+        boolean measureHeap = numConcurrentRuns == 1;
+        if (measureHeap) {
+            System.gc();
+            resetPeakHeap();
+        }
+
+        SolveLimits limits = new SolveLimits(timeLimitMillis, SolveLimits.NO_LIMIT, maxMemoryBytes());
+        // the same case gets the same random choices every run, so runs can be compared
+        limits.setSeed(puzzleCase.getSeed());
+        List<M> path = null;
+        SolverMetrics metrics = null;
+        String stopReason = null;
+        long start = System.nanoTime();
+        try {
+            PuzzleController<P, M> controller = puzzleCase.createController();
+            controller.setAlgorithm(algorithm);
+            PuzzleSolver<M> solver = algorithm.createSolver(controller);
+            if (cache != null) {
+                solver = new CachingPuzzleSolver<>(controller, solver, cache,
+                        puzzleCase.getPuzzleName() + ' ' + puzzleCase.getVariant(), algorithm.toString());
+            }
+            metrics = solver.getMetrics();
+            path = solver.solve(limits);
+            if (limits.wasStopped()) {
+                stopReason = limits.getStopReason().toString();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopReason = SolveLimits.StopReason.CANCELLED.toString();
+        } catch (RuntimeException | OutOfMemoryError e) {
+            stopReason = "ERROR " + e;
+        }
+        long wallMillis = (System.nanoTime() - start) / 1000000L;
+
+        return new RunResult(puzzleCase.getPuzzleName(), puzzleCase.getInstanceName(), algorithm.toString(),
+                path != null, path == null ? -1 : path.size(), wallMillis,
+                metrics == null ? 0 : metrics.getNodesExpanded(),
+                metrics == null ? 0 : metrics.getNodesGenerated(),
+                measureHeap ? getPeakHeap() : RunResult.NOT_MEASURED, stopReason);
+    }
+
+    /**
+     * When runs share the heap, each may grow it by its share of the limit,
+     * though never past the limit for the whole process.
+     */
+    private long maxMemoryBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        long max = runtime.maxMemory();
+        if (max == Long.MAX_VALUE) {
+            return SolveLimits.NO_LIMIT;
+        }
+        long processLimit = (long) (max * MAX_HEAP_FRACTION);
+        if (numConcurrentRuns == 1) {
+            return processLimit;
+        }
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return Math.min(processLimit, used + processLimit / numConcurrentRuns);
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /** @return the sum of the peaks of the heap pools since they were reset. */
+    private static long getPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
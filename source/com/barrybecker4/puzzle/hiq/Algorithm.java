@@ -5,9 +5,16 @@ import com.barrybecker4.common.app.AppContext;
 import com.barrybecker4.puzzle.common.AlgorithmEnum;
 import com.barrybecker4.puzzle.common.PuzzleController;
 import com.barrybecker4.puzzle.common.solver.AStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.BeamPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.BidirectionalPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.CompactAStarPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.ConcurrentPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.ExternalBreadthFirstPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.ForkJoinPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.IDAStarPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.SequentialPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.VirtualThreadPuzzleSolver;
 import com.barrybecker4.puzzle.hiq.model.PegBoard;
 import com.barrybecker4.puzzle.hiq.model.PegMove;
 
@@ -20,9 +27,16 @@ public enum Algorithm implements AlgorithmEnum<PegBoard, PegMove> {
 
     SIMPLE_SEQUENTIAL,
     A_STAR_SEQUENTIAL,
+    A_STAR_COMPACT,
+    IDA_STAR_SEQUENTIAL,
+    BEAM_SEARCH,
+    BIDIRECTIONAL_SEQUENTIAL,
+    EXTERNAL_BREADTH_FIRST,
     CONCURRENT_BREADTH,
     CONCURRENT_DEPTH,
-    CONCURRENT_OPTIMUM;
+    CONCURRENT_OPTIMUM,
+    CONCURRENT_WORK_STEALING,
+    CONCURRENT_VIRTUAL_THREADS;
 
     private String label;
 
@@ -49,12 +63,33 @@ public enum Algorithm implements AlgorithmEnum<PegBoard, PegMove> {
                 return new SequentialPuzzleSolver<>(controller);
             case A_STAR_SEQUENTIAL :
                 return new AStarPuzzleSolver<>(controller);
+            case A_STAR_COMPACT :
+                // A* that stores its nodes in primitive arrays, so it can search further in the same memory
+                return new CompactAStarPuzzleSolver<>(controller);
+            case IDA_STAR_SEQUENTIAL :
+                // optimal like A*, but uses memory proportional to the solution depth
+                return new IDAStarPuzzleSolver<>(controller);
+            case BEAM_SEARCH :
+                // keeps only the positions closest to the goal at each depth. Fast, but not always the shortest path
+                return new BeamPuzzleSolver<>(controller);
+            case BIDIRECTIONAL_SEQUENTIAL :
+                // shortest path, searching from both ends until they meet in the middle
+                return new BidirectionalPuzzleSolver<>(controller);
+            case EXTERNAL_BREADTH_FIRST :
+                // shortest path, keeping the positions reached in files so the search is not limited by memory
+                return new ExternalBreadthFirstPuzzleSolver<>(controller);
             case CONCURRENT_BREADTH :
                 return new ConcurrentPuzzleSolver<>(controller, 0.4f);
             case CONCURRENT_DEPTH :
                 return new ConcurrentPuzzleSolver<>(controller, 0.12f);
             case CONCURRENT_OPTIMUM :
                 return new ConcurrentPuzzleSolver<>(controller, 0.2f);
+            case CONCURRENT_WORK_STEALING :
+                // one thread per core. Depth first on each thread, with idle threads stealing shallow work
+                return new ForkJoinPuzzleSolver<>(controller);
+            case CONCURRENT_VIRTUAL_THREADS :
+                // like CONCURRENT_OPTIMUM, with a virtual thread per task and only one task running per core
+                return new VirtualThreadPuzzleSolver<>(controller, 0.2f);
         }
         return null;
     }
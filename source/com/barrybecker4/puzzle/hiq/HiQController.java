@@ -1,14 +1,15 @@
 /** Copyright by Barry G. Becker, 2000-2011. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
 package com.barrybecker4.puzzle.hiq;
 
+import com.barrybecker4.puzzle.common.MoveSink;
 import com.barrybecker4.puzzle.common.Refreshable;
 import com.barrybecker4.puzzle.common.ui.AbstractPuzzleController;
 import com.barrybecker4.puzzle.hiq.model.MoveGenerator;
 import com.barrybecker4.puzzle.hiq.model.PegBoard;
 import com.barrybecker4.puzzle.hiq.model.PegMove;
 
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
 /**
  * HiQ Puzzle Controller.
@@ -41,6 +42,11 @@ public class HiQController extends AbstractPuzzleController<PegBoard, PegMove> {
         return new MoveGenerator(position).generateMoves();
     }
 
+    @Override
+    public void forEachMove(PegBoard position, MoveSink<PegMove> sink) {
+        new MoveGenerator(position).generateMoves(sink);
+    }
+
     @Override
     public PegBoard move(PegBoard position, PegMove move) {
         return position.doMove(move, false);
@@ -57,17 +63,55 @@ public class HiQController extends AbstractPuzzleController<PegBoard, PegMove> {
     }
 
     /**
-     * Check all board symmetries to be sure it has or has not been seen.
-     * If it was never seen before add it.
-     * Must be synchronized because some solvers use concurrency.
+     * Every jump removes one peg.
+     * @return one less than the estimate for the parent.
      */
     @Override
-    public synchronized boolean alreadySeen(PegBoard position, Set<PegBoard> seen) {
+    public int distanceFromGoal(PegBoard parent, PegMove move, int parentDistance, PegBoard child) {
+        return parentDistance - 1;
+    }
+
+    @Override
+    public boolean isReversible() {
+        return true;
+    }
+
+    @Override
+    public List<PegBoard> goalPositions() {
+        return Collections.singletonList(PegBoard.SOLVED_BOARD_POSITION);
+    }
+
+    @Override
+    public List<PegMove> predecessorMoves(PegBoard position) {
+        return new MoveGenerator(position).generatePredecessorMoves();
+    }
+
+    @Override
+    public PegBoard unmove(PegBoard position, PegMove move) {
+        return position.doMove(move, true);
+    }
+
+    @Override
+    public boolean canEncode() {
+        return true;
+    }
+
+    @Override
+    public long encode(PegBoard position) {
+        return position.encode();
+    }
+
+    @Override
+    public PegBoard decode(long code) {
+        return PegBoard.decode(code);
+    }
 
-        boolean wasSeen = position.containedIn(seen);
-        if (!wasSeen) {
-            seen.add(position);
-        }
-        return wasSeen;
+    /**
+     * The board can be rotated and reflected 8 ways. Each of them is searched as one board.
+     * @return the one of the 8 with the lowest code.
+     */
+    @Override
+    public PegBoard canonicalize(PegBoard position) {
+        return position.canonical();
     }
 }
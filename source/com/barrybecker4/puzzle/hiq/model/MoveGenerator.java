@@ -2,17 +2,39 @@
 package com.barrybecker4.puzzle.hiq.model;
 
 import com.barrybecker4.common.geometry.Location;
+import com.barrybecker4.puzzle.common.MoveSink;
 
 import java.util.LinkedList;
 import java.util.List;
 
 /**
  * HiQ Puzzle move generator. Generates valid next moves.
+ * There are only 76 different jumps on the board, so each is created once,
+ * and the same PegMove is handed out every time it is legal.
  *
  * @author Barry Becker
  */
 public class MoveGenerator  {
 
+    /** row and column offsets from the hole jumped into, to the peg that jumps. In the order they are checked. */
+    private static final int[][] OFFSETS = {{0, -2}, {0, 2}, {-2, 0}, {2, 0}};
+
+    /** every possible jump, indexed by the row and column jumped into, and then by offset. Null if off the board. */
+    private static final PegMove[][][] JUMPS = new PegMove[PegBoard.SIZE][PegBoard.SIZE][OFFSETS.length];
+    static {
+        for (byte r = 0; r < PegBoard.SIZE; r++) {
+            for (byte c = 0; c < PegBoard.SIZE; c++) {
+                for (int i = 0; i < OFFSETS.length; i++) {
+                    byte fromRow = (byte) (r + OFFSETS[i][0]);
+                    byte fromCol = (byte) (c + OFFSETS[i][1]);
+                    if (PegBoard.isValidPosition(r, c) && PegBoard.isValidPosition(fromRow, fromCol)) {
+                        JUMPS[r][c][i] = new PegMove(fromRow, fromCol, r, c);
+                    }
+                }
+            }
+        }
+    }
+
     PegBoard board;
 
     /**
@@ -26,15 +48,43 @@ public class MoveGenerator  {
      * @return List of all valid jumps for the current board state
      */
     public List<PegMove> generateMoves() {
-        List<PegMove> moves = new LinkedList<PegMove>();
-        List<Location> emptyLocations = board.getLocations(false);
-        if (emptyLocations.isEmpty()) {
-            moves.add(board.getFirstMove());
-        } else {
-            for (Location pos : emptyLocations) {
-                moves.addAll(findMovesForLocation(pos, false));
+        final List<PegMove> moves = new LinkedList<PegMove>();
+        generateMoves(new MoveSink<PegMove>() {
+            @Override
+            public void accept(PegMove move) {
+                moves.add(move);
+            }
+        });
+        return moves;
+    }
+
+    /**
+     * Pass all valid jumps for the current board state to the sink, without allocating anything.
+     * @param sink receives the jumps in the same order as generateMoves lists them.
+     */
+    public void generateMoves(MoveSink<PegMove> sink) {
+        boolean foundEmpty = false;
+        for (byte r = 0; r < PegBoard.SIZE; r++) {
+            for (byte c = 0; c < PegBoard.SIZE; c++) {
+                if (PegBoard.isValidPosition(r, c) && board.isEmpty(r, c)) {
+                    foundEmpty = true;
+                    findMovesForLocation(r, c, false, sink);
+                }
             }
         }
+        if (!foundEmpty) {
+            sink.accept(board.getFirstMove());
+        }
+    }
+
+    /**
+     * @return List of all jumps that could have led to the current board state.
+     */
+    public List<PegMove> generatePredecessorMoves() {
+        List<PegMove> moves = new LinkedList<PegMove>();
+        for (Location pos : board.getLocations(true)) {
+            moves.addAll(findMovesForLocation(pos, true));
+        }
         return moves;
     }
 
@@ -45,26 +95,25 @@ public class MoveGenerator  {
      * @return List
      */
     private List<PegMove> findMovesForLocation(Location location, boolean undo) {
-        List<PegMove> moves = new LinkedList<PegMove>();
-        byte r = (byte) location.getRow();
-        byte c = (byte) location.getCol();
-
-        // 4 cases to consider: NEWS
-        checkMoveForDirection(r, c, 0, -2, undo, moves);
-        checkMoveForDirection(r, c, 0, 2, undo, moves);
-        checkMoveForDirection(r, c, -2, 0, undo, moves);
-        checkMoveForDirection(r, c, 2, 0, undo, moves);
+        final List<PegMove> moves = new LinkedList<PegMove>();
+        findMovesForLocation((byte) location.getRow(), (byte) location.getCol(), undo, new MoveSink<PegMove>() {
+            @Override
+            public void accept(PegMove move) {
+                moves.add(move);
+            }
+        });
         return moves;
     }
 
-    private void checkMoveForDirection(byte r, byte c, int rowOffset, int colOffset, boolean undo, List<PegMove> moves) {
-        byte fromRow = (byte)(r + rowOffset);
-        byte fromCol = (byte)(c + colOffset);
-        if (PegBoard.isValidPosition(fromRow, fromCol)
-             && board.getPosition(fromRow, fromCol)!=undo
-             && board.getPosition((byte)(r + rowOffset/2), (byte)(c + colOffset/2))!=undo) {
-            moves.add(new PegMove(fromRow, fromCol, r, c));
+    /** 4 cases to consider: NEWS */
+    private void findMovesForLocation(byte r, byte c, boolean undo, MoveSink<PegMove> sink) {
+        for (int i = 0; i < OFFSETS.length; i++) {
+            PegMove jump = JUMPS[r][c][i];
+            if (jump != null
+                    && board.getPosition(jump.getFromRow(), jump.getFromCol()) != undo
+                    && board.getPosition((byte) (r + OFFSETS[i][0] / 2), (byte) (c + OFFSETS[i][1] / 2)) != undo) {
+                sink.accept(jump);
+            }
         }
     }
-
 }
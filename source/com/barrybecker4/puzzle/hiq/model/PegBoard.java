@@ -6,7 +6,6 @@ import com.barrybecker4.common.geometry.Location;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Immutable representation of a PegBoard.
@@ -40,6 +39,12 @@ public class PegBoard {
        INITIAL_BOARD_POSITION.setPosition(PegBoard.CENTER, PegBoard.CENTER, false);
     }
 
+    /** The only solved position. One peg left in the center. */
+    public static final PegBoard SOLVED_BOARD_POSITION = new PegBoard();
+    static {
+        SOLVED_BOARD_POSITION.setPosition(PegBoard.CENTER, PegBoard.CENTER, true);
+    }
+
     /**
      * Do not use this constructor since outsiders cannot create mutable boards.
      */
@@ -206,27 +211,44 @@ public class PegBoard {
         return nPegsLeft;
     }
 
-    public boolean containedIn(Set<PegBoard> setOfBoards) {
-        boolean visited = false;
-        for (int i = 0; i < PegBoardSymmetries.SYMMETRIES; i++) {
-              if (setOfBoards.contains(symmetry(i))) {
-                  visited = true;
-                  break;
-              }
+    /**
+     * Boards that are rotations or reflections of each other are the same for solving.
+     * The symmetries are applied to the bits of the code, so no boards are created to compare.
+     * @return the one of this board's 8 symmetries that has the lowest code.
+     */
+    public PegBoard canonical() {
+        long code = encode();
+        long lowestCode = code;
+        for (int i = 1; i < PegBoardSymmetries.SYMMETRIES; i++) {
+            lowestCode = Math.min(lowestCode, PegBoardSymmetries.transform(code, i));
+        }
+        return (lowestCode == code) ? this : decode(lowestCode);
+    }
+
+    /**
+     * @return all 33 holes packed into the low bits of a long. A bit is set where there is a peg.
+     */
+    public long encode() {
+        long code = bits_ & 0xffffffffL;
+        if (nextToFinalBit_) {
+            code |= 1L << (NUM_PEG_HOLES - 2);
         }
-        return visited;
+        if (finalBit_) {
+            code |= 1L << (NUM_PEG_HOLES - 1);
+        }
+        return code;
     }
 
     /**
-     * Check all 8 symmetries
-     * if rotateIndex = 0 then no rotation
-     * if rotateIndex = 1 mirror image of this,
-     * if rotateIndex = 2 then 90 degree rotation of this,
-     * if rotateIndex = 3 then mirror image of 2, etc
-     * @return specified rotation of the board.
+     * @param code value returned by encode
+     * @return the board that was encoded.
      */
-    private PegBoard symmetry(int symmIndex) {
-        return (symmIndex==0) ? this : rotate(PegBoardSymmetries.getSymmetry(symmIndex));
+    public static PegBoard decode(long code) {
+        PegBoard board = new PegBoard();
+        board.bits_ = (int) (code & ((1L << (NUM_PEG_HOLES - 2)) - 1));
+        board.nextToFinalBit_ = (code & (1L << (NUM_PEG_HOLES - 2))) != 0;
+        board.finalBit_ = (code & (1L << (NUM_PEG_HOLES - 1))) != 0;
+        return board;
     }
 
     @Override
@@ -245,19 +267,6 @@ public class PegBoard {
         return nextToFinalBit_ ? -bits_ : bits_;
     }
 
-    /**
-     * Rotate the board according to symmetry.
-     * Not all are rotational symmetries, but you get the idea....
-     * @return specified rotation of the board.
-     */
-    private PegBoard rotate(byte[] rotateIndices) {
-        PegBoard rotatedBoard = new PegBoard();
-        for (int i = 0; i < NUM_PEG_HOLES; i++)  {
-            rotatedBoard.set(i, get(rotateIndices[i]));
-        }
-        return rotatedBoard;
-    }
-
     @Override
     public String toString() {
         StringBuilder buf= new StringBuilder(finalBit_?"1":"0");
@@ -28,7 +28,16 @@ class PegBoardSymmetries {
     };
 
 
-    static byte[] getSymmetry(int symmIndex) {
-        return BOARD_SYMMETRY[symmIndex];
+    /**
+     * @param code a board encoded with PegBoard.encode, which has the peg in hole i at bit i.
+     * @return the code of the board with the specified symmetry applied.
+     */
+    static long transform(long code, int symmIndex) {
+        byte[] symmetry = BOARD_SYMMETRY[symmIndex];
+        long transformed = 0;
+        for (int i = 0; i < symmetry.length; i++) {
+            transformed |= ((code >>> symmetry[i]) & 1L) << i;
+        }
+        return transformed;
     }
 }
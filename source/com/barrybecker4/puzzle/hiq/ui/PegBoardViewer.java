@@ -36,10 +36,8 @@ final class PegBoardViewer extends PuzzleViewer<PegBoard, PegMove>
 
     @Override
     public void refresh(PegBoard board, long numTries) {
-        if (numTries % 4000 == 0) {
-            status_ = createStatusMessage(numTries);
-            simpleRefresh(board, numTries);
-        }
+        status_ = createStatusMessage(numTries);
+        simpleRefresh(board, numTries);
     }
 
     @Override
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 
 /**
  *  Stack of GenStates to try during the search.
@@ -16,6 +17,19 @@ import java.util.List;
  */
 public class StateStack extends LinkedList<GenState> {
 
+    private final Random random;
+
+    public StateStack() {
+        this(MathUtil.RANDOM);
+    }
+
+    /**
+     * @param random source of the random order in which directions are tried.
+     */
+    public StateStack(Random random) {
+        this.random = random;
+    }
+
     /**
      * From currentPosition, try moving in each direction in a random order.
      * Assigning different probabilities to the order in which we check these directions
@@ -38,7 +52,7 @@ public class StateStack extends LinkedList<GenState> {
      * they are ordered given the potentially skewed probabilities at the top.
      */
     private List<Direction> getShuffledDirections() {
-        double rnd = MathUtil.RANDOM.nextDouble();
+        double rnd = random.nextDouble();
         List<Direction> directions = new ArrayList<Direction>();
         List<Direction> originalDirections = new ArrayList<Direction>();
         originalDirections.addAll(Arrays.asList(Direction.values()));
@@ -74,7 +88,7 @@ public class StateStack extends LinkedList<GenState> {
      * @return  the second direction.
      */
     private Direction getSecondDir( List<Direction> twoDirections, double p1) {
-        double rnd = MathUtil.RANDOM.nextDouble();
+        double rnd = random.nextDouble();
         if ( rnd < p1 )
             return twoDirections.remove( 0 );
         else
@@ -35,6 +35,15 @@ public class RedPuzzleController extends AbstractPuzzleController<PieceList, Pie
         algorithm_ = Algorithm.BRUTE_FORCE_ORIGINAL;
     }
 
+    /**
+     * The viewer animates every piece placement at the chosen animation speed, so it must see every position.
+     * @return false
+     */
+    @Override
+    protected boolean isRefreshSampled() {
+        return false;
+    }
+
     @Override
     public PieceList initialPosition() {
         // empty piece list
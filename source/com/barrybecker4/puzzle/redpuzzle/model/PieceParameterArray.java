@@ -5,28 +5,41 @@ import com.barrybecker4.common.math.MathUtil;
 import com.barrybecker4.optimization.parameter.ParameterArray;
 import com.barrybecker4.optimization.parameter.PermutedParameterArray;
 
+import java.util.Random;
+
 /**
  * The parameter array to use when searching (using optimization) to find a red puzzle solution.
  * It has some unique properties.
  * For example, when finding a random neighbor, we consider rotations of
  * non-fitting pieces rather than just offsetting the number by some random amount.
+ * Arrays derived from this one, by copying or finding neighbors, use the same source of random numbers.
  *
  * @author Barry Becker
  */
 public class PieceParameterArray extends PermutedParameterArray {
 
     private PieceList pieces_ ;
+    private final Random random;
     private static final int NUM_PIECES = 9;
     private static final int SAMPLE_POPULATION_SIZE = 400;
 
 
     public PieceParameterArray(PieceList pieces) {
+        this(pieces, MathUtil.RANDOM);
+    }
+
+    /**
+     * @param pieces the pieces in the order they are placed.
+     * @param random source of the random choices made when finding neighbors.
+     */
+    public PieceParameterArray(PieceList pieces, Random random) {
         pieces_ = pieces;
+        this.random = random;
     }
 
     @Override
     public PieceParameterArray copy() {
-        PieceParameterArray copy = new PieceParameterArray(pieces_);
+        PieceParameterArray copy = new PieceParameterArray(pieces_, random);
 
         copy.setFitness(this.getFitness());
         return copy;
@@ -51,7 +64,7 @@ public class PieceParameterArray extends PermutedParameterArray {
         int numSwaps = 1;   //Math.max(1, (int) (rad * 2.0));
 
         for (int i = 0; i < numSwaps; i++) {
-            doPieceSwap(pieces);
+            doPieceSwap(pieces, random);
         }
         //assert !this.equals(new PieceParameterArray(pieces)) :
         //    "The piecelists should not be equal new=" + pieces + " orig=" + pieces_;
@@ -77,7 +90,7 @@ public class PieceParameterArray extends PermutedParameterArray {
             pieces.rotate(k, bestRot); // fix
         }
 
-        return new PieceParameterArray(pieces);
+        return new PieceParameterArray(pieces, random);
     }
 
     /**
@@ -87,17 +100,17 @@ public class PieceParameterArray extends PermutedParameterArray {
      * The probability of selecting pieces that already have fits is sharply reduced.
      * The denominator is 1 + the number of fits that the piece has.
      */
-    private static void doPieceSwap(PieceList pieces) {
+    private static void doPieceSwap(PieceList pieces, Random random) {
 
         double[] swapProbabilities = findSwapProbabilities(pieces);
         double totalProb = 0;
         for (int i = 0; i < NUM_PIECES; i++) {
             totalProb += swapProbabilities[i];
         }
-        int p1 = getPieceFromProb(totalProb * MathUtil.RANDOM.nextDouble(), swapProbabilities);
+        int p1 = getPieceFromProb(totalProb * random.nextDouble(), swapProbabilities);
         int p2;
         do {
-            p2 = getPieceFromProb(totalProb * MathUtil.RANDOM.nextDouble(), swapProbabilities);
+            p2 = getPieceFromProb(totalProb * random.nextDouble(), swapProbabilities);
         } while (p2 == p1);
 
         pieces.doSwap(p1, p2);
@@ -138,7 +151,7 @@ public class PieceParameterArray extends PermutedParameterArray {
     public ParameterArray getRandomSample() {
        PieceList pl = new PieceList(pieces_);
        PieceList shuffledPieces = pl.shuffle();
-       return new PieceParameterArray(shuffledPieces);
+       return new PieceParameterArray(shuffledPieces, random);
     }
 
     /**
@@ -4,12 +4,19 @@ package com.barrybecker4.puzzle.redpuzzle.solver;
 import com.barrybecker4.puzzle.common.AlgorithmEnum;
 import com.barrybecker4.puzzle.common.PuzzleController;
 import com.barrybecker4.puzzle.common.solver.AStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.BeamPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.ConcurrentPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.ForkJoinPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.IDAStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.PortfolioPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.SequentialPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.VirtualThreadPuzzleSolver;
 import com.barrybecker4.puzzle.redpuzzle.model.Piece;
 import com.barrybecker4.puzzle.redpuzzle.model.PieceList;
 
+import java.util.Arrays;
+
 /**
  * Enum for type of solver to employ when solving the puzzle.
  *
@@ -20,10 +27,15 @@ public enum Algorithm implements AlgorithmEnum<PieceList, Piece> {
     BRUTE_FORCE_ORIGINAL("Brute force (hand crafted)"),
     BRUTE_FORCE_SEQUENTIAL("Brute force (sequential)"),
     A_STAR_SEQUENTIAL("A* search (sequential)"),
+    IDA_STAR_SEQUENTIAL("IDA* search (sequential, low memory)"),
+    BEAM_SEARCH("Beam search (fast, not always the shortest)"),
     BRUTE_FORCE_CONCURRENT("Brute force (concurrent)"),
     BREADTH_FIRST_CONCURRENT("Mostly breath first concurrent"),
+    CONCURRENT_WORK_STEALING("Work stealing concurrent (one thread per core)"),
+    CONCURRENT_VIRTUAL_THREADS("Virtual thread concurrent (one running per core)"),
     GENETIC_SEARCH("Genetic search"),
-    CONCURRENT_GENETIC_SEARCH("Concurrent Genetic search");
+    CONCURRENT_GENETIC_SEARCH("Concurrent Genetic search"),
+    PORTFOLIO("Race brute force, A* and genetic search (first to finish wins)");
 
     private String label;
 
@@ -52,14 +64,28 @@ public enum Algorithm implements AlgorithmEnum<PieceList, Piece> {
                 return new SequentialPuzzleSolver<>(controller);
             case A_STAR_SEQUENTIAL :
                 return new AStarPuzzleSolver<>(controller);
+            case IDA_STAR_SEQUENTIAL :
+                return new IDAStarPuzzleSolver<>(controller);
+            case BEAM_SEARCH :
+                // keeps only the positions closest to the goal at each depth. Fast, but not always the shortest path
+                return new BeamPuzzleSolver<>(controller);
             case BRUTE_FORCE_CONCURRENT :
                 return new ConcurrentPuzzleSolver<>(controller, 0.2f);
             case BREADTH_FIRST_CONCURRENT :
                 return new ConcurrentPuzzleSolver<>(controller, 0.1f);
+            case CONCURRENT_WORK_STEALING :
+                return new ForkJoinPuzzleSolver<>(controller);
+            case CONCURRENT_VIRTUAL_THREADS :
+                // like BRUTE_FORCE_CONCURRENT, with a virtual thread per task and only one task running per core
+                return new VirtualThreadPuzzleSolver<>(controller, 0.2f);
             case GENETIC_SEARCH :
                 return new GeneticSearchSolver(controller, false);
             case CONCURRENT_GENETIC_SEARCH :
                 return new GeneticSearchSolver(controller, true);
+            case PORTFOLIO :
+                // which of these is fastest depends on how lucky the first choices are
+                return new PortfolioPuzzleSolver<>(controller,
+                        Arrays.asList(BRUTE_FORCE_SEQUENTIAL, A_STAR_SEQUENTIAL, GENETIC_SEARCH));
         }
         return null; //never reached
     }
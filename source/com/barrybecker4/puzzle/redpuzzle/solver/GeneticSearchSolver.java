@@ -6,12 +6,15 @@ import com.barrybecker4.optimization.optimizee.Optimizee;
 import com.barrybecker4.optimization.Optimizer;
 import com.barrybecker4.optimization.parameter.ParameterArray;
 import com.barrybecker4.optimization.strategy.OptimizationStrategyType;
+import com.barrybecker4.puzzle.common.PerThreadRandom;
 import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
 import com.barrybecker4.puzzle.redpuzzle.model.Piece;
 import com.barrybecker4.puzzle.redpuzzle.model.PieceList;
 import com.barrybecker4.puzzle.redpuzzle.model.PieceParameterArray;
 
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 /**
  * Solve the red puzzle using a genetic search algorithm.
@@ -38,6 +41,8 @@ public class GeneticSearchSolver extends RedPuzzleSolver
     /** either genetic or concurrent genetic strategy. */
     private OptimizationStrategyType strategy;
 
+    /** checked on every evaluation, since the optimizer has no way to be told to stop. */
+    private volatile SolveLimits limits;
 
     /** Constructor */
     public GeneticSearchSolver(PuzzleController<PieceList, Piece> puzzle,
@@ -52,8 +57,19 @@ public class GeneticSearchSolver extends RedPuzzleSolver
      */
     @Override
     public List<Piece> solve()  {
+        return solve(new SolveLimits());
+    }
 
-        ParameterArray initialGuess = new PieceParameterArray(pieces_);
+    /**
+     * The random choices of the search all follow from the seed of the limits.
+     * If a limit is reached, the optimizer is abandoned at its next evaluation.
+     * @return list of moves to a solution, or null if a limit was reached first.
+     */
+    @Override
+    public List<Piece> solve(SolveLimits limits)  {
+        this.limits = limits;
+        limits.start();
+        ParameterArray initialGuess = new PieceParameterArray(pieces_, new PerThreadRandom(limits.getSeed()));
         solution_ = pieces_;
         long startTime = System.currentTimeMillis();
 
@@ -61,15 +77,20 @@ public class GeneticSearchSolver extends RedPuzzleSolver
 
         optimizer.setListener(this);
 
-        ParameterArray solution =
-            optimizer.doOptimization(strategy, initialGuess, MAX_FITS);
+        List<Piece> moves = null;
+        try {
+            ParameterArray solution =
+                optimizer.doOptimization(strategy, initialGuess, MAX_FITS);
 
-        solution_ = ((PieceParameterArray)solution).getPieceList();
-        List<Piece> moves;
-        if (evaluateFitness(solution) >= MAX_FITS) {
-            moves = solution_.getPieces();
-        } else {
-            moves = null;
+            solution_ = ((PieceParameterArray)solution).getPieceList();
+            if (evaluateFitness(solution) >= MAX_FITS) {
+                moves = solution_.getPieces();
+            }
+        } catch (RuntimeException e) {
+            // the concurrent strategy may wrap the cancellation thrown by evaluateFitness
+            if (!limits.wasStopped()) {
+                throw e;
+            }
         }
         long elapsedTime = System.currentTimeMillis() - startTime;
         puzzle.finalRefresh(moves, solution_, numTries_, elapsedTime);
@@ -98,8 +119,12 @@ public class GeneticSearchSolver extends RedPuzzleSolver
      *
      * @param params  parameters
      * @return fitness value. High is good.
+     * @throws CancellationException if a limit of the solve has been reached.
      */
     public double evaluateFitness(ParameterArray params) {
+        if (limits != null && limits.isReached(numTries_)) {
+            throw new CancellationException("Genetic search stopped: " + limits.getStopReason());
+        }
         PieceList pieces = ((PieceParameterArray) params).getPieceList();
         double fitness = getNumFits(pieces);
         params.setFitness(fitness);
@@ -3,6 +3,8 @@ package com.barrybecker4.puzzle.redpuzzle.solver;
 
 import com.barrybecker4.puzzle.common.PuzzleController;
 import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
 import com.barrybecker4.puzzle.redpuzzle.model.Piece;
 import com.barrybecker4.puzzle.redpuzzle.model.PieceList;
 
@@ -30,6 +32,9 @@ public abstract class RedPuzzleSolver
 
     PuzzleController<PieceList, Piece> puzzle;
 
+    /** not updated by these solvers yet. */
+    private final SolverMetrics metrics = new SolverMetrics();
+
     /**
      * Constructor
      * @param puzzle the puzzle to solve.
@@ -47,4 +52,17 @@ public abstract class RedPuzzleSolver
     @Override
     public abstract List<Piece> solve();
 
+    /**
+     * The red puzzle is small enough to always solve quickly, so the limits are ignored.
+     */
+    @Override
+    public List<Piece> solve(SolveLimits limits) {
+        return solve();
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
 }
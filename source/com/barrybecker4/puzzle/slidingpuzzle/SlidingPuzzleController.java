@@ -1,12 +1,15 @@
 /** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
 package com.barrybecker4.puzzle.slidingpuzzle;
 
+import com.barrybecker4.puzzle.common.MoveSink;
 import com.barrybecker4.puzzle.common.Refreshable;
 import com.barrybecker4.puzzle.common.ui.AbstractPuzzleController;
+import com.barrybecker4.puzzle.slidingpuzzle.model.ManhattanDistanceFinder;
 import com.barrybecker4.puzzle.slidingpuzzle.model.Slider;
 import com.barrybecker4.puzzle.slidingpuzzle.model.SlideMove;
 import com.barrybecker4.puzzle.slidingpuzzle.model.MoveGenerator;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -52,6 +55,11 @@ public class SlidingPuzzleController extends AbstractPuzzleController<Slider, Sl
         return new MoveGenerator(position).generateMoves();
     }
 
+    @Override
+    public void forEachMove(Slider position, MoveSink<SlideMove> sink) {
+        new MoveGenerator(position).generateMoves(sink);
+    }
+
     @Override
     public Slider move(Slider position, SlideMove move) {
         return position.doMove(move);
@@ -69,4 +77,60 @@ public class SlidingPuzzleController extends AbstractPuzzleController<Slider, Sl
     public int distanceFromGoal(Slider position) {
         return position.distanceToGoal();
     }
+
+    /**
+     * Only the two tiles that the move swaps change their distance.
+     * @return the manhattan distance of the child, from that of its parent.
+     */
+    @Override
+    public int distanceFromGoal(Slider parent, SlideMove move, int parentDistance, Slider child) {
+        return new ManhattanDistanceFinder().findDistance(parent, move, parentDistance);
+    }
+
+    /**
+     * A board and its mirror image across the main diagonal are searched as one.
+     * @return the first of the board and its transpose.
+     */
+    @Override
+    public Slider canonicalize(Slider position) {
+        return position.canonical();
+    }
+
+    /** Every slide can be undone by sliding the tile back. */
+    @Override
+    public boolean isReversible() {
+        return true;
+    }
+
+    @Override
+    public List<Slider> goalPositions() {
+        return Collections.singletonList(new Slider(initialPosition.getSize(), false));
+    }
+
+    @Override
+    public List<SlideMove> predecessorMoves(Slider position) {
+        return new MoveGenerator(position).generatePredecessorMoves();
+    }
+
+    /** Sliding the same tile again swaps it back. */
+    @Override
+    public Slider unmove(Slider position, SlideMove move) {
+        return position.doMove(move);
+    }
+
+    /** @return true if the board is small enough for its tiles to fit in a long. */
+    @Override
+    public boolean canEncode() {
+        return initialPosition.getSize() <= Slider.MAX_ENCODABLE_SIZE;
+    }
+
+    @Override
+    public long encode(Slider position) {
+        return position.encode();
+    }
+
+    @Override
+    public Slider decode(long code) {
+        return Slider.decode(code, initialPosition.getSize());
+    }
 }
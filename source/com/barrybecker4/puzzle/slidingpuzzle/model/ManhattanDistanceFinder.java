@@ -25,6 +25,27 @@ public class ManhattanDistanceFinder {
         return sum;
     }
 
+    /**
+     * A move swaps two tiles (one of them the blank), so only the distances of those two change.
+     * @param board the board before the move.
+     * @param move the move made.
+     * @param distance the distance of the board before the move.
+     * @return the distance of the board after the move. The same as findDistance of that board.
+     */
+    public int findDistance(Slider board, SlideMove move, int distance) {
+        byte size = board.getSize();
+        byte fromRow = move.getFromRow();
+        byte fromCol = move.getFromCol();
+        byte toRow = move.getToRow();
+        byte toCol = move.getToCol();
+        byte fromValue = board.getPosition(fromRow, fromCol);
+        byte toValue = board.getPosition(toRow, toCol);
+
+        return distance
+                - distance(fromRow, fromCol, fromValue, size) - distance(toRow, toCol, toValue, size)
+                + distance(fromRow, fromCol, toValue, size) + distance(toRow, toCol, fromValue, size);
+    }
+
     private int distance(int goalRow, int goalCol, byte value, byte size) {
         return Math.abs((value / size) - goalRow) + Math.abs((value % size) - goalCol);
     }
@@ -3,12 +3,17 @@ package com.barrybecker4.puzzle.slidingpuzzle.model;
 
 import com.barrybecker4.common.geometry.ByteLocation;
 import com.barrybecker4.common.geometry.Location;
+import com.barrybecker4.puzzle.common.MoveSink;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Sliding Puzzle move generator. Generates valid next moves.
+ * A board of a given size has only a few different slides (24 for 4x4), so each is created once,
+ * the first time a board of that size is seen, and the same SlideMove is handed out every time it is legal.
  *
  * @author Barry Becker
  */
@@ -23,6 +28,12 @@ public class MoveGenerator  {
         new ByteLocation(0, 1)
     };
 
+    /**
+     * For each board size, every possible slide indexed by the location slid to (row * size + col),
+     * and then by the offset of the location slid from. Null if that is off the board.
+     */
+    private static final ConcurrentMap<Integer, SlideMove[][]> SLIDES = new ConcurrentHashMap<>();
+
     /**
      * Constructor
      */
@@ -35,6 +46,34 @@ public class MoveGenerator  {
      * @return List of all valid tile slides
      */
     public List<SlideMove> generateMoves() {
+        final List<SlideMove> moves = new LinkedList<>();
+        generateMoves(new MoveSink<SlideMove>() {
+            @Override
+            public void accept(SlideMove move) {
+                moves.add(move);
+            }
+        });
+        return moves;
+    }
+
+    /**
+     * Pass all the tiles that can slide into the current empty position to the sink, without allocating anything.
+     * @param sink receives the slides in the same order as generateMoves lists them.
+     */
+    public void generateMoves(MoveSink<SlideMove> sink) {
+        SlideMove[] slides = getSlides(board.getSize())[getEmptyIndex()];
+        for (SlideMove slide : slides) {
+            if (slide != null) {
+                sink.accept(slide);
+            }
+        }
+    }
+
+    /**
+     * Previous moves are all the slides of the tile where the blank is now, from a neighboring position.
+     * @return List of all tile slides that could have led to the current board.
+     */
+    public List<SlideMove> generatePredecessorMoves() {
         List<SlideMove> moves = new LinkedList<>();
 
         Location blankLocation = board.getEmptyLocation();
@@ -44,9 +83,52 @@ public class MoveGenerator  {
             int col = blankLocation.getCol() + loc.getCol();
             ByteLocation newLoc = new ByteLocation(row, col);
             if (board.isValidPosition(newLoc)) {
-                moves.add(new SlideMove(newLoc, blankLocation)) ;
+                moves.add(new SlideMove(blankLocation, newLoc)) ;
             }
         }
         return moves;
     }
+
+    /** @return row * size + col of the empty space. Like getEmptyLocation, but without creating a Location. */
+    private int getEmptyIndex() {
+        byte size = board.getSize();
+        for (byte row = 0; row < size; row++) {
+            for (byte col = 0; col < size; col++) {
+                if (board.getPosition(row, col) == 0) {
+                    return row * size + col;
+                }
+            }
+        }
+        throw new IllegalStateException("There should have been a blank space");
+    }
+
+    /** @return all the slides on a board of the specified size, creating them the first time. */
+    private static SlideMove[][] getSlides(int size) {
+        SlideMove[][] slides = SLIDES.get(size);
+        if (slides == null) {
+            slides = createSlides(size);
+            SlideMove[][] existing = SLIDES.putIfAbsent(size, slides);
+            if (existing != null) {
+                slides = existing;
+            }
+        }
+        return slides;
+    }
+
+    private static SlideMove[][] createSlides(int size) {
+        SlideMove[][] slides = new SlideMove[size * size][OFFSETS.length];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                ByteLocation to = new ByteLocation(row, col);
+                for (int i = 0; i < OFFSETS.length; i++) {
+                    int fromRow = row + OFFSETS[i].getRow();
+                    int fromCol = col + OFFSETS[i].getCol();
+                    if (fromRow >= 0 && fromRow < size && fromCol >= 0 && fromCol < size) {
+                        slides[row * size + col][i] = new SlideMove(new ByteLocation(fromRow, fromCol), to);
+                    }
+                }
+            }
+        }
+        return slides;
+    }
 }
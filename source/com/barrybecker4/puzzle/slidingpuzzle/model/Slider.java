@@ -21,6 +21,12 @@ public class Slider {
     /** Size of the board edge. If size = 4, then there will be 16-1 = 15 tiles. */
     private byte size;
 
+    /** Bigger boards have too many tiles to encode in a long. */
+    public static final int MAX_ENCODABLE_SIZE = 4;
+
+    /** number of bits used for each tile in the encoded form */
+    private static final int BITS_PER_TILE = 4;
+
     /** Represents the four different directions that a tile can move */
     private static final List<Integer> INDICES = Arrays.asList(0, 1, 2, 3);
 
@@ -180,6 +186,75 @@ public class Slider {
         return new ManhattanDistanceFinder().findDistance(this);
     }
 
+    /**
+     * Boards that are mirror images across the main diagonal are the same for solving, once the
+     * tiles are renumbered to match. Tile v moves to where v would be in the transposed goal, so the
+     * goal maps to itself and every tile stays as far from its goal as it was.
+     * @return whichever of this board and its transpose comes first, reading the tiles across and down.
+     */
+    public Slider canonical() {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int diff = tiles[row][col] - transposedTile(row, col);
+                if (diff != 0) {
+                    return (diff < 0) ? this : transpose();
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the board reflected across its main diagonal, with tile numbers reflected the same way.
+     */
+    public Slider transpose() {
+        Slider transposed = new Slider(size, false);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                transposed.tiles[row][col] = transposedTile(row, col);
+            }
+        }
+        return transposed;
+    }
+
+    /** @return the tile at the specified location of the transposed board. */
+    private byte transposedTile(int row, int col) {
+        byte value = tiles[col][row];
+        return (byte) ((value % size) * size + value / size);
+    }
+
+    /**
+     * Pack the tiles, read across and down, into a long.
+     * Only valid if the size is no more than MAX_ENCODABLE_SIZE.
+     * @return code that uniquely identifies this arrangement of tiles for boards of this size.
+     */
+    public long encode() {
+        long code = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                code = (code << BITS_PER_TILE) | tiles[row][col];
+            }
+        }
+        return code;
+    }
+
+    /**
+     * @param code value returned by encode
+     * @param size the edge length of the board that was encoded.
+     * @return the board that was encoded.
+     */
+    public static Slider decode(long code, int size) {
+        Slider slider = new Slider(size, false);
+        long tileMask = (1 << BITS_PER_TILE) - 1;
+        for (int row = size - 1; row >= 0; row--) {
+            for (int col = size - 1; col >= 0; col--) {
+                slider.tiles[row][col] = (byte) (code & tileMask);
+                code >>>= BITS_PER_TILE;
+            }
+        }
+        return slider;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
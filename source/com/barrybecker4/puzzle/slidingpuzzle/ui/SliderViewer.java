@@ -37,11 +37,9 @@ final class SliderViewer extends PuzzleViewer<Slider, SlideMove>
     @Override
     public void refresh(Slider board, long numTries) {
         board_ = board;
-        if (numTries % 500 == 0) {
-            makeSound();
-            status_ = createStatusMessage(numTries);
-            simpleRefresh(board, numTries);
-        }
+        makeSound();
+        status_ = createStatusMessage(numTries);
+        simpleRefresh(board, numTries);
     }
 
     @Override
@@ -1,8 +1,11 @@
 // Copyright by Barry G. Becker, 2012. Licensed under MIT License: http://www.opensource.org/licenses/MIT
 package com.barrybecker4.puzzle.tantrix.model;
 
+import com.barrybecker4.common.math.MathUtil;
 import com.barrybecker4.puzzle.tantrix.solver.path.TantrixPath;
 
+import java.util.Random;
+
 /**
  * Generates random continuous primary color paths that do not necessarily match on secondary colors.
  *
@@ -12,14 +15,24 @@ public class RandomPathGenerator {
 
     private TantrixBoard initialBoard;
     private RandomTilePlacer tilePlacer;
+    private Random random;
 
 
     /**
      * Constructor
      */
     public RandomPathGenerator(TantrixBoard board) {
+        this(board, MathUtil.RANDOM);
+    }
+
+    /**
+     * @param board the tiles to make a path from.
+     * @param random source of the random choices. The path generated uses it too.
+     */
+    public RandomPathGenerator(TantrixBoard board, Random random) {
         this.initialBoard = board;
-        tilePlacer = new RandomTilePlacer(board.getPrimaryColor());
+        this.random = random;
+        tilePlacer = new RandomTilePlacer(board.getPrimaryColor(), random);
     }
 
     /**
@@ -36,6 +49,6 @@ public class RandomPathGenerator {
             //}
             currentBoard = currentBoard.placeTile(placement);
         }
-        return new TantrixPath(currentBoard.getTantrix(), initialBoard.getPrimaryColor());
+        return new TantrixPath(currentBoard.getTantrix(), initialBoard.getPrimaryColor(), random);
     }
 }
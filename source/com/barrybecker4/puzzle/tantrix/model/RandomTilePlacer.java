@@ -7,6 +7,7 @@ import com.barrybecker4.puzzle.tantrix.model.fitting.PrimaryPathFitter;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Random;
 
 /**
  * Generates random continuous primary color paths that do not necessarily match on secondary colors.
@@ -16,12 +17,22 @@ import java.util.Map;
 public class RandomTilePlacer {
 
     private PathColor primaryColor;
+    private Random random;
 
     /**
      * Constructor
      */
     public RandomTilePlacer(PathColor primaryColor) {
+        this(primaryColor, MathUtil.RANDOM);
+    }
+
+    /**
+     * @param primaryColor color of the path to extend.
+     * @param random source of the random choices of tiles and placements.
+     */
+    public RandomTilePlacer(PathColor primaryColor, Random random) {
         this.primaryColor = primaryColor;
+        this.random = random;
     }
 
     /**
@@ -33,7 +44,7 @@ public class RandomTilePlacer {
     public TilePlacement generatePlacement(TantrixBoard board) {
 
         HexTileList unplacedTiles = (HexTileList) board.getUnplacedTiles().clone();
-        Collections.shuffle(unplacedTiles, MathUtil.RANDOM);
+        Collections.shuffle(unplacedTiles, random);
 
         TilePlacement nextMove = null;
         int i=0;
@@ -91,7 +102,7 @@ public class RandomTilePlacer {
             return null;
         }
 
-        return validFits.get(MathUtil.RANDOM.nextInt(validFits.size()));
+        return validFits.get(random.nextInt(validFits.size()));
     }
 
     /**
@@ -4,12 +4,19 @@ package com.barrybecker4.puzzle.tantrix.solver;
 import com.barrybecker4.puzzle.common.AlgorithmEnum;
 import com.barrybecker4.puzzle.common.PuzzleController;
 import com.barrybecker4.puzzle.common.solver.AStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.BeamPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.ConcurrentPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.ForkJoinPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.IDAStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.PortfolioPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.SequentialPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.VirtualThreadPuzzleSolver;
 import com.barrybecker4.puzzle.tantrix.model.TantrixBoard;
 import com.barrybecker4.puzzle.tantrix.model.TilePlacement;
 
+import java.util.Arrays;
+
 /**
  * Enum for type of solver to employ when solving the puzzle.
  *
@@ -19,11 +26,16 @@ public enum Algorithm implements AlgorithmEnum<TantrixBoard, TilePlacement> {
 
     SEQUENTIAL("Solve sequentially (May run out of mem if >10)"),
     A_STAR("Solve sequentially using A* search"),
+    IDA_STAR("Solve sequentially using IDA* search (low memory)"),
+    BEAM_SEARCH("Solve concurrently using beam search (fast, not always the shortest)"),
     CONCURRENT_BREADTH("Solve concurrently (mostly breadth first)"),
     CONCURRENT_DEPTH("Solve concurrently (mostly depth first)"),
     CONCURRENT_OPTIMUM("Solve concurrently (optimized between depth and breadth search)"),
+    CONCURRENT_WORK_STEALING("Solve concurrently (work stealing, one thread per core)"),
+    CONCURRENT_VIRTUAL_THREADS("Solve concurrently (virtual threads, one running per core)"),
     GENETIC_SEARCH("Genetic search"),
-    CONCURRENT_GENETIC_SEARCH("Concurrent Genetic search");
+    CONCURRENT_GENETIC_SEARCH("Concurrent Genetic search"),
+    PORTFOLIO("Race sequential, concurrent and genetic search (first to finish wins)");
 
     private String label;
 
@@ -50,16 +62,32 @@ public enum Algorithm implements AlgorithmEnum<TantrixBoard, TilePlacement> {
                 return new SequentialPuzzleSolver<>(controller);
             case A_STAR :
                 return new AStarPuzzleSolver<>(controller);
+            case IDA_STAR :
+                return new IDAStarPuzzleSolver<>(controller);
+            case BEAM_SEARCH :
+                // distanceFromGoal is expensive here, so the children of the beam are found in parallel
+                return new BeamPuzzleSolver<>(controller, BeamPuzzleSolver.DEFAULT_BEAM_WIDTH,
+                        Runtime.getRuntime().availableProcessors());
             case CONCURRENT_BREADTH :
                 return new ConcurrentPuzzleSolver<>(controller, 0.4f);
             case CONCURRENT_DEPTH :
                 return new ConcurrentPuzzleSolver<>(controller, 0.12f);
             case CONCURRENT_OPTIMUM :
                 return new ConcurrentPuzzleSolver<>(controller, 0.2f);
+            case CONCURRENT_WORK_STEALING :
+                // one thread per core. Depth first on each thread, with idle threads stealing shallow work
+                return new ForkJoinPuzzleSolver<>(controller);
+            case CONCURRENT_VIRTUAL_THREADS :
+                // like CONCURRENT_OPTIMUM, with a virtual thread per task and only one task running per core
+                return new VirtualThreadPuzzleSolver<>(controller, 0.2f);
             case GENETIC_SEARCH :
                 return new GeneticSearchSolver(controller, false);
             case CONCURRENT_GENETIC_SEARCH :
                 return new GeneticSearchSolver(controller, true);
+            case PORTFOLIO :
+                // which of these is fastest varies a lot from one set of tiles to the next
+                return new PortfolioPuzzleSolver<>(controller,
+                        Arrays.asList(SEQUENTIAL, CONCURRENT_OPTIMUM, GENETIC_SEARCH));
         }
         return null;
     }
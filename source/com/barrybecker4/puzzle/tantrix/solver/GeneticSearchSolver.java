@@ -6,13 +6,17 @@ import com.barrybecker4.optimization.optimizee.Optimizee;
 import com.barrybecker4.optimization.Optimizer;
 import com.barrybecker4.optimization.parameter.ParameterArray;
 import com.barrybecker4.optimization.strategy.OptimizationStrategyType;
+import com.barrybecker4.puzzle.common.PerThreadRandom;
 import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
 import com.barrybecker4.puzzle.tantrix.model.TantrixBoard;
 import com.barrybecker4.puzzle.tantrix.model.TilePlacement;
 import com.barrybecker4.puzzle.tantrix.model.TilePlacementList;
 import com.barrybecker4.puzzle.tantrix.solver.path.PathEvaluator;
 import com.barrybecker4.puzzle.tantrix.solver.path.TantrixPath;
 
+import java.util.concurrent.CancellationException;
+
 import static com.barrybecker4.puzzle.tantrix.solver.path.PathEvaluator.SOLVED_THRESH;
 
 /**
@@ -30,6 +34,9 @@ public class GeneticSearchSolver extends TantrixSolver
     private PathEvaluator evaluator;
     private PuzzleController<TantrixBoard, TilePlacement> controller;
 
+    /** checked on every evaluation, since the optimizer has no way to be told to stop. */
+    private volatile SolveLimits limits;
+
 
     /** Constructor */
     public GeneticSearchSolver(PuzzleController<TantrixBoard, TilePlacement> controller,
@@ -46,25 +53,41 @@ public class GeneticSearchSolver extends TantrixSolver
      */
     @Override
     public TilePlacementList solve()  {
+        return solve(new SolveLimits());
+    }
 
-        ParameterArray initialGuess = new TantrixPath(board);
+    /**
+     * The random choices of the search all follow from the seed of the limits.
+     * If a limit is reached, the optimizer is abandoned at its next evaluation.
+     * @return list of moves to a solution, or null if a limit was reached first.
+     */
+    @Override
+    public TilePlacementList solve(SolveLimits limits)  {
+        this.limits = limits;
+        limits.start();
+        ParameterArray initialGuess = new TantrixPath(board, new PerThreadRandom(limits.getSeed()));
         assert(initialGuess.size() > 0) : "The random path should have some tiles!";
         long startTime = System.currentTimeMillis();
 
         Optimizer optimizer = new Optimizer(this);
         optimizer.setListener(this);
 
-        ParameterArray solution =
-            optimizer.doOptimization(strategy, initialGuess, SOLVED_THRESH);
-
-        solution_ =
-            new TantrixBoard(((TantrixPath)solution).getTilePlacements(), board.getPrimaryColor());
-
-        TilePlacementList moves;
-        if (evaluateFitness(solution) >= SOLVED_THRESH) {
-            moves = ((TantrixPath)solution).getTilePlacements();
-        } else {
-            moves = null;
+        TilePlacementList moves = null;
+        try {
+            ParameterArray solution =
+                optimizer.doOptimization(strategy, initialGuess, SOLVED_THRESH);
+
+            solution_ =
+                new TantrixBoard(((TantrixPath)solution).getTilePlacements(), board.getPrimaryColor());
+
+            if (evaluateFitness(solution) >= SOLVED_THRESH) {
+                moves = ((TantrixPath)solution).getTilePlacements();
+            }
+        } catch (RuntimeException e) {
+            // the concurrent strategy may wrap the cancellation thrown by evaluateFitness
+            if (!limits.wasStopped()) {
+                throw e;
+            }
         }
         long elapsedTime = System.currentTimeMillis() - startTime;
         controller.finalRefresh(moves, solution_, numTries_, elapsedTime);
@@ -93,8 +116,12 @@ public class GeneticSearchSolver extends TantrixSolver
      *
      * @param params  parameters
      * @return fitness value. High is good.
+     * @throws CancellationException if a limit of the solve has been reached.
      */
     public double evaluateFitness(ParameterArray params) {
+        if (limits != null && limits.isReached(numTries_)) {
+            throw new CancellationException("Genetic search stopped: " + limits.getStopReason());
+        }
 
         double fitness = evaluator.evaluateFitness((TantrixPath) params);
         params.setFitness(fitness);
@@ -2,6 +2,8 @@
 package com.barrybecker4.puzzle.tantrix.solver;
 
 import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
 import com.barrybecker4.puzzle.tantrix.model.TantrixBoard;
 import com.barrybecker4.puzzle.tantrix.model.TilePlacement;
 import com.barrybecker4.puzzle.tantrix.model.TilePlacementList;
@@ -20,6 +22,9 @@ public abstract class TantrixSolver
     protected TantrixBoard board;
     protected TantrixBoard solution_;
 
+    /** not updated by these solvers yet. */
+    private final SolverMetrics metrics = new SolverMetrics();
+
     /**
      * Constructor
      * @param board board with the unplaced pieces.
@@ -34,6 +39,19 @@ public abstract class TantrixSolver
      */
     public abstract TilePlacementList solve();
 
+    /**
+     * The limits are not applied yet. The search runs until the strategy decides it is done.
+     */
+    @Override
+    public TilePlacementList solve(SolveLimits limits) {
+        return solve();
+    }
+
+    @Override
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * @return the list of successfully placed pieces so far.
      */
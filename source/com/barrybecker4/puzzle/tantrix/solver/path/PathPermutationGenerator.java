@@ -2,7 +2,6 @@
 package com.barrybecker4.puzzle.tantrix.solver.path;
 
 import com.barrybecker4.common.math.MathUtil;
-import com.barrybecker4.optimization.parameter.PermutedParameterArray;
 import com.barrybecker4.puzzle.tantrix.model.TilePlacementList;
 import com.barrybecker4.puzzle.tantrix.solver.path.permuting.PathPivotPermuter;
 import com.barrybecker4.puzzle.tantrix.solver.path.permuting.SameTypeTileMixer;
@@ -13,6 +12,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 /**
@@ -26,6 +26,7 @@ import java.util.Set;
 public class PathPermutationGenerator  {
 
     private TantrixPath path;
+    private Random random;
     private PathEvaluator evaluator_ = new PathEvaluator();
     private static Set<TantrixPath> cache = new HashSet<TantrixPath>();
 
@@ -34,7 +35,16 @@ public class PathPermutationGenerator  {
      * @param path to permute
      */
     public PathPermutationGenerator(TantrixPath path) {
+        this(path, MathUtil.RANDOM);
+    }
+
+    /**
+     * @param path to permute
+     * @param random source of the random choices of permutations.
+     */
+    public PathPermutationGenerator(TantrixPath path, Random random) {
         this.path = path;
+        this.random = random;
     }
 
     /**
@@ -51,7 +61,7 @@ public class PathPermutationGenerator  {
      *   more than one spot.
      * @return the random nbr (potential solution).
      */
-    public PermutedParameterArray getRandomNeighbor(double radius) {
+    public TantrixPath getRandomNeighbor(double radius) {
 
         List<TantrixPath> pathPermutations = findPermutedPaths(radius);
 
@@ -90,7 +100,7 @@ public class PathPermutationGenerator  {
         }
         else if (permutedPaths.isEmpty()) {
             List<PathType> types = Arrays.asList(PathType.values());
-            Collections.shuffle(types, MathUtil.RANDOM);
+            Collections.shuffle(types, random);
             Iterator<PathType> typeIter = types.iterator();
 
             do {
@@ -104,8 +114,8 @@ public class PathPermutationGenerator  {
 
             List<TantrixPath> paths;
             do {
-                int pivotIndex1 = 1 + MathUtil.RANDOM.nextInt(tiles.size()-2);
-                int pivotIndex2 = 1 + MathUtil.RANDOM.nextInt(tiles.size()-2);
+                int pivotIndex1 = 1 + random.nextInt(tiles.size()-2);
+                int pivotIndex2 = 1 + random.nextInt(tiles.size()-2);
                 paths = permuter.findPermutedPaths(pivotIndex1, pivotIndex2);
                 System.out.println("paths unexpectedly empty! when p1="+pivotIndex1 + " p2="+ pivotIndex2);
             } while (paths.isEmpty());
@@ -117,7 +127,7 @@ public class PathPermutationGenerator  {
 
     private int rand(int inc) {
         if (inc <= 1) return 1;
-        else return 1 + MathUtil.RANDOM.nextInt(inc);
+        else return 1 + random.nextInt(inc);
     }
 
     /**
@@ -182,7 +192,7 @@ public class PathPermutationGenerator  {
         }
         scores.add(10000.0);
 
-        double r = MathUtil.RANDOM.nextDouble() * totalScore;
+        double r = random.nextDouble() * totalScore;
 
         double total = 0;
         int ct = 0;
@@ -2,6 +2,7 @@
 package com.barrybecker4.puzzle.tantrix.solver.path;
 
 import com.barrybecker4.common.geometry.Location;
+import com.barrybecker4.common.math.MathUtil;
 import com.barrybecker4.optimization.parameter.ParameterArray;
 import com.barrybecker4.optimization.parameter.PermutedParameterArray;
 import com.barrybecker4.puzzle.tantrix.model.HexTileList;
@@ -14,6 +15,7 @@ import com.barrybecker4.puzzle.tantrix.model.TilePlacement;
 import com.barrybecker4.puzzle.tantrix.model.TilePlacementList;
 
 import java.util.Map;
+import java.util.Random;
 
 /**
  * A list of tiles representing a primary color path that is used when searching to find a tantrix solution.
@@ -21,6 +23,7 @@ import java.util.Map;
  * For example, when finding a random neighbor, we select a tile at random and then consider all the
  * 7 other permutations of attaching the current path segments on either side. If any of those give a path
  * with a higher score that is what we use for the permuted path.
+ * Paths derived from this one, by copying or finding neighbors, use the same source of random numbers.
  *
  * @author Barry Becker
  */
@@ -28,6 +31,7 @@ public class TantrixPath extends PermutedParameterArray {
 
     private TilePlacementList tiles_;
     private PathColor primaryPathColor_;
+    private Random random = MathUtil.RANDOM;
 
     /**
      * The list of tiles that are passed in must be a continuous primary path,
@@ -57,17 +61,37 @@ public class TantrixPath extends PermutedParameterArray {
         this(new Pathifier(primaryColor).reorder(tantrix), primaryColor);
     }
 
+    /**
+     * @param tantrix ordered path tiles.
+     * @param primaryColor primary color
+     * @param random source of the random choices made when finding neighbors.
+     */
+    public TantrixPath(Tantrix tantrix, PathColor primaryColor, Random random) {
+        this(tantrix, primaryColor);
+        this.random = random;
+    }
+
     /**
      * Creates a random path given a board state.
      * @param board placed tiles
      */
     public TantrixPath(TantrixBoard board) {
+        this(board, MathUtil.RANDOM);
+    }
+
+    /**
+     * Creates a random path given a board state.
+     * @param board placed tiles
+     * @param random source of the random choices made creating it, and when finding neighbors.
+     */
+    public TantrixPath(TantrixBoard board, Random random) {
 
         TantrixBoard myBoard = new TantrixBoard(board.getAllTiles());
-        RandomPathGenerator gen = new RandomPathGenerator(myBoard);
+        RandomPathGenerator gen = new RandomPathGenerator(myBoard, random);
         TantrixPath path = gen.generateRandomPath();
         this.tiles_ = path.tiles_;
         this.primaryPathColor_ = board.getPrimaryColor();
+        this.random = random;
     }
 
     public TilePlacement getFirst() {
@@ -106,6 +130,7 @@ public class TantrixPath extends PermutedParameterArray {
     @Override
     public TantrixPath copy() {
         TantrixPath copy = new TantrixPath(tiles_, primaryPathColor_);
+        copy.random = random;
         copy.setFitness(this.getFitness());
         return copy;
     }
@@ -152,8 +177,10 @@ public class TantrixPath extends PermutedParameterArray {
     @Override
     public PermutedParameterArray getRandomNeighbor(double radius) {
 
-        PathPermutationGenerator generator = new PathPermutationGenerator(this);
-        return generator.getRandomNeighbor(radius);
+        PathPermutationGenerator generator = new PathPermutationGenerator(this, random);
+        TantrixPath neighbor = generator.getRandomNeighbor(radius);
+        neighbor.random = random;
+        return neighbor;
     }
 
     /**
@@ -163,7 +190,7 @@ public class TantrixPath extends PermutedParameterArray {
     public ParameterArray getRandomSample() {
 
         TantrixBoard board = new TantrixBoard(new HexTileList(tiles_));
-        RandomPathGenerator gen = new RandomPathGenerator(board);
+        RandomPathGenerator gen = new RandomPathGenerator(board, random);
         return gen.generateRandomPath();
     }
 
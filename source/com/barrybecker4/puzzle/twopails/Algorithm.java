@@ -5,9 +5,17 @@ import com.barrybecker4.common.app.AppContext;
 import com.barrybecker4.puzzle.common.AlgorithmEnum;
 import com.barrybecker4.puzzle.common.PuzzleController;
 import com.barrybecker4.puzzle.common.solver.AStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.AnytimeAStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.BeamPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.CompactAStarPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.ConcurrentPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.ForkJoinPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.HashDistributedAStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.IDAStarPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.RefreshingSolutionListener;
 import com.barrybecker4.puzzle.common.solver.SequentialPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.VirtualThreadPuzzleSolver;
 import com.barrybecker4.puzzle.twopails.model.Pails;
 import com.barrybecker4.puzzle.twopails.model.PourOperation;
 
@@ -20,9 +28,16 @@ public enum Algorithm implements AlgorithmEnum<Pails, PourOperation> {
 
     SIMPLE_SEQUENTIAL,
     A_STAR_SEQUENTIAL,
+    A_STAR_COMPACT,
+    ANYTIME_A_STAR,
+    A_STAR_CONCURRENT,
+    IDA_STAR_SEQUENTIAL,
+    BEAM_SEARCH,
     CONCURRENT_BREADTH,
     CONCURRENT_DEPTH,
-    CONCURRENT_OPTIMUM;
+    CONCURRENT_OPTIMUM,
+    CONCURRENT_WORK_STEALING,
+    CONCURRENT_VIRTUAL_THREADS;
 
     private String label;
 
@@ -51,6 +66,23 @@ public enum Algorithm implements AlgorithmEnum<Pails, PourOperation> {
                 return new SequentialPuzzleSolver<>(controller);
             case A_STAR_SEQUENTIAL :
                 return new AStarPuzzleSolver<>(controller);
+            case A_STAR_COMPACT :
+                // A* that stores its nodes in primitive arrays, so it can search further in the same memory
+                return new CompactAStarPuzzleSolver<>(controller);
+            case ANYTIME_A_STAR :
+                // finds a solution fast, then improves it until it is optimal
+                AnytimeAStarPuzzleSolver<Pails, PourOperation> anytimeSolver = new AnytimeAStarPuzzleSolver<>(controller);
+                anytimeSolver.setSolutionListener(new RefreshingSolutionListener<>(controller, anytimeSolver.getMetrics()));
+                return anytimeSolver;
+            case A_STAR_CONCURRENT :
+                // optimal like A*, but the positions are split among threads by hash code
+                return new HashDistributedAStarPuzzleSolver<>(controller);
+            case IDA_STAR_SEQUENTIAL :
+                // optimal like A*, but uses memory proportional to the solution depth
+                return new IDAStarPuzzleSolver<>(controller);
+            case BEAM_SEARCH :
+                // keeps only the positions closest to the goal at each depth. Fast, but not always the shortest path
+                return new BeamPuzzleSolver<>(controller);
             case CONCURRENT_BREADTH :
                 // this will find the shortest path to a solution if one exists, but takes longer
                 return new ConcurrentPuzzleSolver<>(controller, 1.0f);
@@ -58,6 +90,12 @@ public enum Algorithm implements AlgorithmEnum<Pails, PourOperation> {
                 return new ConcurrentPuzzleSolver<>(controller, 0.05f);
             case CONCURRENT_OPTIMUM :
                 return new ConcurrentPuzzleSolver<>(controller, 0.3f);
+            case CONCURRENT_WORK_STEALING :
+                // one thread per core. Depth first on each thread, with idle threads stealing shallow work
+                return new ForkJoinPuzzleSolver<>(controller);
+            case CONCURRENT_VIRTUAL_THREADS :
+                // like CONCURRENT_OPTIMUM, with a virtual thread per task and only one task running per core
+                return new VirtualThreadPuzzleSolver<>(controller, 0.3f);
         }
         return null;
     }
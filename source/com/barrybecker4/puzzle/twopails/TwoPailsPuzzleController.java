@@ -1,6 +1,7 @@
 /** Copyright by Barry G. Becker, 2000-2011. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
 package com.barrybecker4.puzzle.twopails;
 
+import com.barrybecker4.puzzle.common.MoveSink;
 import com.barrybecker4.puzzle.common.Refreshable;
 import com.barrybecker4.puzzle.common.ui.AbstractPuzzleController;
 import com.barrybecker4.puzzle.twopails.model.MoveGenerator;
@@ -59,8 +60,28 @@ public class TwoPailsPuzzleController extends AbstractPuzzleController<Pails, Po
         return new MoveGenerator(position).generateMoves();
     }
 
+    @Override
+    public void forEachMove(Pails position, MoveSink<PourOperation> sink) {
+        new MoveGenerator(position).generateMoves(sink);
+    }
+
     @Override
     public Pails move(Pails position, PourOperation move) {
         return position.doMove(move, false);
     }
+
+    @Override
+    public boolean canEncode() {
+        return true;
+    }
+
+    @Override
+    public long encode(Pails position) {
+        return position.encode();
+    }
+
+    @Override
+    public Pails decode(long code) {
+        return Pails.decode(code, initialPosition.getParams());
+    }
 }
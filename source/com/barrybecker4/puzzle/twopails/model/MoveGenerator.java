@@ -1,12 +1,13 @@
 // Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT
 package com.barrybecker4.puzzle.twopails.model;
 
+import com.barrybecker4.puzzle.common.MoveSink;
+
 import java.util.LinkedList;
 import java.util.List;
 
+import static com.barrybecker4.puzzle.twopails.model.PourOperation.*;
 import static com.barrybecker4.puzzle.twopails.model.PourOperation.Action;
-import static com.barrybecker4.puzzle.twopails.model.PourOperation.Action.*;
-import static com.barrybecker4.puzzle.twopails.model.PourOperation.Container.*;
 
 /**
  * Two pails puzzle move generator. Generates valid next moves.
@@ -16,6 +17,9 @@ import static com.barrybecker4.puzzle.twopails.model.PourOperation.Container.*;
  */
 public class MoveGenerator  {
 
+    /** Action.values() makes a new array every time it is called. */
+    private static final Action[] ACTIONS = Action.values();
+
     Pails pails;
 
     /**
@@ -32,25 +36,38 @@ public class MoveGenerator  {
      * @return List of all valid tile slides
      */
     public List<PourOperation> generateMoves() {
+        final List<PourOperation> moves = new LinkedList<>();
+        generateMoves(new MoveSink<PourOperation>() {
+            @Override
+            public void accept(PourOperation move) {
+                moves.add(move);
+            }
+        });
+        return moves;
+    }
 
-        List<PourOperation> moves = new LinkedList<>();
-        for (Action action : Action.values()) {
+    /**
+     * Pass the pour operations that make sense to the sink.
+     * There are only 6 different ones, so no new ones are created.
+     * @param sink receives the operations in the same order as generateMoves lists them.
+     */
+    public void generateMoves(MoveSink<PourOperation> sink) {
+        for (Action action : ACTIONS) {
 
             switch(action) {
                 case EMPTY :
-                    if (pails.getFill1() > 0) moves.add(new PourOperation(EMPTY, FIRST));
-                    if (pails.getFill2() > 0) moves.add(new PourOperation(EMPTY, SECOND));
+                    if (pails.getFill1() > 0) sink.accept(EMPTY_FIRST);
+                    if (pails.getFill2() > 0) sink.accept(EMPTY_SECOND);
                     break;
                 case FILL :
-                    if (pails.pail1HasRoom()) moves.add(new PourOperation(FILL, FIRST));
-                    if (pails.pail2HasRoom()) moves.add(new PourOperation(FILL, SECOND));
+                    if (pails.pail1HasRoom()) sink.accept(FILL_FIRST);
+                    if (pails.pail2HasRoom()) sink.accept(FILL_SECOND);
                     break;
                 case TRANSFER:
-                    if (pails.getFill1() > 0 && pails.pail2HasRoom()) moves.add(new PourOperation(TRANSFER, FIRST));
-                    if (pails.getFill2() > 0 && pails.pail1HasRoom()) moves.add(new PourOperation(TRANSFER, SECOND));
+                    if (pails.getFill1() > 0 && pails.pail2HasRoom()) sink.accept(TRANSFER_FIRST);
+                    if (pails.getFill2() > 0 && pails.pail1HasRoom()) sink.accept(TRANSFER_SECOND);
                     break;
             }
         }
-        return moves;
     }
 }
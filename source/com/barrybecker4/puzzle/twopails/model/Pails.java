@@ -106,6 +106,26 @@ public class Pails {
         return fill1 == target || fill2 == target;
     }
 
+    /**
+     * The params are not included, so only compare codes of pails with the same params.
+     * @return the two fill levels packed into a long.
+     */
+    public long encode() {
+        return (fill1 << 8) | fill2;
+    }
+
+    /**
+     * @param code value returned by encode
+     * @param params the params of the pails that were encoded.
+     * @return the pails that were encoded.
+     */
+    public static Pails decode(long code, PailParams params) {
+        Pails pails = new Pails(params);
+        pails.fill1 = (byte) (code >>> 8);
+        pails.fill2 = (byte) (code & 0xff);
+        return pails;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder("Pails:");
@@ -20,6 +20,14 @@ public final class PourOperation implements Move {
     public enum Action {FILL, EMPTY, TRANSFER}
     public enum Container {FIRST, SECOND}
 
+    /** The only 6 operations there are. The move generator hands out these instead of creating new ones. */
+    static final PourOperation FILL_FIRST = new PourOperation(Action.FILL, Container.FIRST);
+    static final PourOperation FILL_SECOND = new PourOperation(Action.FILL, Container.SECOND);
+    static final PourOperation EMPTY_FIRST = new PourOperation(Action.EMPTY, Container.FIRST);
+    static final PourOperation EMPTY_SECOND = new PourOperation(Action.EMPTY, Container.SECOND);
+    static final PourOperation TRANSFER_FIRST = new PourOperation(Action.TRANSFER, Container.FIRST);
+    static final PourOperation TRANSFER_SECOND = new PourOperation(Action.TRANSFER, Container.SECOND);
+
     private Action action;
     private Container container;
 
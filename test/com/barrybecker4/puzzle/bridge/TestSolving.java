@@ -30,7 +30,7 @@ public class TestSolving {
             new TestCase(TRIVIAL_PROBLEM, 8),
             new TestCase(STANDARD_PROBLEM, 15),
             new TestCase(ALTERNATIVE_PROBLEM, 60),
-            new TestCase(DIFFICULT_PROBLEM, 47)
+            new TestCase(DIFFICULT_PROBLEM, 41)
     );
 
 
@@ -49,6 +49,21 @@ public class TestSolving {
         runSolvingTests(Algorithm.A_STAR_SEQUENTIAL, A_STAR_CASES);
     }
 
+    @Test
+    public void testSolvingTestsWithCompactAStar() throws Exception {
+        runSolvingTests(Algorithm.A_STAR_COMPACT, A_STAR_CASES);
+    }
+
+    @Test
+    public void testSolvingTestsWithConcurrentAStar() throws Exception {
+        runSolvingTests(Algorithm.A_STAR_CONCURRENT, A_STAR_CASES);
+    }
+
+    @Test
+    public void testSolvingTestsWithBidirectional() throws Exception {
+        runSolvingTests(Algorithm.BIDIRECTIONAL_SEQUENTIAL, A_STAR_CASES);
+    }
+
     /**  these will not find the shortest path
     @Test
     public void testSolvingSimpleSequentialTests() throws Exception {
@@ -0,0 +1,48 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.bridge.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author Barry Becker
+ */
+public class BridgeEncoderTest {
+
+    private static final Integer[] PEOPLE = {7, 1, 3, 5, 3};
+
+    private BridgeEncoder encoder = new BridgeEncoder(PEOPLE);
+
+    @Test
+    public void testEncodeInitialState() {
+        Bridge initial = new Bridge(PEOPLE);
+        assertEquals(0, encoder.encode(initial));
+        assertEquals(initial, encoder.decode(0));
+    }
+
+    @Test
+    public void testEncodeDecode() {
+        Bridge bridge = new Bridge(Arrays.asList(7, 3, 5), Arrays.asList(3, 1), true);
+        long code = encoder.encode(bridge);
+        assertEquals("Unexpected decoded bridge", bridge, encoder.decode(code));
+    }
+
+    @Test
+    public void testCrossingOrderDoesNotMatter() {
+        Bridge bridge1 = new Bridge(Arrays.asList(7, 3), Arrays.asList(5, 1, 3), false);
+        Bridge bridge2 = new Bridge(Arrays.asList(3, 7), Arrays.asList(1, 3, 5), false);
+        assertEquals(bridge1, bridge2);
+        assertEquals(encoder.encode(bridge1), encoder.encode(bridge2));
+    }
+
+    @Test
+    public void testLightMatters() {
+        Bridge bridge1 = new Bridge(Arrays.asList(7, 3), Arrays.asList(5, 1, 3), false);
+        Bridge bridge2 = new Bridge(Arrays.asList(7, 3), Arrays.asList(5, 1, 3), true);
+        assertFalse(encoder.encode(bridge1) == encoder.encode(bridge2));
+    }
+}
@@ -36,6 +36,29 @@ public class MoveGeneratorTest {
         verifyGeneratedMoves(initialState, expectedMoves);
     }
 
+    @Test
+    public void testGeneratePredecessorMovesForGoalState() {
+
+        Bridge goalState = new Bridge(Collections.<Integer>emptyList(), Arrays.asList(1, 2, 5), true);
+
+        List<BridgeMove> expectedMoves = Arrays.asList(
+                new BridgeMove(Arrays.asList(1), true),
+                new BridgeMove(Arrays.asList(1, 2), true),
+                new BridgeMove(Arrays.asList(1, 5), true),
+                new BridgeMove(Arrays.asList(2), true),
+                new BridgeMove(Arrays.asList(2, 5), true),
+                new BridgeMove(Arrays.asList(5), true)
+            );
+
+        List<BridgeMove> predecessorMoves = new MoveGenerator(goalState).generatePredecessorMoves();
+        assertEquals("Unexpected list of predecessor moves", expectedMoves, predecessorMoves);
+
+        for (BridgeMove move : predecessorMoves) {
+            Bridge previous = goalState.applyMove(move, true);
+            assertEquals("Move " + move + " did not lead back to the goal", goalState, previous.applyMove(move, false));
+        }
+    }
+
     private void verifyGeneratedMoves(Bridge initialState, List<BridgeMove> expectedMoves) {
 
         MoveGenerator generator = new MoveGenerator(initialState);
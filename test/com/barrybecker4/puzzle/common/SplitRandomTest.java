@@ -0,0 +1,116 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class SplitRandomTest {
+
+    private static final int NUM_VALUES = 1000;
+
+    @Test
+    public void testSameSeedGivesSameNumbers() {
+        SplitRandom random1 = new SplitRandom(42);
+        SplitRandom random2 = new SplitRandom(42);
+        for (int i = 0; i < NUM_VALUES; i++) {
+            assertEquals(random1.nextLong(), random2.nextLong());
+            assertEquals(random1.nextDouble(), random2.nextDouble(), 0);
+        }
+    }
+
+    @Test
+    public void testDifferentSeedsGiveDifferentNumbers() {
+        assertFalse(Arrays.equals(longs(new SplitRandom(1)), longs(new SplitRandom(2))));
+    }
+
+    @Test
+    public void testReseed() {
+        SplitRandom random = new SplitRandom(7);
+        long[] first = longs(random);
+        random.setSeed(7);
+        assertTrue(Arrays.equals(first, longs(random)));
+    }
+
+    /** Splitting the same way from the same seed gives the same sources, different from each other. */
+    @Test
+    public void testSplitIsRepeatable() {
+        SplitRandom parent1 = new SplitRandom(3);
+        SplitRandom parent2 = new SplitRandom(3);
+        long[] child1 = longs(parent1.split());
+        assertTrue(Arrays.equals(child1, longs(parent2.split())));
+        assertTrue(Arrays.equals(longs(parent1), longs(parent2)));
+
+        assertFalse(Arrays.equals(child1, longs(new SplitRandom(3))));
+        assertFalse(Arrays.equals(child1, longs(parent1.split())));
+    }
+
+    @Test
+    public void testValuesInRange() {
+        SplitRandom random = new SplitRandom(5);
+        int[] counts = new int[10];
+        for (int i = 0; i < NUM_VALUES; i++) {
+            float f = random.nextFloat();
+            assertTrue(f >= 0 && f < 1.0f);
+            double d = random.nextDouble();
+            assertTrue(d >= 0 && d < 1.0);
+            counts[random.nextInt(10)]++;
+        }
+        for (int count : counts) {
+            assertTrue("uneven count " + count, count > 50 && count < 150);
+        }
+    }
+
+    @Test
+    public void testShuffleIsRepeatable() {
+        List<Integer> list1 = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            list1.add(i);
+        }
+        List<Integer> list2 = new ArrayList<>(list1);
+        Collections.shuffle(list1, new SplitRandom(11));
+        Collections.shuffle(list2, new SplitRandom(11));
+        assertEquals(list1, list2);
+    }
+
+    @Test
+    public void testPerThreadRandomIsRepeatableOnOneThread() {
+        assertTrue(Arrays.equals(longs(new PerThreadRandom(9)), longs(new PerThreadRandom(9))));
+    }
+
+    @Test
+    public void testPerThreadRandomGivesEachThreadItsOwnSource() throws InterruptedException {
+        final PerThreadRandom random = new PerThreadRandom(9);
+        final SplitRandom[] otherSource = new SplitRandom[1];
+        Thread other = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                otherSource[0] = random.current();
+            }
+        });
+        other.start();
+        other.join();
+
+        assertTrue(random.current() == random.current());
+        assertFalse(random.current() == otherSource[0]);
+    }
+
+    private static long[] longs(Random random) {
+        long[] values = new long[NUM_VALUES];
+        for (int i = 0; i < NUM_VALUES; i++) {
+            values[i] = random.nextLong();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,60 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class MoveBufferTest {
+
+    @Test
+    public void testAcceptAndGet() {
+        MoveBuffer<String> buffer = new MoveBuffer<>();
+        assertTrue(buffer.isEmpty());
+        buffer.accept("a");
+        buffer.accept("b");
+
+        assertEquals(2, buffer.size());
+        assertEquals("a", buffer.get(0));
+        assertEquals("b", buffer.get(1));
+    }
+
+    /** Add more moves than the initial capacity, so the buffer has to grow, keeping the order. */
+    @Test
+    public void testGrowth() {
+        MoveBuffer<Integer> buffer = new MoveBuffer<>();
+        for (int i = 0; i < 100; i++) {
+            buffer.accept(i);
+        }
+        assertEquals(100, buffer.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) buffer.get(i));
+        }
+    }
+
+    @Test
+    public void testClearAndRefill() {
+        MoveBuffer<String> buffer = new MoveBuffer<>();
+        buffer.accept("a");
+        buffer.accept("b");
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+
+        buffer.accept("c");
+        assertFalse(buffer.isEmpty());
+        assertEquals(1, buffer.size());
+        assertEquals("c", buffer.get(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetPastEnd() {
+        MoveBuffer<String> buffer = new MoveBuffer<>();
+        buffer.accept("a");
+        buffer.get(1);
+    }
+}
@@ -0,0 +1,87 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs with or without virtual threads, depending on the JVM.
+ * @author Barry Becker
+ */
+public class BoundedVirtualThreadExecutorTest {
+
+    @Test
+    public void testRunsAllTasks() throws Exception {
+        BoundedVirtualThreadExecutor exec = new BoundedVirtualThreadExecutor(4);
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            exec.execute(new Runnable() {
+                @Override
+                public void run() {
+                    count.incrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue("Tasks did not finish", done.await(10, TimeUnit.SECONDS));
+        assertEquals(100, count.get());
+        exec.shutdown();
+        assertTrue(exec.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    /** Each task waits a little, so that tasks would overlap if they were allowed to. */
+    @Test
+    public void testNoMoreThanParallelismRunAtOnce() throws Exception {
+        BoundedVirtualThreadExecutor exec = new BoundedVirtualThreadExecutor(2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            exec.execute(new Runnable() {
+                @Override
+                public void run() {
+                    int now = running.incrementAndGet();
+                    int max;
+                    while (now > (max = maxRunning.get()) && !maxRunning.compareAndSet(max, now)) { }
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue("Tasks did not finish", done.await(10, TimeUnit.SECONDS));
+        assertTrue("Too many tasks ran at once: " + maxRunning.get(), maxRunning.get() <= 2);
+        exec.shutdownNow();
+    }
+
+    @Test
+    public void testTasksAfterShutdownAreDropped() throws Exception {
+        BoundedVirtualThreadExecutor exec = new BoundedVirtualThreadExecutor(2);
+        exec.shutdownNow();
+        final AtomicInteger count = new AtomicInteger();
+        exec.execute(new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        });
+        assertTrue(exec.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, count.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoParallelism() {
+        new BoundedVirtualThreadExecutor(0);
+    }
+}
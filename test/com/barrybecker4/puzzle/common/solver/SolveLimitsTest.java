@@ -0,0 +1,102 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class SolveLimitsTest {
+
+    @Test
+    public void testNoLimits() {
+        SolveLimits limits = new SolveLimits();
+        limits.start();
+        for (long i = 0; i < 10000; i++) {
+            assertFalse(limits.isReached(i));
+        }
+        assertFalse(limits.wasStopped());
+        assertNull(limits.getStopReason());
+    }
+
+    @Test
+    public void testNodeLimit() {
+        SolveLimits limits = new SolveLimits(SolveLimits.NO_LIMIT, 100, SolveLimits.NO_LIMIT);
+        limits.start();
+        assertFalse(limits.isReached(99));
+        assertTrue(limits.isReached(100));
+        assertEquals(SolveLimits.StopReason.NODE_LIMIT, limits.getStopReason());
+        assertTrue("Once reached, stays reached", limits.isReached(0));
+    }
+
+    @Test
+    public void testCancel() {
+        SolveLimits limits = new SolveLimits();
+        limits.start();
+        assertFalse(limits.isReached(0));
+        limits.cancel();
+        assertTrue(limits.isReached(1));
+        assertEquals(SolveLimits.StopReason.CANCELLED, limits.getStopReason());
+    }
+
+    @Test
+    public void testTimeLimit() throws InterruptedException {
+        SolveLimits limits = new SolveLimits(1, SolveLimits.NO_LIMIT, SolveLimits.NO_LIMIT);
+        limits.start();
+        Thread.sleep(5);
+        boolean reached = false;
+        for (int i = 0; i < 1000 && !reached; i++) {
+            reached = limits.isReached(i);
+        }
+        assertTrue(reached);
+        assertEquals(SolveLimits.StopReason.TIME_LIMIT, limits.getStopReason());
+    }
+
+    /** No single thread calls often enough to check the clock, but between them they do. */
+    @Test
+    public void testTimeLimitFromSeveralThreads() throws InterruptedException {
+        final SolveLimits limits = new SolveLimits(1, SolveLimits.NO_LIMIT, SolveLimits.NO_LIMIT);
+        limits.start();
+        Thread.sleep(5);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 100; j++) {
+                        limits.isReached(j);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(SolveLimits.StopReason.TIME_LIMIT, limits.getStopReason());
+    }
+
+    @Test
+    public void testMemoryLimit() {
+        SolveLimits limits = new SolveLimits(SolveLimits.NO_LIMIT, SolveLimits.NO_LIMIT, 1);
+        limits.start();
+        boolean reached = false;
+        for (int i = 0; i < 1000 && !reached; i++) {
+            reached = limits.isReached(i);
+        }
+        assertTrue(reached);
+        assertEquals(SolveLimits.StopReason.MEMORY_LIMIT, limits.getStopReason());
+    }
+
+    @Test
+    public void testSeed() {
+        SolveLimits limits = new SolveLimits();
+        limits.setSeed(17);
+        assertEquals(17, limits.getSeed());
+    }
+}
@@ -0,0 +1,103 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class SolutionCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPutAndGet() {
+        SolutionCache cache = new SolutionCache(10);
+        assertNull(cache.get("a"));
+        cache.put("a", new int[] {3, 0, 2});
+        cache.put("empty", new int[0]);
+
+        assertArrayEquals(new int[] {3, 0, 2}, cache.get("a"));
+        assertArrayEquals(new int[0], cache.get("empty"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedDropped() {
+        SolutionCache cache = new SolutionCache(2);
+        cache.put("a", new int[] {1});
+        cache.put("b", new int[] {2});
+        cache.get("a");
+        cache.put("c", new int[] {3});
+
+        assertEquals(2, cache.size());
+        assertNull("b was used least recently", cache.get("b"));
+        assertArrayEquals(new int[] {1}, cache.get("a"));
+        assertArrayEquals(new int[] {3}, cache.get("c"));
+    }
+
+    /** A new cache on the same directory, like after a restart, still has the solutions. */
+    @Test
+    public void testSolutionsSurviveOnDisk() throws IOException {
+        File directory = folder.newFolder();
+        SolutionCache cache = new SolutionCache(1, directory);
+        cache.put("slider 3x3|A_STAR|1f", new int[] {1, 2, 3});
+        cache.put("other", new int[0]);
+
+        SolutionCache restarted = new SolutionCache(10, directory);
+        assertEquals(0, restarted.size());
+        assertArrayEquals(new int[] {1, 2, 3}, restarted.get("slider 3x3|A_STAR|1f"));
+        assertArrayEquals(new int[0], restarted.get("other"));
+        assertNull(restarted.get("missing"));
+        assertEquals(2, directory.listFiles().length);
+    }
+
+    @Test
+    public void testDamagedFileIgnored() throws IOException {
+        File directory = folder.newFolder();
+        new SolutionCache(10, directory).put("key", new int[] {4, 5});
+        File file = directory.listFiles()[0];
+        try (Writer writer = new FileWriter(file)) {
+            writer.write("key\n4,x\n");
+        }
+        SolutionCache cache = new SolutionCache(10, directory);
+        assertNull(cache.get("key"));
+
+        cache.put("key", new int[] {6});
+        assertArrayEquals(new int[] {6}, new SolutionCache(10, directory).get("key"));
+    }
+
+    /** A solution that cannot be written to disk is still kept in memory, and put does not fail. */
+    @Test
+    public void testWriteFailureKeepsMemoryEntry() throws IOException {
+        File directory = folder.newFolder();
+        SolutionCache cache = new SolutionCache(10, directory);
+        assertTrue(directory.delete());
+
+        cache.put("key", new int[] {7, 8});
+        assertArrayEquals(new int[] {7, 8}, cache.get("key"));
+    }
+
+    /** Changing what was returned or put must not change what is cached. */
+    @Test
+    public void testCopiesKept() {
+        SolutionCache cache = new SolutionCache(10);
+        int[] moves = {1, 2};
+        cache.put("a", moves);
+        moves[0] = 9;
+        cache.get("a")[1] = 9;
+        assertArrayEquals(new int[] {1, 2}, cache.get("a"));
+    }
+}
@@ -0,0 +1,153 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.external;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class SortedLongFileTest {
+
+    private static final int SMALL_SEGMENT = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteSortsAndRemovesRepeats() throws IOException {
+        long[] values = {5, -3, 9, 5, 0, 9, 9, 42};
+        SortedLongFile file = SortedLongFile.write(folder.newFile(), values, values.length);
+
+        assertEquals(5, file.size());
+        assertEquals(Arrays.asList(-3L, 0L, 5L, 9L, 42L), readAll(file));
+        assertTrue(file.contains(9));
+        assertTrue(file.contains(-3));
+        assertFalse(file.contains(6));
+        assertFalse(file.contains(100));
+    }
+
+    @Test
+    public void testWriteOnlyUsesCount() throws IOException {
+        long[] values = {3, 1, 2, 99};
+        SortedLongFile file = SortedLongFile.write(folder.newFile(), values, 3);
+        assertEquals(Arrays.asList(1L, 2L, 3L), readAll(file));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        SortedLongFile file = SortedLongFile.write(folder.newFile(), new long[0], 0);
+        assertTrue(file.isEmpty());
+        assertFalse(file.cursor().hasNext());
+        assertFalse(file.contains(0));
+    }
+
+    @Test
+    public void testMergeExcludesEarlierValues() throws IOException {
+        List<SortedLongFile> runs = Arrays.asList(
+                write(1, 4, 7, 10),
+                write(2, 4, 8, 10),
+                write(3, 7, 11));
+        List<SortedLongFile> excluded = Arrays.asList(write(2, 3), write(10, 12));
+
+        SortedLongFile merged = SortedLongFile.merge(runs, excluded, folder.newFile());
+        assertEquals(Arrays.asList(1L, 4L, 7L, 8L, 11L), readAll(merged));
+    }
+
+    @Test
+    public void testMergeNoRuns() throws IOException {
+        List<SortedLongFile> none = new ArrayList<>();
+        SortedLongFile merged = SortedLongFile.merge(none, none, folder.newFile());
+        assertTrue(merged.isEmpty());
+    }
+
+    @Test
+    public void testDelete() throws IOException {
+        SortedLongFile file = write(1, 2, 3);
+        assertEquals(1, file.get(0));
+        file.delete();
+        assertFalse(file.getFile().exists());
+    }
+
+    /** With segments of 4 values, every lookup and cursor below has to move from one mapping to the next. */
+    @Test
+    public void testContainsAcrossSegments() throws IOException {
+        long[] values = new long[SMALL_SEGMENT * 5 + 3];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 10L * (values.length - i);
+        }
+        SortedLongFile file = SortedLongFile.write(folder.newFile(), values, values.length, SMALL_SEGMENT);
+
+        assertEquals(6, file.getNumSegments());
+        for (int i = 1; i <= values.length; i++) {
+            assertEquals(10L * i, file.get(i - 1));
+            assertTrue("missing " + 10L * i, file.contains(10L * i));
+            assertFalse(file.contains(10L * i + 5));
+        }
+        assertFalse(file.contains(0));
+        assertFalse(file.contains(10L * values.length + 10));
+    }
+
+    @Test
+    public void testCursorAcrossSegments() throws IOException {
+        long[] values = new long[SMALL_SEGMENT * 3];  // ends exactly on a boundary
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - 5;
+        }
+        SortedLongFile file = SortedLongFile.write(folder.newFile(), values, values.length, SMALL_SEGMENT);
+
+        LongCursor cursor = file.cursor();
+        for (int i = 0; i < values.length; i++) {
+            assertTrue(cursor.hasNext());
+            assertEquals(i - 5, cursor.peek());
+            assertEquals(i - 5, cursor.next());
+        }
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    public void testMergeAcrossSegments() throws IOException {
+        List<SortedLongFile> runs = Arrays.asList(
+                writeSegmented(1, 3, 5, 7, 9, 11, 13, 15, 17),
+                writeSegmented(2, 3, 6, 7, 10, 11, 14, 18, 19, 20));
+        List<SortedLongFile> excluded = Arrays.asList(writeSegmented(0, 1, 2, 6, 13, 14, 15, 16, 19));
+
+        SortedLongFile merged = SortedLongFile.merge(runs, excluded, folder.newFile(), SMALL_SEGMENT);
+        List<Long> expected = Arrays.asList(3L, 5L, 7L, 9L, 10L, 11L, 17L, 18L, 20L);
+        assertEquals(expected, readAll(merged));
+        assertEquals(3, merged.getNumSegments());
+        for (long value : expected) {
+            assertTrue(merged.contains(value));
+        }
+        assertFalse(merged.contains(6));
+    }
+
+    private SortedLongFile writeSegmented(long... values) throws IOException {
+        return SortedLongFile.write(folder.newFile(), values, values.length, SMALL_SEGMENT);
+    }
+
+    private SortedLongFile write(long... values) throws IOException {
+        File file = folder.newFile();
+        return SortedLongFile.write(file, values, values.length);
+    }
+
+    private static List<Long> readAll(SortedLongFile file) {
+        List<Long> values = new ArrayList<>();
+        LongCursor cursor = file.cursor();
+        while (cursor.hasNext()) {
+            values.add(cursor.next());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,74 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.metrics;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class SolverMetricsTest {
+
+    private static final double TOL = 0.0001;
+
+    @Test
+    public void testSnapshot() {
+        SolverMetrics metrics = new SolverMetrics();
+        metrics.start();
+        metrics.nodeExpanded();
+        for (int i = 0; i < 4; i++) {
+            metrics.nodeGenerated();
+        }
+        metrics.duplicateRejected();
+        metrics.depth(3);
+        metrics.stop();
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        metrics.nodeExpanded();
+
+        assertEquals(1, snapshot.getNodesExpanded());
+        assertEquals(4, snapshot.getNodesGenerated());
+        assertEquals(1, snapshot.getDuplicatesRejected());
+        assertEquals(0.25, snapshot.getDuplicateRate(), TOL);
+        assertEquals(3, snapshot.getCurrentDepth());
+        assertEquals("the live metrics should have changed", 2, metrics.getNodesExpanded());
+    }
+
+    @Test
+    public void testPeakFrontierSize() {
+        SolverMetrics metrics = new SolverMetrics();
+        metrics.start();
+        metrics.frontierSize(5);
+        metrics.frontierSize(12);
+        metrics.frontierSize(7);
+        assertEquals(7, metrics.getFrontierSize());
+        assertEquals(12, metrics.getPeakFrontierSize());
+
+        metrics.start();
+        assertEquals("start should reset", 0, metrics.getPeakFrontierSize());
+    }
+
+    @Test
+    public void testRegisterMBean() throws Exception {
+        SolverMetrics metrics = new SolverMetrics();
+        metrics.start();
+        metrics.nodeExpanded();
+        metrics.registerMBean("SolverMetricsTest");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name =
+                new ObjectName("com.barrybecker4.puzzle:type=SolverMetrics,name=" + ObjectName.quote("SolverMetricsTest"));
+        assertTrue(server.isRegistered(name));
+        assertEquals(1L, server.getAttribute(name, "NodesExpanded"));
+
+        metrics.unregisterMBean();
+        assertFalse(server.isRegistered(name));
+    }
+}
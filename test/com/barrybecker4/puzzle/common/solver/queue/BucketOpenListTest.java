@@ -0,0 +1,13 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.queue;
+
+/**
+ * @author Barry Becker
+ */
+public class BucketOpenListTest extends OpenListBase {
+
+    @Override
+    protected OpenList<String, String> createOpenList() {
+        return new BucketOpenList<>();
+    }
+}
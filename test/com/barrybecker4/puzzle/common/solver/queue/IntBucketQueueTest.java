@@ -0,0 +1,70 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.queue;
+
+import org.junit.Test;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class IntBucketQueueTest {
+
+    @Test
+    public void testLowestPriorityFirst() {
+        IntBucketQueue queue = new IntBucketQueue();
+        queue.add(1, 5);
+        queue.add(2, 0);
+        queue.add(3, 40);
+        queue.add(4, 5);
+
+        assertEquals(4, queue.size());
+        assertEquals(2, queue.removeBest());
+        assertEquals("last added should come first on ties", 4, queue.removeBest());
+        assertEquals(1, queue.removeBest());
+        queue.add(5, 2);
+        assertEquals(5, queue.removeBest());
+        assertEquals(3, queue.removeBest());
+        assertTrue(queue.isEmpty());
+    }
+
+    /** Random adds and removes, checked against the priorities that a PriorityQueue returns. */
+    @Test
+    public void testMatchesPriorityQueue() {
+        IntBucketQueue queue = new IntBucketQueue();
+        PriorityQueue<Integer> expected = new PriorityQueue<>();
+        Random rnd = new Random(1);
+        int[] priorities = new int[10000];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = rnd.nextInt(300);
+            queue.add(i, priorities[i]);
+            expected.add(priorities[i]);
+            if (rnd.nextInt(3) == 0) {
+                assertEquals((int) expected.poll(), priorities[queue.removeBest()]);
+            }
+        }
+        while (!expected.isEmpty()) {
+            assertEquals((int) expected.poll(), priorities[queue.removeBest()]);
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testClear() {
+        IntBucketQueue queue = new IntBucketQueue();
+        queue.add(1, 3);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        queue.add(2, 7);
+        assertEquals(2, queue.removeBest());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRemoveFromEmpty() {
+        new IntBucketQueue().removeBest();
+    }
+}
@@ -0,0 +1,103 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.queue;
+
+import com.barrybecker4.puzzle.common.model.PuzzleNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Base class for open list tests.
+ * Positions are just strings and moves are not needed.
+ * @author Barry Becker
+ */
+public abstract class OpenListBase {
+
+    /** instance under test */
+    private OpenList<String, String> open;
+
+    /** creates the open list to test */
+    protected abstract OpenList<String, String> createOpenList();
+
+    @Before
+    public void setUp() {
+        open = createOpenList();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(open.isEmpty());
+        assertNull(open.removeBest());
+    }
+
+    @Test
+    public void testRemovedInCostOrder() {
+        open.add(node("c", 7));
+        open.add(node("a", 2));
+        open.add(node("d", 9));
+        open.add(node("b", 4));
+
+        assertEquals("Unexpected size", 4, open.size());
+        assertEquals("a", open.removeBest().getPosition());
+        assertEquals("b", open.removeBest().getPosition());
+        assertEquals("c", open.removeBest().getPosition());
+        assertEquals("d", open.removeBest().getPosition());
+        assertNull(open.removeBest());
+    }
+
+    @Test
+    public void testCheaperNodeReplacesQueuedPosition() {
+        open.add(node("a", 5));
+        open.add(node("b", 6));
+        PuzzleNode<String, String> cheaperB = node("b", 3);
+        open.add(cheaperB);
+
+        assertEquals("Positions should not be duplicated", 2, open.size());
+        assertSame(cheaperB, open.removeBest());
+        assertEquals("a", open.removeBest().getPosition());
+        assertTrue("The stale b node should have been dropped", open.isEmpty());
+        assertNull(open.removeBest());
+    }
+
+    @Test
+    public void testMoreExpensiveNodeIgnored() {
+        PuzzleNode<String, String> a = node("a", 2);
+        open.add(a);
+        open.add(node("a", 8));
+
+        assertEquals(1, open.size());
+        assertSame(a, open.removeBest());
+        assertTrue(open.isEmpty());
+    }
+
+    @Test
+    public void testAddAfterRemove() {
+        open.add(node("a", 5));
+        open.add(node("b", 6));
+        open.removeBest();
+        open.add(node("c", 1));
+        open.add(node("a", 3));
+
+        assertEquals("c", open.removeBest().getPosition());
+        assertEquals("a", open.removeBest().getPosition());
+        assertEquals("b", open.removeBest().getPosition());
+        assertTrue(open.isEmpty());
+    }
+
+    @Test
+    public void testClear() {
+        open.add(node("a", 5));
+        open.add(node("b", 6));
+        open.clear();
+        assertTrue(open.isEmpty());
+        assertNull(open.removeBest());
+    }
+
+    private static PuzzleNode<String, String> node(String position, int cost) {
+        return new PuzzleNode<>(position, null, null, cost);
+    }
+}
@@ -0,0 +1,56 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Barry Becker
+ */
+public class ConcurrentVisitedSetTest extends VisitedSetBase {
+
+    private static final int NUM_THREADS = 8;
+    private static final int NUM_POSITIONS = 20000;
+
+    @Override
+    protected VisitedSet<String> createVisitedSet() {
+        return new ConcurrentVisitedSet<>();
+    }
+
+    /** Every position should be added by exactly one of the threads that try to add it. */
+    @Test
+    public void testConcurrentAddIfAbsent() throws Exception {
+        ExecutorService exec = Executors.newFixedThreadPool(NUM_THREADS);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < NUM_THREADS; i++) {
+            results.add(exec.submit(new Callable<Integer>() {
+                public Integer call() {
+                    int numAdded = 0;
+                    for (int j = 0; j < NUM_POSITIONS; j++) {
+                        if (seen.addIfAbsent("p" + j)) {
+                            numAdded++;
+                        }
+                    }
+                    return numAdded;
+                }
+            }));
+        }
+
+        int totalAdded = 0;
+        for (Future<Integer> result : results) {
+            totalAdded += result.get();
+        }
+        exec.shutdown();
+
+        assertEquals("Unexpected number of successful adds", NUM_POSITIONS, totalAdded);
+        assertEquals(NUM_POSITIONS, seen.size());
+    }
+}
@@ -0,0 +1,13 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+/**
+ * @author Barry Becker
+ */
+public class HashVisitedSetTest extends VisitedSetBase {
+
+    @Override
+    protected VisitedSet<String> createVisitedSet() {
+        return new HashVisitedSet<>();
+    }
+}
@@ -0,0 +1,62 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class LongHashSetTest {
+
+    @Test
+    public void testAdd() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(5));
+        assertTrue(set.add(-7));
+        assertFalse("5 already added", set.add(5));
+
+        assertEquals(2, set.size());
+        assertTrue(set.contains(5));
+        assertTrue(set.contains(-7));
+        assertFalse(set.contains(6));
+    }
+
+    @Test
+    public void testZeroKey() {
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+
+        set.clear();
+        assertFalse(set.contains(0));
+        assertTrue(set.isEmpty());
+    }
+
+    /** Add enough random keys to force several resizes and verify against a HashSet. */
+    @Test
+    public void testGrowth() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random rnd = new Random(1);
+        for (int i = 0; i < 50000; i++) {
+            long key = rnd.nextInt(30000);
+            assertEquals("Unexpected add result for " + key, expected.add(key), set.add(key));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long key = 0; key < 30000; key++) {
+            assertEquals("Unexpected contains result for " + key, expected.contains(key), set.contains(key));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class LongIntHashMapTest {
+
+    private static final int MISSING = -1;
+
+    @Test
+    public void testPutAndGet() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertEquals(MISSING, map.get(3, MISSING));
+        map.put(3, 30);
+        map.put(Long.MAX_VALUE, 7);
+        map.put(3, 31);
+
+        assertEquals(2, map.size());
+        assertEquals(31, map.get(3, MISSING));
+        assertEquals(7, map.get(Long.MAX_VALUE, MISSING));
+        assertTrue(map.containsKey(3));
+        assertFalse(map.containsKey(4));
+    }
+
+    @Test
+    public void testZeroKey() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(0, 12);
+        assertEquals(12, map.get(0, MISSING));
+        assertEquals(1, map.size());
+        map.clear();
+        assertEquals(MISSING, map.get(0, MISSING));
+        assertTrue(map.isEmpty());
+    }
+
+    /** Add enough random keys to force several resizes and verify against a HashMap. */
+    @Test
+    public void testGrowth() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random rnd = new Random(1);
+        for (int i = 0; i < 50000; i++) {
+            long key = rnd.nextInt(30000);
+            int value = rnd.nextInt(100);
+            expected.put(key, value);
+            map.put(key, value);
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 30000; key++) {
+            Integer value = expected.get(key);
+            assertEquals("Unexpected value for " + key, value == null ? MISSING : value, map.get(key, MISSING));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.seen;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Base class for visited set tests.
+ * @author Barry Becker
+ */
+public abstract class VisitedSetBase {
+
+    /** instance under test */
+    protected VisitedSet<String> seen;
+
+    /** creates the visited set to test */
+    protected abstract VisitedSet<String> createVisitedSet();
+
+    @Before
+    public void setUp() {
+        seen = createVisitedSet();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, seen.size());
+        assertFalse(seen.contains("a"));
+    }
+
+    @Test
+    public void testAddIfAbsent() {
+        assertTrue("a was not there yet", seen.addIfAbsent("a"));
+        assertTrue("b was not there yet", seen.addIfAbsent("b"));
+        assertFalse("a was already added", seen.addIfAbsent("a"));
+
+        assertEquals(2, seen.size());
+        assertTrue(seen.contains("a"));
+        assertTrue(seen.contains("b"));
+        assertFalse(seen.contains("c"));
+    }
+
+    @Test
+    public void testClear() {
+        seen.addIfAbsent("a");
+        seen.addIfAbsent("b");
+        seen.clear();
+
+        assertEquals(0, seen.size());
+        assertFalse(seen.contains("a"));
+        assertTrue(seen.addIfAbsent("a"));
+    }
+}
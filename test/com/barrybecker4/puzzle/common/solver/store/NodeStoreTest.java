@@ -0,0 +1,65 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.store;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class NodeStoreTest {
+
+    @Test
+    public void testAddAndGet() {
+        NodeStore store = new NodeStore();
+        int root = store.addRoot(42L);
+        int child = store.add(-7L, root, 3, 2);
+        int grandChild = store.add(Long.MAX_VALUE, child, 5, 255);
+
+        assertEquals(3, store.size());
+        assertEquals(NodeStore.NO_PARENT, store.getParent(root));
+        assertEquals(0, store.getDepth(root));
+        assertEquals(-7L, store.getCode(child));
+        assertEquals(root, store.getParent(child));
+        assertEquals(3, store.getPathCost(child));
+        assertEquals(2, store.getMoveIndex(child));
+        assertEquals(2, store.getDepth(grandChild));
+        assertEquals(255, store.getMoveIndex(grandChild));
+    }
+
+    /** Add enough nodes to force several resizes, each the child of the one before. */
+    @Test
+    public void testGrowth() {
+        NodeStore store = new NodeStore(2);
+        int parent = store.addRoot(0);
+        for (int i = 1; i < 5000; i++) {
+            parent = store.add(i * 31L, parent, i, i % 4);
+        }
+        assertEquals(5000, store.size());
+        for (int i = 4999; i > 0; i--) {
+            assertEquals(i * 31L, store.getCode(parent));
+            assertEquals(i, store.getPathCost(parent));
+            assertEquals(i, store.getDepth(parent));
+            assertEquals(i % 4, store.getMoveIndex(parent));
+            parent = store.getParent(parent);
+        }
+        assertEquals(0, parent);
+    }
+
+    @Test
+    public void testClear() {
+        NodeStore store = new NodeStore();
+        store.addRoot(1);
+        store.clear();
+        assertTrue(store.isEmpty());
+        assertEquals(0, store.addRoot(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMoveIndexTooLarge() {
+        NodeStore store = new NodeStore();
+        store.add(1, store.addRoot(0), 1, 256);
+    }
+}
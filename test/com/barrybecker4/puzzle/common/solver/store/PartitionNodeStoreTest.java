@@ -0,0 +1,59 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.solver.store;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class PartitionNodeStoreTest {
+
+    @Test
+    public void testAddAndGet() {
+        PartitionNodeStore store = new PartitionNodeStore();
+        int root = store.add(42L, 42L, 0, 9, 0);
+        int child = store.add(-7L, 42L, 3, 6, 255);
+
+        assertEquals(2, store.size());
+        assertEquals(42L, store.getParentCode(root));
+        assertEquals(9, store.getDistance(root));
+        assertEquals(-7L, store.getCode(child));
+        assertEquals(42L, store.getParentCode(child));
+        assertEquals(3, store.getPathCost(child));
+        assertEquals(6, store.getDistance(child));
+        assertEquals(255, store.getMoveIndex(child));
+    }
+
+    @Test
+    public void testGrowth() {
+        PartitionNodeStore store = new PartitionNodeStore(2);
+        for (int i = 0; i < 5000; i++) {
+            store.add(i * 31L, i - 1, i, 5000 - i, i % 4);
+        }
+        assertEquals(5000, store.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i * 31L, store.getCode(i));
+            assertEquals(i - 1, store.getParentCode(i));
+            assertEquals(i, store.getPathCost(i));
+            assertEquals(5000 - i, store.getDistance(i));
+            assertEquals(i % 4, store.getMoveIndex(i));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        PartitionNodeStore store = new PartitionNodeStore();
+        store.add(1, 1, 0, 0, 0);
+        store.clear();
+        assertTrue(store.isEmpty());
+        assertEquals(0, store.add(2, 2, 0, 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMoveIndexTooLarge() {
+        new PartitionNodeStore().add(1, 0, 1, 0, 256);
+    }
+}
@@ -0,0 +1,70 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.common.ui;
+
+import com.barrybecker4.puzzle.common.Refreshable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class ProgressPublisherTest {
+
+    private static final int NUM_POSITIONS = 100000;
+
+    @Test
+    public void testNothingShownBeforeStart() {
+        RecordingUi ui = new RecordingUi();
+        ProgressPublisher<String, String> publisher = new ProgressPublisher<>(ui, 5);
+        publisher.publish("a", 1);
+        publisher.stop();
+        assertTrue(ui.positions.isEmpty());
+    }
+
+    @Test
+    public void testLastPositionShownOnStop() {
+        RecordingUi ui = new RecordingUi();
+        ProgressPublisher<String, String> publisher = new ProgressPublisher<>(ui, 5);
+        publisher.start();
+        for (int i = 1; i <= NUM_POSITIONS; i++) {
+            publisher.publish("pos" + i, i);
+        }
+        publisher.stop();
+
+        assertTrue("Expected only a sample of the positions to be shown, but was " + ui.positions.size(),
+                ui.positions.size() < NUM_POSITIONS / 10);
+        assertEquals("pos" + NUM_POSITIONS, ui.positions.get(ui.positions.size() - 1));
+        assertEquals(NUM_POSITIONS, ui.lastNumTries);
+    }
+
+    @Test
+    public void testSamePositionShownOnce() throws InterruptedException {
+        RecordingUi ui = new RecordingUi();
+        ProgressPublisher<String, String> publisher = new ProgressPublisher<>(ui, 5);
+        publisher.start();
+        publisher.publish("a", 1);
+        Thread.sleep(50);
+        publisher.stop();
+        assertEquals(1, ui.positions.size());
+    }
+
+    private static class RecordingUi implements Refreshable<String, String> {
+        List<String> positions = new ArrayList<>();
+        long lastNumTries;
+
+        @Override
+        public void refresh(String pos, long numTries) {
+            positions.add(pos);
+            lastNumTries = numTries;
+        }
+
+        @Override
+        public void finalRefresh(List<String> path, String position, long numTries, long elapsedMillis) {
+        }
+    }
+}
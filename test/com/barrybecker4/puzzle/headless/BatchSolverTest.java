@@ -0,0 +1,78 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.headless;
+
+import com.barrybecker4.common.app.AppContext;
+import com.barrybecker4.common.i18n.StubMessageContext;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class BatchSolverTest {
+
+    @Before
+    public void setUp() {
+        AppContext.injectMessageContext(new StubMessageContext());
+    }
+
+    @After
+    public void tearDown() {
+        AppContext.injectMessageContext(null);
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals("slider 3x3 seed=42", PuzzleCases.parse("slider 3 42").toString());
+        assertEquals("bridge 1,2,5,8", PuzzleCases.parse(" bridge  1,2,5,8 ").toString());
+        assertEquals("twopails pail1=9 pail2=4 target=6", PuzzleCases.parse("pails 9 4 6").toString());
+        assertEquals("tantrix 4 tiles seed=1", PuzzleCases.parse("tantrix 4").toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownPuzzle() {
+        PuzzleCases.parse("chess 8");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMissingValue() {
+        PuzzleCases.parse("pails 9 4");
+    }
+
+    @Test
+    public void testSolveAll() throws Exception {
+        String input = "pails 9 4 6\n"
+                + "# a comment\n"
+                + "\n"
+                + "bridge 1,2,5,8 CONCURRENT_BREADTH\n"
+                + "pails 9 4 6 NO_SUCH_ALGORITHM\n"
+                + "slider 3 5 A_STAR_SEQUENTIAL\n";
+        StringWriter out = new StringWriter();
+
+        int numInstances = new BatchSolver(2, SolveLimits.NO_LIMIT).solveAll(new StringReader(input), out);
+
+        assertEquals(4, numInstances);
+        List<String> lines = Arrays.asList(out.toString().split("\\r?\\n"));
+        assertEquals(4, lines.size());
+        // results come in the order they finish
+        Collections.sort(lines);
+        assertTrue(lines.get(0), lines.get(0).startsWith("{\"line\":1,\"input\":\"pails 9 4 6\",\"puzzle\":\"twopails\""));
+        assertTrue(lines.get(0), lines.get(0).contains("\"solutionLength\":8"));
+        assertFalse("the instances share the heap", lines.get(0).contains("peakHeapBytes"));
+        assertTrue(lines.get(1), lines.get(1).contains("\"algorithm\":\"CONCURRENT_BREADTH\",\"solved\":true"));
+        assertTrue(lines.get(2), lines.get(2).contains("\"error\":\"There is no NO_SUCH_ALGORITHM algorithm"));
+        assertTrue(lines.get(3), lines.get(3).startsWith("{\"line\":6,"));
+    }
+}
@@ -0,0 +1,212 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.headless;
+
+import com.barrybecker4.common.app.AppContext;
+import com.barrybecker4.common.i18n.StubMessageContext;
+import com.barrybecker4.puzzle.common.PuzzleController;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.common.solver.distributed.DistributedSearchWorker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs distributed searches with workers listening on localhost.
+ * Most tests run the workers in this JVM. One starts each worker in a JVM of its own.
+ *
+ * @author Barry Becker
+ */
+public class DistributedSearchTest {
+
+    private static final int NUM_WORKERS = 3;
+
+    private List<DistributedSearchWorker> workers;
+    private List<InetSocketAddress> addresses;
+
+    @Before
+    public void setUp() throws IOException {
+        AppContext.injectMessageContext(new StubMessageContext());
+        workers = new ArrayList<>();
+        addresses = new ArrayList<>();
+        for (int i = 0; i < NUM_WORKERS; i++) {
+            DistributedSearchWorker worker = new DistributedSearchWorker(0, DistributedSearch.CASE_FACTORY);
+            worker.start();
+            workers.add(worker);
+            addresses.add(worker.getLocalAddress());
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (DistributedSearchWorker worker : workers) {
+            worker.close();
+        }
+        AppContext.injectMessageContext(null);
+    }
+
+    @Test
+    public void testSliderSameCostAsAStar() throws Exception {
+        verifyOptimal("slider 3 42");
+    }
+
+    @Test
+    public void testTwoPailsSameCostAsAStar() throws Exception {
+        verifyOptimal("pails 97 23 32");
+    }
+
+    /**
+     * The estimate for the bridge can overestimate, so neither search is sure to find the cheapest crossing,
+     * and they may find different ones. Only check that the path gets everyone across.
+     */
+    @Test
+    public void testBridgeSolved() throws Exception {
+        verifySolves(PuzzleCases.parse("bridge 1,2,5,8"), "bridge 1,2,5,8", addresses);
+    }
+
+    /** Every reachable position is expanded before giving up. */
+    @Test
+    public void testNoSolution() throws Exception {
+        SolveLimits limits = new SolveLimits();
+        assertNull(DistributedSearch.solve(PuzzleCases.parse("pails 4 2 3"), "pails 4 2 3", addresses, limits));
+        assertNull(limits.getStopReason());
+    }
+
+    /** The workers drop the nodes of one search when it ends, and are ready for the next. */
+    @Test
+    public void testWorkersServeSeveralSearches() throws Exception {
+        verifyOptimal("slider 3 42");
+        verifyOptimal("slider 3 7");
+        verifyOptimal("pails 9 4 6");
+    }
+
+    @Test
+    public void testNodeLimitStopsSearch() throws Exception {
+        SolveLimits limits = new SolveLimits(SolveLimits.NO_LIMIT, 10, SolveLimits.NO_LIMIT);
+        DistributedSearch.solve(PuzzleCases.parse("slider 4 42"), "slider 4 42", addresses, limits);
+        assertEquals(SolveLimits.StopReason.NODE_LIMIT, limits.getStopReason());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnreachableWorker() throws Exception {
+        int unusedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unusedPort = socket.getLocalPort();
+        }
+        List<InetSocketAddress> badAddresses = new ArrayList<>(addresses);
+        badAddresses.add(new InetSocketAddress("localhost", unusedPort));
+        DistributedSearch.solve(PuzzleCases.parse("slider 3 42"), "slider 3 42", badAddresses, new SolveLimits());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWorkersCannotCreateInstance() throws Exception {
+        DistributedSearch.solve(PuzzleCases.parse("slider 3 42"), "no such puzzle", addresses, new SolveLimits());
+    }
+
+    @Test
+    public void testParseAddresses() {
+        List<InetSocketAddress> parsed = DistributedSearch.parseAddresses("localhost:7001,10.0.0.2:7002");
+        assertEquals(2, parsed.size());
+        assertEquals("localhost", parsed.get(0).getHostString());
+        assertEquals(7002, parsed.get(1).getPort());
+    }
+
+    @Test
+    public void testWorkersInSeparateJvms() throws Exception {
+        List<Process> processes = new ArrayList<>();
+        try {
+            List<InetSocketAddress> remoteAddresses = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                Process process = startWorkerJvm();
+                processes.add(process);
+                remoteAddresses.add(new InetSocketAddress("localhost", readPort(process)));
+            }
+            verifyOptimal(PuzzleCases.parse("slider 3 42"), "slider 3 42", remoteAddresses);
+        } finally {
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+    }
+
+    /** Only for puzzles whose estimate never overestimates, so that both searches find the cheapest path. */
+    private void verifyOptimal(String spec) throws InterruptedException {
+        verifyOptimal(PuzzleCases.parse(spec), spec, addresses);
+    }
+
+    /**
+     * The paths may differ when several are equally cheap, so compare their costs.
+     */
+    private static <P, M> void verifyOptimal(PuzzleCase<P, M> puzzleCase, String spec,
+                                             List<InetSocketAddress> workerAddresses) throws InterruptedException {
+        List<M> path = verifySolves(puzzleCase, spec, workerAddresses);
+        PuzzleController<P, M> controller = puzzleCase.createController();
+        List<M> aStarPath = puzzleCase.getAlgorithm("A_STAR_SEQUENTIAL").createSolver(controller).solve();
+        assertNotNull(aStarPath);
+        assertEquals("Wrong cost for " + spec, pathCost(controller, aStarPath), pathCost(controller, path));
+    }
+
+    /**
+     * @return the path found by the distributed search, after checking that it replays to a goal.
+     */
+    private static <P, M> List<M> verifySolves(PuzzleCase<P, M> puzzleCase, String spec,
+                                               List<InetSocketAddress> workerAddresses) throws InterruptedException {
+        SolveLimits limits = new SolveLimits();
+        List<M> path = DistributedSearch.solve(puzzleCase, spec, workerAddresses, limits);
+        assertNotNull("No solution for " + spec, path);
+        assertNull(limits.getStopReason());
+
+        PuzzleController<P, M> controller = puzzleCase.createController();
+        P position = controller.initialPosition();
+        for (M move : path) {
+            position = controller.move(position, move);
+        }
+        assertTrue("The path " + path + " does not solve " + spec, controller.isGoal(position));
+        return path;
+    }
+
+    private static <P, M> int pathCost(PuzzleController<P, M> controller, List<M> path) {
+        int cost = 0;
+        for (M move : path) {
+            cost += controller.getCost(move);
+        }
+        return cost;
+    }
+
+    private static Process startWorkerJvm() throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>();
+        Collections.addAll(command, java, "-cp", System.getProperty("java.class.path"),
+                DistributedSearch.class.getName(), "-port", "0");
+        return new ProcessBuilder(command).redirectErrorStream(true).start();
+    }
+
+    /** The worker prints the port it is listening on when it is ready. */
+    private static int readPort(Process process) throws IOException {
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String prefix = "Worker listening on port ";
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(prefix)) {
+                return Integer.parseInt(line.substring(prefix.length()).trim());
+            }
+        }
+        throw new IOException("The worker exited before it was ready");
+    }
+}
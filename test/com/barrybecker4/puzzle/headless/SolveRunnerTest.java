@@ -0,0 +1,88 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.headless;
+
+import com.barrybecker4.common.app.AppContext;
+import com.barrybecker4.common.i18n.StubMessageContext;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.twopails.Algorithm;
+import com.barrybecker4.puzzle.twopails.model.PailParams;
+import com.barrybecker4.puzzle.twopails.model.Pails;
+import com.barrybecker4.puzzle.twopails.model.PourOperation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Barry Becker
+ */
+public class SolveRunnerTest {
+
+    @Before
+    public void setUp() {
+        AppContext.injectMessageContext(new StubMessageContext());
+    }
+
+    @After
+    public void tearDown() {
+        AppContext.injectMessageContext(null);
+    }
+
+    @Test
+    public void testRunTwoPails() {
+        PuzzleCase<Pails, PourOperation> puzzleCase = PuzzleCases.twoPails(new PailParams(9, 4, 6));
+        RunResult result = new SolveRunner(SolveLimits.NO_LIMIT).run(puzzleCase, Algorithm.A_STAR_SEQUENTIAL);
+
+        assertTrue(result.isSolved());
+        assertEquals(8, result.getSolutionLength());
+        assertTrue(result.getNodesExpanded() > 0);
+        assertTrue(result.getPeakHeapBytes() > 0);
+        assertNull(result.getStopReason());
+        assertEquals("A_STAR_SEQUENTIAL", result.getAlgorithm());
+    }
+
+    /** When runs share the heap, there is no peak for any one of them. */
+    @Test
+    public void testConcurrentRunsDoNotMeasureHeap() {
+        PuzzleCase<Pails, PourOperation> puzzleCase = PuzzleCases.twoPails(new PailParams(9, 4, 6));
+        RunResult result = new SolveRunner(SolveLimits.NO_LIMIT, null, 4).run(puzzleCase, Algorithm.A_STAR_SEQUENTIAL);
+
+        assertTrue(result.isSolved());
+        assertNull(result.getStopReason());
+        assertEquals(RunResult.NOT_MEASURED, result.getPeakHeapBytes());
+        assertFalse(result.toJson().contains("peakHeapBytes"));
+        assertTrue(result.toCsvRow().endsWith(",,"));
+    }
+
+    @Test
+    public void testGetAlgorithmByName() {
+        PuzzleCase<Pails, PourOperation> puzzleCase = PuzzleCases.twoPails(new PailParams(9, 4, 6));
+        assertEquals(Algorithm.CONCURRENT_BREADTH, puzzleCase.getAlgorithm("CONCURRENT_BREADTH"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetUnknownAlgorithm() {
+        PuzzleCases.twoPails(new PailParams(9, 4, 6)).getAlgorithm("NO_SUCH_ALGORITHM");
+    }
+
+    @Test
+    public void testCsvRow() {
+        RunResult result = new RunResult("bridge", "a, b", "A_STAR", false, -1, 10, 5, 20, 1000, "TIME_LIMIT");
+        assertEquals("bridge,\"a, b\",A_STAR,false,-1,10,5,20,1000,TIME_LIMIT", result.toCsvRow());
+        assertEquals(RunResult.CSV_HEADER.split(",").length, 10);
+    }
+
+    @Test
+    public void testJson() {
+        RunResult result = new RunResult("slider", "say \"hi\"", "IDA_STAR", true, 12, 10, 5, 20, 1000, null);
+        String json = result.toJson();
+        assertEquals("{\"puzzle\":\"slider\",\"instance\":\"say \\\"hi\\\"\",\"algorithm\":\"IDA_STAR\","
+                + "\"solved\":true,\"solutionLength\":12,\"wallMillis\":10,\"nodesExpanded\":5,"
+                + "\"nodesGenerated\":20,\"peakHeapBytes\":1000,\"stopReason\":null}", json);
+        assertFalse(json.contains("\n"));
+    }
+}
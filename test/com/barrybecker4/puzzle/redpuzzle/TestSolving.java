@@ -0,0 +1,82 @@
+/** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
+package com.barrybecker4.puzzle.redpuzzle;
+
+import com.barrybecker4.common.app.AppContext;
+import com.barrybecker4.common.i18n.StubMessageContext;
+import com.barrybecker4.puzzle.common.solver.PortfolioPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.redpuzzle.model.Piece;
+import com.barrybecker4.puzzle.redpuzzle.model.PieceList;
+import com.barrybecker4.puzzle.redpuzzle.solver.Algorithm;
+import com.barrybecker4.puzzle.redpuzzle.solver.GeneticSearchSolver;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Barry Becker
+ */
+public class TestSolving {
+
+    /** how long the members of a portfolio get to notice that they lost. */
+    private static final long STOP_WAIT_MILLIS = 5000;
+
+    @BeforeClass
+    public static void setUp() {
+        AppContext.injectMessageContext(new StubMessageContext());
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        AppContext.injectMessageContext(null);
+    }
+
+    @Test
+    public void testGeneticSearchStopsAtNodeLimit() {
+        SolveLimits limits = new SolveLimits(SolveLimits.NO_LIMIT, 5, SolveLimits.NO_LIMIT);
+        List<Piece> path = new GeneticSearchSolver(new RedPuzzleController(null), false).solve(limits);
+        assertNull(path);
+        assertEquals(SolveLimits.StopReason.NODE_LIMIT, limits.getStopReason());
+    }
+
+    @Test
+    public void testGeneticSearchStopsWhenCancelled() {
+        SolveLimits limits = new SolveLimits();
+        limits.cancel();
+        assertNull(new GeneticSearchSolver(new RedPuzzleController(null), false).solve(limits));
+        assertEquals(SolveLimits.StopReason.CANCELLED, limits.getStopReason());
+    }
+
+    /** Once one member has won, the genetic search, and any other that lost, must stop too. */
+    @Test
+    public void testPortfolioStopsLosingMembers() throws InterruptedException {
+        PortfolioPuzzleSolver<PieceList, Piece> solver =
+                (PortfolioPuzzleSolver<PieceList, Piece>) Algorithm.PORTFOLIO.createSolver(new RedPuzzleController(null));
+        List<Piece> path = solver.solve();
+        assertNotNull(path);
+        assertEquals(PieceList.NUM_PIECES, path.size());
+        assertNotNull(solver.getWinner());
+
+        long deadline = System.currentTimeMillis() + STOP_WAIT_MILLIS;
+        while (numPortfolioMembersRunning() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("Members still running after the portfolio finished", 0, numPortfolioMembersRunning());
+    }
+
+    private static int numPortfolioMembersRunning() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().equals("PortfolioMember")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
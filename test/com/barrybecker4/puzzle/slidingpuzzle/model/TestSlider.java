@@ -95,4 +95,52 @@ public class TestSlider  {
         assertFalse(boards.contains(board4));
     }
 
+    @Test
+    public void testEncodeDecode() {
+        Slider board = new Slider(3);
+        long code = board.encode();
+        assertEquals("Unexpected decoded board", board, Slider.decode(code, 3));
+        assertFalse("Different boards should have different codes", code == new Slider(3).encode());
+    }
+
+    @Test
+    public void testEncodeDecodeMediumBoard() {
+        Slider board = new Slider(4);
+        assertEquals("Unexpected decoded board", board, Slider.decode(board.encode(), 4));
+        Slider solved = new Slider(4, false);
+        assertEquals("Unexpected decoded board", solved, Slider.decode(solved.encode(), 4));
+    }
+
+    @Test
+    public void testTransposedGoalIsGoal() {
+        Slider solved = new Slider(3, false);
+        assertEquals("Unexpected transposed goal", solved, solved.transpose());
+        assertEquals("Unexpected canonical goal", solved, solved.canonical());
+    }
+
+    @Test
+    public void testBoardAndTransposeHaveSameCanonicalForm() {
+        Slider board = new Slider(4);
+        Slider transposed = board.transpose();
+        assertEquals("Transposing twice should give the board back", board, transposed.transpose());
+        assertEquals("Unexpected distance of transposed board", board.distanceToGoal(), transposed.distanceToGoal());
+        assertEquals("Unexpected canonical form", board.canonical(), transposed.canonical());
+        assertTrue(board.canonical() == board || transposed.canonical() == transposed);
+    }
+
+    /** Walk the board around, checking that the distance found from the last one is the same as from scratch. */
+    @Test
+    public void testDistanceAfterMove() {
+        ManhattanDistanceFinder finder = new ManhattanDistanceFinder();
+        Slider board = new Slider(4);
+        int distance = finder.findDistance(board);
+        for (int i = 0; i < 200; i++) {
+            List<SlideMove> moves = new MoveGenerator(board).generateMoves();
+            SlideMove move = moves.get(MathUtil.RANDOM.nextInt(moves.size()));
+            distance = finder.findDistance(board, move, distance);
+            board = board.doMove(move);
+            assertEquals("Unexpected distance after " + move, finder.findDistance(board), distance);
+        }
+    }
+
 }
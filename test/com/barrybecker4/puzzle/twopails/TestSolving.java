@@ -2,13 +2,24 @@ package com.barrybecker4.puzzle.twopails;
 
 import com.barrybecker4.common.app.AppContext;
 import com.barrybecker4.common.i18n.StubMessageContext;
+import com.barrybecker4.puzzle.common.solver.AnytimeAStarPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.CachingPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.BeamPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.ExternalBreadthFirstPuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.PortfolioPuzzleSolver;
 import com.barrybecker4.puzzle.common.solver.PuzzleSolver;
+import com.barrybecker4.puzzle.common.solver.SolutionListener;
+import com.barrybecker4.puzzle.common.solver.SolveLimits;
+import com.barrybecker4.puzzle.common.solver.cache.SolutionCache;
+import com.barrybecker4.puzzle.common.solver.metrics.SolverMetrics;
 import com.barrybecker4.puzzle.twopails.model.PailParams;
+import com.barrybecker4.puzzle.twopails.model.Pails;
 import com.barrybecker4.puzzle.twopails.model.PourOperation;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -88,6 +99,92 @@ public class TestSolving {
         runSolvingTests(Algorithm.A_STAR_SEQUENTIAL, A_STAR_CASES);
     }
 
+    @Test
+    public void testSolvingTestsWithCompactAStar() throws Exception {
+        runSolvingTests(Algorithm.A_STAR_COMPACT, A_STAR_CASES);
+    }
+
+    @Test
+    public void testSolvingTestsWithAnytimeAStar() throws Exception {
+        runSolvingTests(Algorithm.ANYTIME_A_STAR, A_STAR_CASES);
+    }
+
+    /** Each solution reported should be no worse than the last, and the bound should fall to 1. */
+    @Test
+    public void testAnytimeAStarReportsImprovingSolutions() throws Exception {
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+        controller.setParams(new PailParams(97, 23, 32));
+        AnytimeAStarPuzzleSolver<Pails, PourOperation> solver = new AnytimeAStarPuzzleSolver<>(controller, 5.0, 1.0);
+        final List<Integer> costs = new ArrayList<>();
+        final List<Double> bounds = new ArrayList<>();
+        solver.setSolutionListener(new SolutionListener<PourOperation>() {
+            @Override
+            public void solutionImproved(List<PourOperation> path, int cost, double bound, long elapsedMillis) {
+                assertEquals(path.size(), cost);
+                costs.add(cost);
+                bounds.add(bound);
+            }
+        });
+
+        List<PourOperation> path = solver.solve();
+
+        assertEquals(110, path.size());
+        assertEquals(Arrays.asList(5.0, 4.0, 3.0, 2.0, 1.0), bounds);
+        for (int i = 1; i < costs.size(); i++) {
+            assertTrue("Solution got worse: " + costs, costs.get(i) <= costs.get(i - 1));
+        }
+        assertEquals(110, (int) costs.get(costs.size() - 1));
+    }
+
+    /** The algorithm shows each improved solution in the controller, not only the last. */
+    @Test
+    public void testAnytimeAStarAlgorithmRefreshesImprovedSolutions() throws Exception {
+        final int[] numSolutionsShown = {0};
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null) {
+            @Override
+            public void refresh(Pails pails, long numTries) {
+                if (isGoal(pails)) {
+                    numSolutionsShown[0]++;
+                }
+            }
+        };
+        controller.setParams(new PailParams(97, 23, 32));
+
+        List<PourOperation> path = Algorithm.ANYTIME_A_STAR.createSolver(controller).solve();
+
+        assertEquals(110, path.size());
+        assertTrue("Only " + numSolutionsShown[0] + " solutions shown", numSolutionsShown[0] > 1);
+    }
+
+    @Test
+    public void testSolvingTestsWithIdaStar() throws Exception {
+        runSolvingTests(Algorithm.IDA_STAR_SEQUENTIAL, A_STAR_CASES);
+    }
+
+    @Test
+    public void testSolvingTestsWithConcurrentAStar() throws Exception {
+        runSolvingTests(Algorithm.A_STAR_CONCURRENT, A_STAR_CASES);
+    }
+
+    /** The pails have so few states that the default beam never has to drop any of them */
+    @Test
+    public void testSolvingWithBeamSearch() throws Exception {
+        runSolvingTests(Algorithm.BEAM_SEARCH, A_STAR_CASES);
+    }
+
+    @Test
+    public void testSolvingWithNarrowParallelBeamSearch() throws Exception {
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+
+        for (TestCase testCase : A_STAR_CASES) {
+            controller.setParams(testCase.params);
+            PuzzleSolver<PourOperation> solver = new BeamPuzzleSolver<>(controller, 4, 3);
+            List<PourOperation> path = solver.solve();
+            assertNotNull("No solution found for case params: " + testCase.params, path);
+            assertTrue("The path was " + path, path.size() >= testCase.expectedNumSteps);
+        }
+    }
+
     @Test
     public void testSolvingSimpleSequentialTests() throws Exception {
         runSolvingTests(Algorithm.SIMPLE_SEQUENTIAL, SIMPLE_SEQUENTIAL_CASES);
@@ -103,6 +200,24 @@ public class TestSolving {
         runSolvingTests(Algorithm.CONCURRENT_BREADTH, CONCURRENT_BREADTH_CASES, true);
     }
 
+    @Test
+    public void testSolvingWorkStealingTests() throws Exception {
+        runSolvingTests(Algorithm.CONCURRENT_WORK_STEALING, CONCURRENT_DEPTH_CASES, true);
+    }
+
+    /** Like the other concurrent searches, the length of the path found varies, so only check that it works. */
+    @Test
+    public void testSolvingVirtualThreadTests() throws Exception {
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+
+        for (TestCase testCase : CONCURRENT_DEPTH_CASES) {
+            controller.setParams(testCase.params);
+            PuzzleSolver<PourOperation> solver = Algorithm.CONCURRENT_VIRTUAL_THREADS.createSolver(controller);
+            List<PourOperation> path = solver.solve();
+            assertSolves(controller, testCase.params, path);
+        }
+    }
+
     public void runSolvingTests(Algorithm algorithm, List<TestCase> cases) throws Exception {
          runSolvingTests(algorithm, cases, false);
     }
@@ -135,16 +250,218 @@ public class TestSolving {
 
     @Test
     public void testSolutionNotFound() throws Exception {
+        runNotFoundTests(Algorithm.A_STAR_SEQUENTIAL);
+    }
+
+    @Test
+    public void testSolutionNotFoundWithBeamSearch() throws Exception {
+        runNotFoundTests(Algorithm.BEAM_SEARCH);
+    }
+
+    @Test
+    public void testSolutionNotFoundWithWorkStealing() throws Exception {
+        runNotFoundTests(Algorithm.CONCURRENT_WORK_STEALING);
+    }
+
+    @Test
+    public void testSolutionNotFoundWithVirtualThreads() throws Exception {
+        runNotFoundTests(Algorithm.CONCURRENT_VIRTUAL_THREADS);
+    }
+
+    private void runNotFoundTests(Algorithm algorithm) throws Exception {
         TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
-        PuzzleSolver<PourOperation> solver =  Algorithm.A_STAR_SEQUENTIAL.createSolver(controller);
 
         for (PailParams testCase : NEGATIVE_CASES) {
             controller.setParams(testCase);
+            PuzzleSolver<PourOperation> solver =  algorithm.createSolver(controller);
             List<PourOperation> path = solver.solve();
             assertNull("Solution unexpectedly found for params: " + testCase + " the path was " + path, path);
         }
     }
 
+    @Test
+    public void testNodeLimitStopsSearch() throws Exception {
+        runNodeLimitTest(Algorithm.A_STAR_SEQUENTIAL);
+    }
+
+    @Test
+    public void testNodeLimitStopsWorkStealingSearch() throws Exception {
+        runNodeLimitTest(Algorithm.CONCURRENT_WORK_STEALING);
+    }
+
+    @Test
+    public void testNodeLimitStopsVirtualThreadSearch() throws Exception {
+        runNodeLimitTest(Algorithm.CONCURRENT_VIRTUAL_THREADS);
+    }
+
+    /** The hardest case needs far more than 10 tries, so the search should stop without a solution. */
+    private void runNodeLimitTest(Algorithm algorithm) throws Exception {
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+        controller.setParams(new PailParams(97, 23, 32));
+        PuzzleSolver<PourOperation> solver =  algorithm.createSolver(controller);
+
+        SolveLimits limits = new SolveLimits(SolveLimits.NO_LIMIT, 10, SolveLimits.NO_LIMIT);
+        List<PourOperation> path = solver.solve(limits);
+        assertNull("Solution unexpectedly found within the node limit. The path was " + path, path);
+        assertEquals(SolveLimits.StopReason.NODE_LIMIT, limits.getStopReason());
+    }
+
+    /** The second time an instance is solved, the solution comes from the cache without a search. */
+    @Test
+    public void testCachedSolutionSkipsSearch() throws Exception {
+        SolutionCache cache = new SolutionCache(10);
+        final int[] numSearches = {0};
+        for (int i = 0; i < 2; i++) {
+            for (TestCase testCase : A_STAR_CASES) {
+                TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+                controller.setParams(testCase.params);
+                final PuzzleSolver<PourOperation> aStar = Algorithm.A_STAR_SEQUENTIAL.createSolver(controller);
+                PuzzleSolver<PourOperation> counting = new PuzzleSolver<PourOperation>() {
+                    @Override
+                    public List<PourOperation> solve() throws InterruptedException {
+                        return solve(new SolveLimits());
+                    }
+
+                    @Override
+                    public List<PourOperation> solve(SolveLimits limits) throws InterruptedException {
+                        numSearches[0]++;
+                        return aStar.solve(limits);
+                    }
+
+                    @Override
+                    public SolverMetrics getMetrics() {
+                        return aStar.getMetrics();
+                    }
+                };
+                PuzzleSolver<PourOperation> solver = new CachingPuzzleSolver<>(
+                        controller, counting, cache, testCase.params.toString(), "A_STAR_SEQUENTIAL");
+                List<PourOperation> path = solver.solve();
+                assertNotNull("No solution found for case params: " + testCase.params, path);
+                assertEquals("Unexpected number of steps to solve (" + testCase.params + "). The path was " + path,
+                        testCase.expectedNumSteps, path.size());
+            }
+        }
+        assertEquals("Each case should only be searched once", A_STAR_CASES.size(), numSearches[0]);
+    }
+
+    /**
+     * Pouring is not reversible, so every earlier layer is checked for duplicates.
+     * The small chunk size makes every layer get sorted in several runs that are then merged.
+     */
+    @Test
+    public void testSolvingWithExternalBreadthFirst() throws Exception {
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+
+        for (TestCase testCase : A_STAR_CASES) {
+            controller.setParams(testCase.params);
+            PuzzleSolver<PourOperation> solver = new ExternalBreadthFirstPuzzleSolver<>(
+                    controller, null, 16, ExternalBreadthFirstPuzzleSolver.ALL_LAYERS);
+            List<PourOperation> path = solver.solve();
+            assertNotNull("No solution found for case params: " + testCase.params, path);
+            assertEquals("Unexpected number of steps to solve (" + testCase.params + "). The path was " + path,
+                    testCase.expectedNumSteps, path.size());
+        }
+        for (PailParams testCase : NEGATIVE_CASES) {
+            controller.setParams(testCase);
+            PuzzleSolver<PourOperation> solver = new ExternalBreadthFirstPuzzleSolver<>(
+                    controller, null, 16, ExternalBreadthFirstPuzzleSolver.ALL_LAYERS);
+            assertNull("Solution unexpectedly found for params: " + testCase, solver.solve());
+        }
+    }
+
+    /**
+     * Pouring is not reversible, so by default every earlier layer is checked.
+     * Otherwise old positions would keep coming back and the search would never end without a solution.
+     */
+    @Test
+    public void testExternalBreadthFirstDefaultsEndWithoutSolution() throws Exception {
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+
+        for (PailParams testCase : NEGATIVE_CASES) {
+            controller.setParams(testCase);
+            SolveLimits limits = new SolveLimits(SolveLimits.NO_LIMIT, 100000, SolveLimits.NO_LIMIT);
+            assertNull("Solution unexpectedly found for params: " + testCase,
+                    new ExternalBreadthFirstPuzzleSolver<>(controller).solve(limits));
+            assertNull("The search did not end for params: " + testCase, limits.getStopReason());
+        }
+    }
+
+    /** Whichever member wins, the path returned must solve the puzzle. */
+    @Test
+    public void testSolvingWithPortfolio() throws Exception {
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+        List<Algorithm> algorithms =
+                Arrays.asList(Algorithm.A_STAR_SEQUENTIAL, Algorithm.CONCURRENT_DEPTH, Algorithm.BEAM_SEARCH);
+
+        for (TestCase testCase : A_STAR_CASES) {
+            controller.setParams(testCase.params);
+            PortfolioPuzzleSolver<Pails, PourOperation> solver = new PortfolioPuzzleSolver<>(controller, algorithms);
+            List<PourOperation> path = solver.solve();
+            assertTrue("Unexpected winner " + solver.getWinner(), algorithms.contains(solver.getWinner()));
+            assertSolves(controller, testCase.params, path);
+        }
+    }
+
+    @Test
+    public void testSolutionNotFoundWithPortfolio() throws Exception {
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+
+        for (PailParams testCase : NEGATIVE_CASES) {
+            controller.setParams(testCase);
+            PortfolioPuzzleSolver<Pails, PourOperation> solver = new PortfolioPuzzleSolver<>(controller,
+                    Arrays.asList(Algorithm.A_STAR_SEQUENTIAL, Algorithm.CONCURRENT_WORK_STEALING));
+            List<PourOperation> path = solver.solve();
+            assertNull("Solution unexpectedly found for params: " + testCase + " the path was " + path, path);
+            assertNull(solver.getWinner());
+        }
+    }
+
+    /** When every member stops at the node limit, the portfolio reports why. */
+    @Test
+    public void testNodeLimitStopsPortfolio() throws Exception {
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null);
+        controller.setParams(new PailParams(97, 23, 32));
+        PuzzleSolver<PourOperation> solver = new PortfolioPuzzleSolver<>(controller,
+                Arrays.asList(Algorithm.A_STAR_SEQUENTIAL, Algorithm.IDA_STAR_SEQUENTIAL));
+
+        SolveLimits limits = new SolveLimits(SolveLimits.NO_LIMIT, 10, SolveLimits.NO_LIMIT);
+        List<PourOperation> path = solver.solve(limits);
+        assertNull("Solution unexpectedly found within the node limit. The path was " + path, path);
+        assertEquals(SolveLimits.StopReason.NODE_LIMIT, limits.getStopReason());
+    }
+
+    /** The members share the node limit, so two of the same solver cannot do what one could with all of it. */
+    @Test
+    public void testPortfolioMembersShareNodeLimit() throws Exception {
+        final long[] numTries = {0};
+        TwoPailsPuzzleController controller = new TwoPailsPuzzleController(null) {
+            @Override
+            public void finalRefresh(List<PourOperation> path, Pails position, long tries, long elapsedMillis) {
+                numTries[0] = tries;
+            }
+        };
+        controller.setParams(new PailParams(97, 23, 32));
+        assertNotNull(Algorithm.A_STAR_SEQUENTIAL.createSolver(controller).solve());
+
+        PuzzleSolver<PourOperation> solver = new PortfolioPuzzleSolver<>(controller,
+                Arrays.asList(Algorithm.A_STAR_SEQUENTIAL, Algorithm.A_STAR_SEQUENTIAL));
+        // enough for one, but not when split in two
+        SolveLimits limits = new SolveLimits(SolveLimits.NO_LIMIT, numTries[0] * 3 / 2, SolveLimits.NO_LIMIT);
+        List<PourOperation> path = solver.solve(limits);
+        assertNull("Solution unexpectedly found within half the node limit. The path was " + path, path);
+        assertEquals(SolveLimits.StopReason.NODE_LIMIT, limits.getStopReason());
+    }
+
+    /** Replay the path from the initial position, and check that it ends at a goal. */
+    private static void assertSolves(TwoPailsPuzzleController controller, PailParams params,
+                                     List<PourOperation> path) {
+        assertNotNull("No solution found for case params: " + params, path);
+        Pails position = controller.initialPosition();
+        for (PourOperation move : path) {
+            position = controller.move(position, move);
+        }
+        assertTrue("The path " + path + " does not solve " + params, controller.isGoal(position));
+    }
 
     private static class TestCase {
         PailParams params;
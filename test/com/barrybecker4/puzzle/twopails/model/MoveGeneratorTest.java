@@ -1,6 +1,7 @@
 /** Copyright by Barry G. Becker, 2013. Licensed under MIT License: http://www.opensource.org/licenses/MIT  */
 package com.barrybecker4.puzzle.twopails.model;
 
+import com.barrybecker4.puzzle.common.model.MoveBuffer;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -10,6 +11,7 @@ import java.util.List;
 import static com.barrybecker4.puzzle.twopails.model.PourOperation.Action.*;
 import static com.barrybecker4.puzzle.twopails.model.PourOperation.Container.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 /**
  * @author Barry Becker
  */
@@ -37,6 +39,17 @@ public class MoveGeneratorTest {
         verifyGeneratedMoves(pails, expectedOps);
     }
 
+    @Test
+    public void testSameOperationsEveryTime() {
+
+        Pails pails = new Pails(new PailParams(9, 4, 6));
+        List<PourOperation> first = new MoveGenerator(pails).generateMoves();
+        List<PourOperation> second = new MoveGenerator(pails).generateMoves();
+        for (int i = 0; i < first.size(); i++) {
+            assertSame("Operations should not be created again", first.get(i), second.get(i));
+        }
+    }
+
     @Test
     public void testGenerateMovesWhenAll0() {
 
@@ -124,5 +137,12 @@ public class MoveGeneratorTest {
 
         assertEquals("Unexpected list of candidate operations",
                 expectedOps, possibleOps);
+
+        MoveBuffer<PourOperation> buffer = new MoveBuffer<>();
+        generator.generateMoves(buffer);
+        assertEquals("Unexpected number of operations passed to the sink", expectedOps.size(), buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            assertEquals("Unexpected operation passed to the sink", expectedOps.get(i), buffer.get(i));
+        }
     }
 }